@@ -24,10 +24,23 @@ import java.util.stream.Stream;
 public class AsyncUncheckedScContext {
     //    private final static Logger logger = LoggerFactory.getLogger(AsyncUncheckedScContext.class);
     private final UncheckedScContext context;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final ExecutorService executorService;
 
     public AsyncUncheckedScContext(UncheckedScContext context) {
+        this(context, Executors.newFixedThreadPool(4));
+    }
+
+    /**
+     * Each call of the context is submitted to the passed executor.
+     * Use {@link ScContextExecutors#newThreadPerCallExecutor()} to run each call in its own virtual thread.
+     * The executor is not shut down by the context.
+     *
+     * @param executorService - executor of the calls
+     * @since 0.4.0
+     */
+    public AsyncUncheckedScContext(UncheckedScContext context, ExecutorService executorService) {
         this.context = context;
+        this.executorService = executorService;
     }
 
     public Future<ScNode> createNode(NodeType type) {
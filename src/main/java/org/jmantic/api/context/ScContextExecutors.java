@@ -0,0 +1,57 @@
+package org.jmantic.api.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for {@link AsyncUncheckedScContext}.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public final class ScContextExecutors {
+    private static final MethodHandle newVirtualThreadPerTaskExecutor = findVirtualThreadPerTaskExecutor();
+
+    private ScContextExecutors() {
+    }
+
+    /**
+     * Each call of the context runs in its own virtual thread.
+     * Calls of the context wait for the sc-machine without pinning the carrier thread,
+     * so many concurrent calls cost no more than the connections they use.
+     * <p>
+     * Virtual threads are available since JDK 21.
+     * On older JDKs each call runs in its own platform thread that is reused by the next calls.
+     *
+     * @return executor that starts a new thread for each call
+     */
+    public static ExecutorService newThreadPerCallExecutor() {
+        if (newVirtualThreadPerTaskExecutor == null) {
+            return Executors.newCachedThreadPool();
+        }
+        try {
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot create executor of virtual threads", e);
+        }
+    }
+
+    /**
+     * @return true if {@link #newThreadPerCallExecutor()} uses virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
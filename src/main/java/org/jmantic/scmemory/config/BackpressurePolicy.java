@@ -0,0 +1,23 @@
+package org.jmantic.scmemory.config;
+
+/**
+ * What a caller does when the window of requests in flight of a connection is full.
+ * <p>
+ * The policy applies only to requests whose caller waits for the response.
+ * Asynchronous requests never wait and always fail like with {@link #FAIL_FAST}.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public enum BackpressurePolicy {
+    /**
+     * The caller of a synchronous request waits until one of the requests in flight is completed.
+     */
+    BLOCK,
+
+    /**
+     * The request fails immediately,
+     * and the caller can retry it later or reduce the load.
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,559 @@
+package org.jmantic.scmemory.config;
+
+import org.jmantic.scmemory.model.exception.ScMemoryConfigurationException;
+
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Settings of the websocket connections to the sc-machine.
+ * <p>
+ * The settings are read when the sc-memory is created,
+ * so changing the configuration later does not affect already created sc-memories.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisClientConfiguration {
+    /**
+     * The value of {@link #getMaxInFlightRequests()} that disables the window of requests in flight.
+     */
+    public static final int UNLIMITED_IN_FLIGHT_REQUESTS = 0;
+
+    /**
+     * The value of {@link #getRequestTimeout()} that disables the deadline of requests.
+     */
+    public static final Duration NO_TIMEOUT = Duration.ZERO;
+
+    /**
+     * The value of {@link #getPingInterval()} that disables keepalive pings.
+     */
+    public static final Duration NO_KEEPALIVE = Duration.ZERO;
+
+    /**
+     * The value of {@link #getDecoderThreads()} that decodes responses on the thread that reads the socket.
+     */
+    public static final int DECODE_ON_READ_THREAD = 0;
+
+    /**
+     * The smallest value of {@link #getFragmentSize()}, which fits any character in UTF-8.
+     */
+    public static final int MIN_FRAGMENT_SIZE = 4;
+
+    /**
+     * The value of {@link #getCompressionThreshold()} that compresses every message.
+     */
+    public static final int COMPRESS_ALL_MESSAGES = 0;
+
+    /**
+     * The value of {@link #getWireTapSampleRate()} that captures every request.
+     */
+    public static final double TAP_ALL_REQUESTS = 1;
+
+    /**
+     * The value of {@link #getContentCacheMaxBytes()} that disables the link content cache.
+     */
+    public static final long NO_CONTENT_CACHE = 0;
+
+    /**
+     * The value of {@link #getKeynodeCacheFile()} that disables the keynode cache file.
+     */
+    public static final Path NO_KEYNODE_CACHE_FILE = null;
+
+    private int maxInFlightRequests = UNLIMITED_IN_FLIGHT_REQUESTS;
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private boolean reconnectEnabled = true;
+    private Duration reconnectInitialDelay = Duration.ofMillis(100);
+    private Duration reconnectMaxDelay = Duration.ofSeconds(30);
+    private Duration pingInterval = Duration.ofSeconds(30);
+    private double minHealthScore = 0.5;
+    private WebsocketTransport transport = WebsocketTransport.JAVA_WEBSOCKET;
+    private int decoderThreads = DECODE_ON_READ_THREAD;
+    private int fragmentSize = 64 * 1024;
+    private WireFormat wireFormat = WireFormat.JSON;
+    private boolean compressionEnabled = false;
+    private int compressionThreshold = 1024;
+    private boolean wireTapEnabled = false;
+    private int wireTapCapacity = 256;
+    private double wireTapSampleRate = TAP_ALL_REQUESTS;
+    private Set<RequestType> wireTapRequestTypes = EnumSet.allOf(RequestType.class);
+    private long contentCacheMaxBytes = NO_CONTENT_CACHE;
+    private boolean contentCacheInvalidationEnabled = false;
+    private Path keynodeCacheFile = NO_KEYNODE_CACHE_FILE;
+
+    /**
+     * @return max number of requests that can wait for the response on one connection at the same time
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Sets the size of the window of requests in flight.
+     * Each connection has its own window.
+     * A request takes a place in the window before it is written to the socket,
+     * and frees it when the response is received.
+     *
+     * @param maxInFlightRequests - size of the window, or {@link #UNLIMITED_IN_FLIGHT_REQUESTS}
+     */
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        if (maxInFlightRequests < 0) {
+            throw new ScMemoryConfigurationException("max number of requests in flight cannot be negative, but it is " + maxInFlightRequests);
+        }
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    /**
+     * @return what a caller does when the window of requests in flight is full
+     */
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    /**
+     * Sets what a caller does when the window of requests in flight is full.
+     * The policy applies only to synchronous requests,
+     * asynchronous requests fail immediately when the window is full.
+     */
+    public void setBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+        if (backpressurePolicy == null) {
+            throw new ScMemoryConfigurationException("backpressure policy cannot be null");
+        }
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    /**
+     * @return default deadline of each request
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sets the default deadline of each request.
+     * If the response is not received before the deadline,
+     * the operation fails with {@link org.jmantic.scmemory.model.exception.ScMemoryTimeoutException}.
+     * The deadline of separate calls can be changed with {@code withTimeout} method of the sc-memory.
+     *
+     * @param requestTimeout - positive duration, or {@link #NO_TIMEOUT}
+     */
+    public void setRequestTimeout(Duration requestTimeout) {
+        if (requestTimeout == null || requestTimeout.isNegative()) {
+            throw new ScMemoryConfigurationException("request timeout must be positive or zero, but it is " + requestTimeout);
+        }
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return whether the lost connection is restored automatically
+     */
+    public boolean isReconnectEnabled() {
+        return reconnectEnabled;
+    }
+
+    /**
+     * Enables or disables automatic reconnection.
+     * When the connection is lost, idempotent requests in flight are sent again after reconnection,
+     * and other requests fail with {@link org.jmantic.scmemory.model.exception.ScMemoryRetryableException}.
+     * If reconnection is disabled, all requests in flight fail.
+     */
+    public void setReconnectEnabled(boolean reconnectEnabled) {
+        this.reconnectEnabled = reconnectEnabled;
+    }
+
+    /**
+     * @return delay before the first attempt to reconnect
+     */
+    public Duration getReconnectInitialDelay() {
+        return reconnectInitialDelay;
+    }
+
+    /**
+     * Sets the delay before the first attempt to reconnect.
+     * The delay is doubled after each failed attempt up to {@link #getReconnectMaxDelay()},
+     * and a random part of it is subtracted, so that many clients do not reconnect at the same moment.
+     *
+     * @param reconnectInitialDelay - positive duration
+     */
+    public void setReconnectInitialDelay(Duration reconnectInitialDelay) {
+        if (reconnectInitialDelay == null || reconnectInitialDelay.isNegative() || reconnectInitialDelay.isZero()) {
+            throw new ScMemoryConfigurationException("reconnect initial delay must be positive, but it is " + reconnectInitialDelay);
+        }
+        this.reconnectInitialDelay = reconnectInitialDelay;
+    }
+
+    /**
+     * @return max delay between attempts to reconnect
+     */
+    public Duration getReconnectMaxDelay() {
+        return reconnectMaxDelay;
+    }
+
+    /**
+     * @param reconnectMaxDelay - positive duration
+     */
+    public void setReconnectMaxDelay(Duration reconnectMaxDelay) {
+        if (reconnectMaxDelay == null || reconnectMaxDelay.isNegative() || reconnectMaxDelay.isZero()) {
+            throw new ScMemoryConfigurationException("reconnect max delay must be positive, but it is " + reconnectMaxDelay);
+        }
+        this.reconnectMaxDelay = reconnectMaxDelay;
+    }
+
+    /**
+     * @return interval between keepalive pings of each connection
+     */
+    public Duration getPingInterval() {
+        return pingInterval;
+    }
+
+    /**
+     * Sets the interval between keepalive pings.
+     * Pings keep idle connections alive behind proxies and load balancers,
+     * and a pong that is not received before the next ping lowers the health score of the connection.
+     * If the pings cannot recycle the connection, dead connections are still detected by the websocket library.
+     *
+     * @param pingInterval - positive duration, or {@link #NO_KEEPALIVE}
+     */
+    public void setPingInterval(Duration pingInterval) {
+        if (pingInterval == null || pingInterval.isNegative()) {
+            throw new ScMemoryConfigurationException("ping interval must be positive or zero, but it is " + pingInterval);
+        }
+        this.pingInterval = pingInterval;
+    }
+
+    /**
+     * @return health score below which the connection is recycled
+     */
+    public double getMinHealthScore() {
+        return minHealthScore;
+    }
+
+    /**
+     * Sets the health score below which the connection is closed and opened again.
+     * The health score is from 0 to 1 and falls with missed pongs and failures to send over the connection.
+     * It is checked before each ping, so the connection is recycled only if reconnection is enabled
+     * and keepalive pings are not disabled.
+     *
+     * @param minHealthScore - value from 0 (never recycle) to 1
+     */
+    public void setMinHealthScore(double minHealthScore) {
+        if (!(minHealthScore >= 0 && minHealthScore <= 1)) {
+            throw new ScMemoryConfigurationException("min health score must be from 0 to 1, but it is " + minHealthScore);
+        }
+        this.minHealthScore = minHealthScore;
+    }
+
+    /**
+     * @return library that is used for the websocket connections
+     */
+    public WebsocketTransport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(WebsocketTransport transport) {
+        if (transport == null) {
+            throw new ScMemoryConfigurationException("websocket transport cannot be null");
+        }
+        this.transport = transport;
+    }
+
+    /**
+     * @return number of threads of each connection that decode received responses
+     */
+    public int getDecoderThreads() {
+        return decoderThreads;
+    }
+
+    /**
+     * Sets the number of decoder threads of each connection.
+     * A received response is passed to the decoder thread that is chosen by the id of the response,
+     * and this thread completes the request and deserializes the response of an asynchronous call.
+     * So a large response delays only the responses that are routed to the same decoder thread,
+     * instead of every response received after it.
+     *
+     * @param decoderThreads - positive number, or {@link #DECODE_ON_READ_THREAD}
+     */
+    public void setDecoderThreads(int decoderThreads) {
+        if (decoderThreads < 0) {
+            throw new ScMemoryConfigurationException("number of decoder threads cannot be negative, but it is " + decoderThreads);
+        }
+        this.decoderThreads = decoderThreads;
+    }
+
+    /**
+     * @return max size in bytes of one websocket frame of a request
+     */
+    public int getFragmentSize() {
+        return fragmentSize;
+    }
+
+    /**
+     * Sets the size of the buffers that requests are written into.
+     * A request that does not fit into one buffer is sent as a text message of several fragments,
+     * and each fragment is sent as soon as the buffer is full.
+     * So the memory that is used to send a request does not depend on the size of the request.
+     * <p>
+     * Other requests over the same connection wait until all fragments of such request are sent.
+     *
+     * @param fragmentSize - size in bytes, not less than {@link #MIN_FRAGMENT_SIZE}
+     */
+    public void setFragmentSize(int fragmentSize) {
+        if (fragmentSize < MIN_FRAGMENT_SIZE) {
+            throw new ScMemoryConfigurationException("fragment size must be at least " + MIN_FRAGMENT_SIZE + " bytes, but it is " + fragmentSize);
+        }
+        this.fragmentSize = fragmentSize;
+    }
+
+    /**
+     * @return format of requests and responses
+     */
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * Sets the format of requests and responses.
+     * The sc-machine understands only {@link WireFormat#JSON},
+     * so binary formats need a proxy next to the sc-machine that translates them to json and back.
+     */
+    public void setWireFormat(WireFormat wireFormat) {
+        if (wireFormat == null) {
+            throw new ScMemoryConfigurationException("wire format cannot be null");
+        }
+        this.wireFormat = wireFormat;
+    }
+
+    /**
+     * @return whether the permessage-deflate extension is offered to the server
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Enables or disables the permessage-deflate compression of messages.
+     * The extension is offered in the handshake, and messages are compressed
+     * only if the server accepts it, otherwise the connection works without compression.
+     * It is supported only by {@link WebsocketTransport#JAVA_WEBSOCKET},
+     * the JDK websocket cannot negotiate extensions.
+     * <p>
+     * Compression saves the bandwidth at the cost of the processor time on both sides,
+     * so it pays off for remote sc-machines with large link contents and search results.
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * @return size in bytes below which messages are sent without compression
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Sets the size of the message below which it is sent without compression,
+     * because deflate of small messages costs more than it saves.
+     * A message that is sent in several fragments is always compressed,
+     * because its size is not known when the first fragment is sent.
+     *
+     * @param compressionThreshold - size in bytes, or {@link #COMPRESS_ALL_MESSAGES}
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        if (compressionThreshold < 0) {
+            throw new ScMemoryConfigurationException("compression threshold cannot be negative, but it is " + compressionThreshold);
+        }
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * @return whether requests and responses are captured by the wire tap
+     */
+    public boolean isWireTapEnabled() {
+        return wireTapEnabled;
+    }
+
+    /**
+     * Enables or disables the wire tap, which keeps recent requests and responses in memory,
+     * so they can be dumped with {@code dumpWireTap} method of the sc-memory.
+     * Captured frames are also logged at the trace level.
+     * <p>
+     * A captured request is serialized once more, so the wire tap is meant for debugging.
+     * When it is disabled, nothing is copied or built for it.
+     */
+    public void setWireTapEnabled(boolean wireTapEnabled) {
+        this.wireTapEnabled = wireTapEnabled;
+    }
+
+    /**
+     * @return max number of frames that the wire tap keeps
+     */
+    public int getWireTapCapacity() {
+        return wireTapCapacity;
+    }
+
+    /**
+     * Sets the size of the ring buffer of the wire tap.
+     * When it is full, each new frame replaces the oldest one.
+     *
+     * @param wireTapCapacity - positive number of frames
+     */
+    public void setWireTapCapacity(int wireTapCapacity) {
+        if (wireTapCapacity <= 0) {
+            throw new ScMemoryConfigurationException("wire tap capacity must be positive, but it is " + wireTapCapacity);
+        }
+        this.wireTapCapacity = wireTapCapacity;
+    }
+
+    /**
+     * @return part of the requests that are captured by the wire tap
+     */
+    public double getWireTapSampleRate() {
+        return wireTapSampleRate;
+    }
+
+    /**
+     * Sets the part of the requests that are captured by the wire tap.
+     * Requests are chosen at random, and the response is captured together with its request.
+     *
+     * @param wireTapSampleRate - value from 0 to 1, or {@link #TAP_ALL_REQUESTS}
+     */
+    public void setWireTapSampleRate(double wireTapSampleRate) {
+        if (!(wireTapSampleRate >= 0 && wireTapSampleRate <= 1)) {
+            throw new ScMemoryConfigurationException("wire tap sample rate must be from 0 to 1, but it is " + wireTapSampleRate);
+        }
+        this.wireTapSampleRate = wireTapSampleRate;
+    }
+
+    /**
+     * @return types of the requests that are captured by the wire tap
+     */
+    public Set<RequestType> getWireTapRequestTypes() {
+        return EnumSet.copyOf(wireTapRequestTypes);
+    }
+
+    /**
+     * Sets the types of the requests that are captured by the wire tap,
+     * for example only {@link RequestType#SEARCH_TEMPLATE} to debug searches.
+     * All types are captured by default.
+     *
+     * @param wireTapRequestTypes - not empty set of types
+     */
+    public void setWireTapRequestTypes(Set<RequestType> wireTapRequestTypes) {
+        if (wireTapRequestTypes == null || wireTapRequestTypes.isEmpty()) {
+            throw new ScMemoryConfigurationException("wire tap request types cannot be empty");
+        }
+        this.wireTapRequestTypes = EnumSet.copyOf(wireTapRequestTypes);
+    }
+
+    /**
+     * @return max approximate size in bytes of the contents in the link content cache
+     */
+    public long getContentCacheMaxBytes() {
+        return contentCacheMaxBytes;
+    }
+
+    /**
+     * Sets the size of the cache of link contents, which keeps the contents that are read
+     * and written by the sc-memory, so that they are not requested again.
+     * The least recently used contents are evicted when the cache is full.
+     * A string is counted as two bytes per character, plus the overhead of the entry.
+     * <p>
+     * Without {@link #setContentCacheInvalidationEnabled(boolean)} the cache does not know about changes
+     * made by other clients of the sc-machine, so it is meant for contents that do not change, such as identifiers.
+     *
+     * @param contentCacheMaxBytes - size in bytes, or {@link #NO_CONTENT_CACHE}
+     */
+    public void setContentCacheMaxBytes(long contentCacheMaxBytes) {
+        if (contentCacheMaxBytes < 0) {
+            throw new ScMemoryConfigurationException("content cache size cannot be negative, but it is " + contentCacheMaxBytes);
+        }
+        this.contentCacheMaxBytes = contentCacheMaxBytes;
+    }
+
+    /**
+     * @return whether the link content cache subscribes to the changes of the cached links
+     */
+    public boolean isContentCacheInvalidationEnabled() {
+        return contentCacheInvalidationEnabled;
+    }
+
+    /**
+     * Enables or disables the invalidation of the link content cache by the events of the sc-machine.
+     * Each cached link is subscribed to the change of its content and to its deletion,
+     * and its content is removed from the cache when the sc-machine reports the event.
+     * So the cache stays correct when other clients change the contents.
+     * <p>
+     * The subscription is created by one events request for all links that are read by one call,
+     * before their contents are requested.
+     * Contents that are written by this sc-memory are not put into the cache, because it would need
+     * another request, and they are cached when they are read.
+     * When the lost connection is restored, the whole cache is invalidated,
+     * because the events of the closed connection are lost.
+     * It has no effect without the content cache.
+     */
+    public void setContentCacheInvalidationEnabled(boolean contentCacheInvalidationEnabled) {
+        this.contentCacheInvalidationEnabled = contentCacheInvalidationEnabled;
+    }
+
+    /**
+     * @return file that keeps the resolved keynodes between the runs of the application
+     */
+    public Path getKeynodeCacheFile() {
+        return keynodeCacheFile;
+    }
+
+    /**
+     * Sets the file that keeps the addresses of the keynodes found by the keynode resolver,
+     * so that they are not looked up again after a restart.
+     * The file is memory-mapped, and each keynode is appended when it is found.
+     * <p>
+     * When the sc-memory is opened, all the kept keynodes are found by one request.
+     * If any of them is not found or has another address, the memory of the sc-machine was changed,
+     * and the file is written again with the found addresses.
+     * So opening with a file that keeps all the keynodes of the application needs one round trip.
+     * <p>
+     * The file is written by one sc-memory at a time, which locks it, and only read by the others.
+     *
+     * @param keynodeCacheFile - path to the file, which is created if it does not exist, or {@link #NO_KEYNODE_CACHE_FILE}
+     */
+    public void setKeynodeCacheFile(Path keynodeCacheFile) {
+        if (keynodeCacheFile != null && Files.isDirectory(keynodeCacheFile)) {
+            throw new ScMemoryConfigurationException("keynode cache file cannot be a directory, but it is " + keynodeCacheFile);
+        }
+        this.keynodeCacheFile = keynodeCacheFile;
+    }
+
+    @Override
+    public String toString() {
+        return "OstisClientConfiguration{" +
+                "maxInFlightRequests=" + maxInFlightRequests +
+                ", backpressurePolicy=" + backpressurePolicy +
+                ", requestTimeout=" + requestTimeout +
+                ", reconnectEnabled=" + reconnectEnabled +
+                ", reconnectInitialDelay=" + reconnectInitialDelay +
+                ", reconnectMaxDelay=" + reconnectMaxDelay +
+                ", pingInterval=" + pingInterval +
+                ", minHealthScore=" + minHealthScore +
+                ", transport=" + transport +
+                ", decoderThreads=" + decoderThreads +
+                ", fragmentSize=" + fragmentSize +
+                ", wireFormat=" + wireFormat +
+                ", compressionEnabled=" + compressionEnabled +
+                ", compressionThreshold=" + compressionThreshold +
+                ", wireTapEnabled=" + wireTapEnabled +
+                ", wireTapCapacity=" + wireTapCapacity +
+                ", wireTapSampleRate=" + wireTapSampleRate +
+                ", wireTapRequestTypes=" + wireTapRequestTypes +
+                ", contentCacheMaxBytes=" + contentCacheMaxBytes +
+                ", contentCacheInvalidationEnabled=" + contentCacheInvalidationEnabled +
+                ", keynodeCacheFile=" + keynodeCacheFile +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package org.jmantic.scmemory.config;
+
+/**
+ * Library that is used for the websocket connections to the sc-machine.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public enum WebsocketTransport {
+    /**
+     * Client of the Java-WebSocket library.
+     */
+    JAVA_WEBSOCKET,
+
+    /**
+     * Asynchronous {@link java.net.http.WebSocket} of the JDK.
+     * It needs no dependencies besides the JDK.
+     */
+    JDK
+}
@@ -0,0 +1,28 @@
+package org.jmantic.scmemory.config;
+
+/**
+ * Format of the messages between the client and the server.
+ * <p>
+ * The sc-machine reads and writes json only.
+ * Binary formats are meant for a proxy next to the sc-machine that translates them to json,
+ * they are smaller than json and faster to parse.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public enum WireFormat {
+    /**
+     * Json in text messages.
+     */
+    JSON,
+
+    /**
+     * Binary json of the Smile format in binary messages.
+     */
+    SMILE,
+
+    /**
+     * CBOR (RFC 8949) in binary messages.
+     */
+    CBOR
+}
@@ -0,0 +1,129 @@
+package org.jmantic.scmemory.model;
+
+import org.jmantic.scmemory.model.element.ScElement;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkFloat;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous version of {@link ScMemory}.
+ * <p>
+ * Methods of this interface do not wait for the sc-machine.
+ * Each method sends the request and returns a future,
+ * that is completed when the response is received.
+ * If the operation fails, the future is completed exceptionally
+ * with {@link org.jmantic.scmemory.model.exception.ScMemoryException}.
+ * If the passed streams have different lengths, the future is completed exceptionally
+ * with {@link IllegalArgumentException}.
+ * <p>
+ * All passed streams are consumed before the method returns.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface AsyncScMemory {
+
+    /**
+     * @see ScMemory#createNodes(Stream)
+     */
+    CompletableFuture<Stream<? extends ScNode>> createNodes(Stream<NodeType> elements);
+
+    /**
+     * @see ScMemory#createEdges(Stream, Stream, Stream)
+     */
+    CompletableFuture<Stream<? extends ScEdge>> createEdges(Stream<EdgeType> elements,
+                                                            Stream<? extends ScElement> sources,
+                                                            Stream<? extends ScElement> targets);
+
+    /**
+     * @see ScMemory#createIntegerLinks(Stream, Stream)
+     */
+    CompletableFuture<Stream<? extends ScLinkInteger>> createIntegerLinks(Stream<LinkType> elements, Stream<Integer> content);
+
+    /**
+     * @see ScMemory#createFloatLinks(Stream, Stream)
+     */
+    CompletableFuture<Stream<? extends ScLinkFloat>> createFloatLinks(Stream<LinkType> elements, Stream<Float> content);
+
+    /**
+     * @see ScMemory#createStringLinks(Stream, Stream)
+     */
+    CompletableFuture<Stream<? extends ScLinkString>> createStringLinks(Stream<LinkType> elements, Stream<String> content);
+
+    /**
+     * @see ScMemory#deleteElements(Stream)
+     */
+    CompletableFuture<Boolean> deleteElements(Stream<? extends ScElement> elements);
+
+    /**
+     * @see ScMemory#findByTemplateNodeEdgeNode(ScNode, EdgeType, NodeType)
+     */
+    CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeNode(ScNode fixedNode, EdgeType edgeType, NodeType nodeType);
+
+    /**
+     * @see ScMemory#findByTemplateNodeEdgeLink(ScNode, EdgeType, LinkType, LinkContentType)
+     */
+    CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeLink(ScNode fixedNode,
+                                                                           EdgeType edgeType,
+                                                                           LinkType linkType,
+                                                                           LinkContentType contentType);
+
+    /**
+     * @see ScMemory#findByTemplateNodeEdgeLinkWithRelation(ScNode, EdgeType, LinkType, LinkContentType, ScNode, EdgeType)
+     */
+    CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeLinkWithRelation(ScNode fixedNode,
+                                                                                       EdgeType edgeType,
+                                                                                       LinkType linkType,
+                                                                                       LinkContentType contentType,
+                                                                                       ScNode fixedRelationNode,
+                                                                                       EdgeType relationEdgeType);
+
+    CompletableFuture<Stream<Boolean>> setIntegerLinkContent(Stream<? extends ScLinkInteger> links, Stream<Integer> content);
+
+    CompletableFuture<Stream<Boolean>> setFloatLinkContent(Stream<? extends ScLinkFloat> links, Stream<Float> content);
+
+    CompletableFuture<Stream<Boolean>> setStringLinkContent(Stream<? extends ScLinkString> links, Stream<String> content);
+
+    CompletableFuture<Stream<Integer>> getIntegerLinkContent(Stream<? extends ScLinkInteger> elements);
+
+    CompletableFuture<Stream<Float>> getFloatLinkContent(Stream<? extends ScLinkFloat> elements);
+
+    CompletableFuture<Stream<String>> getStringLinkContent(Stream<? extends ScLinkString> elements);
+
+    /**
+     * Returns AsyncScMemory that sends each request with the passed deadline instead of the configured one.
+     * If the response is not received in time, the operation fails with
+     * {@link org.jmantic.scmemory.model.exception.ScMemoryTimeoutException}.
+     * <p></p>
+     * The returned AsyncScMemory uses the same connection, so it must not be opened or closed separately.
+     *
+     * @param timeout - deadline of each request, or zero duration to wait without deadline
+     * @return AsyncScMemory with another deadline
+     * @since 0.4.0
+     */
+    AsyncScMemory withTimeout(Duration timeout);
+
+    /**
+     * Implementation specific!
+     * <p></p>
+     * It is recommended to open AsyncScMemory before use.
+     */
+    void open() throws Exception;
+
+    /**
+     * Implementation specific!
+     * <p></p>
+     * You must close AsyncScMemory if you have opened it before using the method ({@link #open()})
+     */
+    void close() throws Exception;
+}
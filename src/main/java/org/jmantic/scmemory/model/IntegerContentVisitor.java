@@ -0,0 +1,12 @@
+package org.jmantic.scmemory.model;
+
+/**
+ * Receives integer contents of links while the response is being read.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@FunctionalInterface
+public interface IntegerContentVisitor {
+    void visit(long link, int content);
+}
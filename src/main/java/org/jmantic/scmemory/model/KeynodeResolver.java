@@ -0,0 +1,54 @@
+package org.jmantic.scmemory.model;
+
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+
+/**
+ * Finds elements by their system identifiers.
+ * <p>
+ * Identifiers of one call are resolved by one request, and found addresses are cached,
+ * so each keynode is requested from the sc-machine once.
+ * Addresses are returned in the order of the passed identifiers.
+ * Identifiers that are not found are not cached, so they are requested again by the next call.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface KeynodeResolver {
+    /**
+     * Address that is returned for an identifier that is not found.
+     */
+    long NOT_FOUND = 0;
+
+    /**
+     * @return address of the element, or {@link #NOT_FOUND}
+     */
+    long find(String systemIdentifier) throws ScMemoryException;
+
+    /**
+     * @return addresses of the elements, with {@link #NOT_FOUND} for the identifiers that are not found
+     */
+    long[] find(String[] systemIdentifiers) throws ScMemoryException;
+
+    /**
+     * Finds the element, or creates a node with the type and the system identifier if it is not found.
+     *
+     * @param type - type of the node that is created
+     * @return address of the found or created element
+     */
+    long resolve(String systemIdentifier, NodeType type) throws ScMemoryException;
+
+    /**
+     * @param type - type of the nodes that are created
+     * @return addresses of the found or created elements
+     */
+    long[] resolve(String[] systemIdentifiers, NodeType type) throws ScMemoryException;
+
+    /**
+     * Finds some elements and resolves the others by one request.
+     *
+     * @param types - type of the node that is created for each identifier, or null to only find the element
+     * @return addresses of the elements, with {@link #NOT_FOUND} for the found identifiers that are not found
+     */
+    long[] lookup(String[] systemIdentifiers, NodeType[] types) throws ScMemoryException;
+}
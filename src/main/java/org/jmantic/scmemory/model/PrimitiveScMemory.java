@@ -0,0 +1,174 @@
+package org.jmantic.scmemory.model;
+
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+
+/**
+ * Version of {@link ScMemory} that works with addresses of elements instead of element objects.
+ * <p>
+ * It is designed for bulk operations, that only pass addresses from one request to another.
+ * Elements are identified by their {@code long} addresses,
+ * and all batches are arrays of primitives,
+ * so no object is created for each element of the batch.
+ * <p>
+ * Elements at the same index of the passed arrays describe one element,
+ * and the returned arrays have the same order.
+ * If the passed arrays have different lengths, {@link IllegalArgumentException} is thrown.
+ * The passed arrays must not be changed until the method returns.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface PrimitiveScMemory {
+
+    /**
+     * @return addresses of the created nodes
+     * @see ScMemory#createNodes(java.util.stream.Stream)
+     */
+    long[] createNodes(NodeType[] types) throws ScMemoryException;
+
+    /**
+     * @param sources - addresses of the sources of the edges
+     * @param targets - addresses of the targets of the edges
+     * @return addresses of the created edges
+     * @see ScMemory#createEdges(java.util.stream.Stream, java.util.stream.Stream, java.util.stream.Stream)
+     */
+    long[] createEdges(EdgeType[] types, long[] sources, long[] targets) throws ScMemoryException;
+
+    /**
+     * @return addresses of the created links
+     * @see ScMemory#createIntegerLinks(java.util.stream.Stream, java.util.stream.Stream)
+     */
+    long[] createIntegerLinks(LinkType[] types, int[] content) throws ScMemoryException;
+
+    /**
+     * @return addresses of the created links
+     * @see ScMemory#createFloatLinks(java.util.stream.Stream, java.util.stream.Stream)
+     */
+    long[] createFloatLinks(LinkType[] types, float[] content) throws ScMemoryException;
+
+    /**
+     * @see ScMemory#deleteElements(java.util.stream.Stream)
+     */
+    boolean deleteElements(long[] addresses) throws ScMemoryException;
+
+    /**
+     * Edges created by {@link TripleBatch#toScEdges()} have the fixed node as their source,
+     * whose type is unknown, so it is {@link NodeType#NODE}.
+     *
+     * @param fixedNode - address of the source node
+     * @return addresses of the found constructions
+     * @see ScMemory#findByTemplateNodeEdgeNode(org.jmantic.scmemory.model.element.node.ScNode, EdgeType, NodeType)
+     */
+    TripleBatch<NodeType> findByTemplateNodeEdgeNode(long fixedNode, EdgeType edgeType, NodeType nodeType) throws ScMemoryException;
+
+    /**
+     * @param fixedNode   - address of the source node
+     * @param contentType - type of the content of the found links, which is read only by {@link TripleBatch#toScEdges()}
+     * @return addresses of the found constructions
+     * @see ScMemory#findByTemplateNodeEdgeLink(org.jmantic.scmemory.model.element.node.ScNode, EdgeType, LinkType, LinkContentType)
+     */
+    TripleBatch<LinkType> findByTemplateNodeEdgeLink(long fixedNode,
+                                                     EdgeType edgeType,
+                                                     LinkType linkType,
+                                                     LinkContentType contentType) throws ScMemoryException;
+
+    /**
+     * @param fixedNode         - address of the source node
+     * @param contentType       - type of the content of the found links, which is read only by {@link TripleBatch#toScEdges()}
+     * @param fixedRelationNode - address of the relation node
+     * @return addresses of the found constructions without the relation edges
+     * @see ScMemory#findByTemplateNodeEdgeLinkWithRelation(org.jmantic.scmemory.model.element.node.ScNode, EdgeType, LinkType, LinkContentType, org.jmantic.scmemory.model.element.node.ScNode, EdgeType)
+     */
+    TripleBatch<LinkType> findByTemplateNodeEdgeLinkWithRelation(long fixedNode,
+                                                                 EdgeType edgeType,
+                                                                 LinkType linkType,
+                                                                 LinkContentType contentType,
+                                                                 long fixedRelationNode,
+                                                                 EdgeType relationEdgeType) throws ScMemoryException;
+
+    /**
+     * Same as {@link #findByTemplateNodeEdgeNode(long, EdgeType, NodeType)},
+     * but each found construction is passed to the visitor while the response is read,
+     * and nothing is collected.
+     *
+     * @return number of found constructions
+     */
+    int findByTemplateNodeEdgeNode(long fixedNode, EdgeType edgeType, NodeType nodeType, TripleVisitor visitor) throws ScMemoryException;
+
+    /**
+     * Same as {@link #findByTemplateNodeEdgeLink(long, EdgeType, LinkType, LinkContentType)},
+     * but each found construction is passed to the visitor while the response is read,
+     * and nothing is collected.
+     *
+     * @return number of found constructions
+     */
+    int findByTemplateNodeEdgeLink(long fixedNode, EdgeType edgeType, LinkType linkType, TripleVisitor visitor) throws ScMemoryException;
+
+    /**
+     * Same as {@link #findByTemplateNodeEdgeLinkWithRelation(long, EdgeType, LinkType, LinkContentType, long, EdgeType)},
+     * but each found construction is passed to the visitor while the response is read,
+     * and nothing is collected.
+     *
+     * @return number of found constructions
+     */
+    int findByTemplateNodeEdgeLinkWithRelation(long fixedNode,
+                                               EdgeType edgeType,
+                                               LinkType linkType,
+                                               long fixedRelationNode,
+                                               EdgeType relationEdgeType,
+                                               TripleVisitor visitor) throws ScMemoryException;
+
+    /**
+     * @param links - addresses of the links
+     * @return status of the operation for each link
+     * @see ScMemory#setIntegerLinkContent(java.util.stream.Stream, java.util.stream.Stream)
+     */
+    boolean[] setIntegerLinkContent(long[] links, int[] content) throws ScMemoryException;
+
+    /**
+     * @param links - addresses of the links
+     * @return status of the operation for each link
+     * @see ScMemory#setFloatLinkContent(java.util.stream.Stream, java.util.stream.Stream)
+     */
+    boolean[] setFloatLinkContent(long[] links, float[] content) throws ScMemoryException;
+
+    /**
+     * @param links - addresses of the links
+     * @return content of each link
+     * @throws ScMemoryException if any link has no integer content
+     * @see ScMemory#getIntegerLinkContent(java.util.stream.Stream)
+     */
+    int[] getIntegerLinkContent(long[] links) throws ScMemoryException;
+
+    /**
+     * Same as {@link #getIntegerLinkContent(long[])},
+     * but the content of each link is passed to the visitor while the response is read.
+     * If a link has no integer content, the links before it are already visited.
+     *
+     * @throws ScMemoryException if any link has no integer content
+     */
+    void getIntegerLinkContent(long[] links, IntegerContentVisitor visitor) throws ScMemoryException;
+
+    /**
+     * Integer contents are converted to floats.
+     *
+     * @param links - addresses of the links
+     * @return content of each link
+     * @throws ScMemoryException if any link has no numeric content
+     * @see ScMemory#getFloatLinkContent(java.util.stream.Stream)
+     */
+    float[] getFloatLinkContent(long[] links) throws ScMemoryException;
+
+    /**
+     * Same as {@link #getFloatLinkContent(long[])},
+     * but the content of each link is passed to the visitor while the response is read.
+     * If a link has no numeric content, the links before it are already visited.
+     *
+     * @throws ScMemoryException if any link has no numeric content
+     */
+    void getFloatLinkContent(long[] links, FloatContentVisitor visitor) throws ScMemoryException;
+}
@@ -12,6 +12,7 @@ import org.jmantic.scmemory.model.element.node.NodeType;
 import org.jmantic.scmemory.model.element.node.ScNode;
 import org.jmantic.scmemory.model.exception.ScMemoryException;
 
+import java.time.Duration;
 import java.util.stream.Stream;
 
 /**
@@ -22,7 +23,6 @@ import java.util.stream.Stream;
  *     <li>Elements generator by template</li>
  *     <li>More searching templates</li>
  *     <li>Sc-machine events</li>
- *     <li>Keynodes finder and resolver</li>
  *     <li>Method for creating sc-link with binary content (and get/set methods)</li>
  *
  * </ul>
@@ -174,6 +174,24 @@ public interface ScMemory {
     Stream<String> getStringLinkContent(Stream<? extends ScLinkString> elements) throws ScMemoryException;
 
 
+    /**
+     * Returns ScMemory that sends each request with the passed deadline instead of the configured one.
+     * If the response is not received in time, the operation fails with
+     * {@link org.jmantic.scmemory.model.exception.ScMemoryTimeoutException}.
+     * <p></p>
+     * The returned ScMemory uses the same connection, so it must not be opened or closed separately.
+     * <p></p>
+     * Implementations that do not support deadlines of separate requests keep this default method.
+     *
+     * @param timeout - deadline of each request, or zero duration to wait without deadline
+     * @return ScMemory with another deadline
+     * @throws UnsupportedOperationException if the implementation does not support deadlines of separate requests
+     * @since 0.4.0
+     */
+    default ScMemory withTimeout(Duration timeout) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support deadlines of separate requests");
+    }
+
     /**
      * Implementation specific!
      * <p></p>
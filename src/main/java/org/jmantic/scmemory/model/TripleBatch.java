@@ -0,0 +1,79 @@
+package org.jmantic.scmemory.model;
+
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+
+import java.util.stream.Stream;
+
+/**
+ * Result of a template search, where each found construction is
+ * <p>
+ * (source sc-element) -------(sc-edge)------> (target sc-element)
+ * <p>
+ * Addresses are kept in three columns, one row for each found construction,
+ * so the result of any size takes three arrays of primitives.
+ * Objects of elements are created only by {@link #toScEdges()}.
+ *
+ * @param <T> - type of the target elements, such as {@link org.jmantic.scmemory.model.element.node.NodeType}
+ *            or {@link org.jmantic.scmemory.model.element.link.LinkType}
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface TripleBatch<T> {
+
+    /**
+     * @return number of found constructions
+     */
+    int size();
+
+    /**
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    long getSource(int row);
+
+    /**
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    long getEdge(int row);
+
+    /**
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    long getTarget(int row);
+
+    /**
+     * @return copy of the column of source addresses
+     */
+    long[] getSources();
+
+    /**
+     * @return copy of the column of edge addresses
+     */
+    long[] getEdges();
+
+    /**
+     * @return copy of the column of target addresses
+     */
+    long[] getTargets();
+
+    /**
+     * @return type of all found edges
+     */
+    EdgeType getEdgeType();
+
+    /**
+     * @return type of all found targets
+     */
+    T getTargetType();
+
+    /**
+     * Creates edges with their sources and targets, as the methods of {@link ScMemory} return them.
+     * Edge objects are created while the stream is consumed.
+     * If the targets are links, their content is read by one request before the stream is returned.
+     *
+     * @return stream of edges in the order of rows
+     * @throws ScMemoryException if the content of the target links cannot be read
+     */
+    Stream<? extends ScEdge> toScEdges() throws ScMemoryException;
+}
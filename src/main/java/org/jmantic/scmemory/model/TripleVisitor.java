@@ -0,0 +1,15 @@
+package org.jmantic.scmemory.model;
+
+/**
+ * Receives found constructions of a template search
+ * while the response is being read, without creating any object for them.
+ * <p>
+ * (source sc-element) -------(sc-edge)------> (target sc-element)
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@FunctionalInterface
+public interface TripleVisitor {
+    void visit(long source, long edge, long target);
+}
@@ -0,0 +1,19 @@
+package org.jmantic.scmemory.model.exception;
+
+/**
+ * This exception is indicating that the operation failed because the connection to the sc-machine was lost.
+ * The connection is restored automatically, so the operation can be retried.
+ * The operation may have been applied by the sc-machine before the connection was lost.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class ScMemoryRetryableException extends ScMemoryException {
+    public ScMemoryRetryableException(String message) {
+        super(message);
+    }
+
+    public ScMemoryRetryableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
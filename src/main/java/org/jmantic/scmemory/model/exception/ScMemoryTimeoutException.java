@@ -0,0 +1,18 @@
+package org.jmantic.scmemory.model.exception;
+
+/**
+ * This exception is indicating that the sc-machine did not answer before the deadline of the operation.
+ * The operation may have been applied by the sc-machine anyway.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class ScMemoryTimeoutException extends ScMemoryException {
+    public ScMemoryTimeoutException(String message) {
+        super(message);
+    }
+
+    public ScMemoryTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,47 @@
+package org.jmantic.scmemory.model.keynode;
+
+import org.jmantic.scmemory.model.element.node.NodeType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a keynode by a static field or an interface constant.
+ * <p>
+ * Identifiers of all the annotated fields of a compilation are collected by
+ * {@link org.jmantic.scmemory.processor.KeynodeProcessor} into one {@link KeynodeSet},
+ * which is looked up by one request when the sc-memory is opened.
+ * <pre>{@code
+ * interface Concepts {
+ *     @Keynode
+ *     String CONCEPT_AGENT = "concept_agent";
+ *     @Keynode(resolve = true)
+ *     String QUESTION_FINISHED = "question_finished";
+ * }
+ * }</pre>
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Keynode {
+    /**
+     * @return system identifier of the keynode, or empty string to use the value of the string constant
+     */
+    String value() default "";
+
+    /**
+     * @return true to create the node if it is not found
+     */
+    boolean resolve() default false;
+
+    /**
+     * @return type of the node that is created if it is not found
+     */
+    NodeType type() default NodeType.CONST_CLASS;
+}
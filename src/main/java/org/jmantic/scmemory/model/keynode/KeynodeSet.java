@@ -0,0 +1,21 @@
+package org.jmantic.scmemory.model.keynode;
+
+import org.jmantic.scmemory.model.element.node.NodeType;
+
+/**
+ * Keynodes that are looked up together when the sc-memory is opened.
+ * <p>
+ * Implementations are generated from the {@link Keynode} fields and found by {@link java.util.ServiceLoader},
+ * so the addresses of all of them are cached before the first request of the application.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface KeynodeSet {
+    String[] getSystemIdentifiers();
+
+    /**
+     * @return type of the node that is created for each identifier, or null to only find the element
+     */
+    NodeType[] getTypes();
+}
@@ -0,0 +1,172 @@
+package org.jmantic.scmemory.processor;
+
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.keynode.Keynode;
+import org.jmantic.scmemory.model.keynode.KeynodeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates one {@link KeynodeSet} from all the {@link Keynode} fields of a compilation,
+ * and registers it for {@link java.util.ServiceLoader}.
+ * <p>
+ * The class is named by the {@value #CLASS_OPTION} option,
+ * or else it is {@value #DEFAULT_SIMPLE_NAME} in the first package with keynodes.
+ * An identifier that is declared several times is looked up once,
+ * and it is resolved if any of its declarations resolves it.
+ * <p>
+ * The class is generated in the first round that has keynodes,
+ * so keynodes in sources generated by other processors are reported as errors.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@SupportedAnnotationTypes("org.jmantic.scmemory.model.keynode.Keynode")
+@SupportedOptions(KeynodeProcessor.CLASS_OPTION)
+public class KeynodeProcessor extends AbstractProcessor {
+    public static final String CLASS_OPTION = "jmantic.keynodes.class";
+    public static final String DEFAULT_SIMPLE_NAME = "GeneratedKeynodes";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<? extends Element> fields = roundEnv.getElementsAnnotatedWith(Keynode.class);
+        if (fields.isEmpty()) {
+            return false;
+        }
+        Messager messager = processingEnv.getMessager();
+        if (generated) {
+            fields.forEach(field -> messager.printMessage(Diagnostic.Kind.ERROR,
+                    "keynodes in generated sources are not collected", field));
+            return true;
+        }
+        generated = true;
+        Map<String, NodeType> keynodes = new LinkedHashMap<>();
+        Map<String, Element> declarations = new LinkedHashMap<>();
+        for (Element field : fields) {
+            String systemIdentifier = systemIdentifier(field, messager);
+            if (systemIdentifier == null) {
+                continue;
+            }
+            Keynode keynode = field.getAnnotation(Keynode.class);
+            NodeType type = keynode.resolve() ? keynode.type() : null;
+            NodeType previous = keynodes.get(systemIdentifier);
+            if (previous != null && type != null && previous != type) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "keynode " + systemIdentifier + " is resolved as "
+                        + previous + " by " + declarations.get(systemIdentifier) + ", but as " + type, field);
+                continue;
+            }
+            if (previous == null) {
+                keynodes.put(systemIdentifier, type);
+                declarations.put(systemIdentifier, field);
+            }
+        }
+        if (!keynodes.isEmpty()) {
+            generate(className(fields), keynodes, fields.toArray(Element[]::new));
+        }
+        return true;
+    }
+
+    /**
+     * @return identifier of the field, or null if it is reported as an error
+     */
+    private String systemIdentifier(Element field, Messager messager) {
+        if (!field.getModifiers().contains(Modifier.STATIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "keynode must be a static field", field);
+            return null;
+        }
+        String systemIdentifier = field.getAnnotation(Keynode.class).value();
+        if (systemIdentifier.isEmpty() && ((VariableElement) field).getConstantValue() instanceof String constant) {
+            systemIdentifier = constant;
+        }
+        if (systemIdentifier.isBlank()) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "keynode must have a system identifier in the annotation or be a string constant", field);
+            return null;
+        }
+        return systemIdentifier;
+    }
+
+    private String className(Set<? extends Element> fields) {
+        String option = processingEnv.getOptions().get(CLASS_OPTION);
+        if (option != null && !option.isBlank()) {
+            return option;
+        }
+        Elements elements = processingEnv.getElementUtils();
+        String packageName = fields.stream()
+                .map(field -> elements.getPackageOf(field).getQualifiedName().toString())
+                .min(String::compareTo)
+                .orElse("");
+        return packageName.isEmpty() ? DEFAULT_SIMPLE_NAME : packageName + "." + DEFAULT_SIMPLE_NAME;
+    }
+
+    private void generate(String className, Map<String, NodeType> keynodes, Element[] originatingElements) {
+        Filer filer = processingEnv.getFiler();
+        Elements elements = processingEnv.getElementUtils();
+        int lastDot = className.lastIndexOf('.');
+        List<String> lines = new ArrayList<>();
+        if (lastDot > 0) {
+            lines.add("package " + className.substring(0, lastDot) + ";");
+            lines.add("");
+        }
+        lines.add("import " + NodeType.class.getName() + ";");
+        lines.add("import " + KeynodeSet.class.getName() + ";");
+        lines.add("");
+        lines.add("@javax.annotation.processing.Generated(\"" + KeynodeProcessor.class.getName() + "\")");
+        lines.add("public final class " + className.substring(lastDot + 1) + " implements KeynodeSet {");
+        lines.add("    private static final String[] SYSTEM_IDENTIFIERS = {");
+        keynodes.keySet().forEach(identifier -> lines.add("            " + elements.getConstantExpression(identifier) + ","));
+        lines.add("    };");
+        lines.add("    private static final NodeType[] TYPES = {");
+        keynodes.values().forEach(type -> lines.add("            " + (type == null ? "null" : "NodeType." + type.name()) + ","));
+        lines.add("    };");
+        lines.add("");
+        lines.add("    @Override");
+        lines.add("    public String[] getSystemIdentifiers() {");
+        lines.add("        return SYSTEM_IDENTIFIERS.clone();");
+        lines.add("    }");
+        lines.add("");
+        lines.add("    @Override");
+        lines.add("    public NodeType[] getTypes() {");
+        lines.add("        return TYPES.clone();");
+        lines.add("    }");
+        lines.add("}");
+        try {
+            try (Writer writer = filer.createSourceFile(className, originatingElements).openWriter()) {
+                writer.write(String.join("\n", lines) + "\n");
+            }
+            try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + KeynodeSet.class.getName(), originatingElements).openWriter()) {
+                writer.write(className + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "cannot generate " + className + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+/**
+ * Counters of the permessage-deflate compression since the client was created.
+ * <p>
+ * Messages are counted only over connections where the server accepted the extension.
+ * Bytes are the payload of data frames, without frame headers:
+ * the payload before compression, and the payload on the wire after it.
+ * Messages below the compression threshold are counted with the same size in both.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public final class CompressionStats {
+    /**
+     * Stats of a client without compression.
+     */
+    public static final CompressionStats NONE = new CompressionStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final long sentMessages;
+    private final long compressedSentMessages;
+    private final long sentBytes;
+    private final long sentWireBytes;
+    private final long receivedMessages;
+    private final long compressedReceivedMessages;
+    private final long receivedBytes;
+    private final long receivedWireBytes;
+
+    public CompressionStats(long sentMessages,
+                            long compressedSentMessages,
+                            long sentBytes,
+                            long sentWireBytes,
+                            long receivedMessages,
+                            long compressedReceivedMessages,
+                            long receivedBytes,
+                            long receivedWireBytes) {
+        this.sentMessages = sentMessages;
+        this.compressedSentMessages = compressedSentMessages;
+        this.sentBytes = sentBytes;
+        this.sentWireBytes = sentWireBytes;
+        this.receivedMessages = receivedMessages;
+        this.compressedReceivedMessages = compressedReceivedMessages;
+        this.receivedBytes = receivedBytes;
+        this.receivedWireBytes = receivedWireBytes;
+    }
+
+    public long getSentMessages() {
+        return sentMessages;
+    }
+
+    public long getCompressedSentMessages() {
+        return compressedSentMessages;
+    }
+
+    /**
+     * @return payload bytes of sent messages before compression
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    /**
+     * @return payload bytes of sent messages on the wire
+     */
+    public long getSentWireBytes() {
+        return sentWireBytes;
+    }
+
+    public long getReceivedMessages() {
+        return receivedMessages;
+    }
+
+    public long getCompressedReceivedMessages() {
+        return compressedReceivedMessages;
+    }
+
+    /**
+     * @return payload bytes of received messages after decompression
+     */
+    public long getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    /**
+     * @return payload bytes of received messages on the wire
+     */
+    public long getReceivedWireBytes() {
+        return receivedWireBytes;
+    }
+
+    /**
+     * @return bytes before compression per byte on the wire of sent messages,
+     * for example 4 if the wire carries a quarter of the payload, or 1 if nothing was sent
+     */
+    public double getSentRatio() {
+        return ratio(sentBytes, sentWireBytes);
+    }
+
+    /**
+     * @return bytes after decompression per byte on the wire of received messages,
+     * or 1 if nothing was received
+     */
+    public double getReceivedRatio() {
+        return ratio(receivedBytes, receivedWireBytes);
+    }
+
+    /**
+     * @return sums of the counters, for example of several connections
+     */
+    public CompressionStats plus(CompressionStats other) {
+        return new CompressionStats(sentMessages + other.sentMessages,
+                compressedSentMessages + other.compressedSentMessages,
+                sentBytes + other.sentBytes,
+                sentWireBytes + other.sentWireBytes,
+                receivedMessages + other.receivedMessages,
+                compressedReceivedMessages + other.compressedReceivedMessages,
+                receivedBytes + other.receivedBytes,
+                receivedWireBytes + other.receivedWireBytes);
+    }
+
+    private static double ratio(long bytes, long wireBytes) {
+        return wireBytes == 0 ? 1 : (double) bytes / wireBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats{" +
+                "sentMessages=" + sentMessages +
+                ", compressedSentMessages=" + compressedSentMessages +
+                ", sentRatio=" + getSentRatio() +
+                ", receivedMessages=" + receivedMessages +
+                ", compressedReceivedMessages=" + compressedReceivedMessages +
+                ", receivedRatio=" + getReceivedRatio() +
+                '}';
+    }
+}
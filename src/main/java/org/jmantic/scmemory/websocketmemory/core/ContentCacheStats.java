@@ -0,0 +1,86 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+/**
+ * Counters of the link content cache since the sc-memory was created.
+ * <p>
+ * Hits and misses are counted for each requested link,
+ * so one call for ten links adds ten to their sum.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public final class ContentCacheStats {
+    /**
+     * Stats of an sc-memory without the content cache.
+     */
+    public static final ContentCacheStats NONE = new ContentCacheStats(0, 0, 0, 0, 0);
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long size;
+    private final long weight;
+
+    public ContentCacheStats(long hits, long misses, long evictions, long size, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * @return number of links whose content is taken from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of links whose content is requested from the sc-machine
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of contents that are removed from the cache to free the space for others
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return number of links whose content is in the cache
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return approximate size in bytes of the contents in the cache
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return part of the links whose content is taken from the cache, or 0 if nothing was requested
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentCacheStats{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + getHitRate() +
+                ", evictions=" + evictions +
+                ", size=" + size +
+                ", weight=" + weight +
+                '}';
+    }
+}
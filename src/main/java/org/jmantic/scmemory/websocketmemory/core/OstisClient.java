@@ -4,6 +4,8 @@ import org.jmantic.scmemory.model.exception.ScMemoryException;
 import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Michael
@@ -15,5 +17,100 @@ public interface OstisClient extends AutoCloseable{
 
     void open();
 
-    String sendToOstis(String jsonRequest) throws OstisConnectionException;
+    /**
+     * Sends the request and waits for the response with the same id.
+     * Many threads can send requests through one client at the same time.
+     *
+     * @param requestId   - id of the request. Must be unique among the requests that are waiting for the response.
+     * @param jsonRequest - request in the json format.
+     * @param idempotent  - whether the request can be sent again after reconnection.
+     * @param timeout     - deadline of the request, or zero duration to wait without deadline.
+     * @return response with the same id.
+     * @throws org.jmantic.scmemory.websocketmemory.sync.exception.OstisTimeoutException if the deadline is passed
+     * @throws org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionLostException if the request is not idempotent
+     *                                                                                         and the connection is lost
+     * @since 0.4.0
+     */
+    default String sendToOstis(long requestId, String jsonRequest, boolean idempotent, Duration timeout) throws OstisConnectionException {
+        return sendToOstis(requestId, RequestWriter.of(jsonRequest), idempotent, timeout).getText();
+    }
+
+    /**
+     * Same as {@link #sendToOstis(long, String, boolean, Duration)},
+     * but the request is written straight into the buffers of the connection,
+     * so the whole request is never held in memory.
+     *
+     * @param request - writer of the request in the wire format of the client.
+     * @return text or binary message of the response, depending on the wire format.
+     * @since 0.4.0
+     */
+    OstisMessage sendToOstis(long requestId, RequestWriter request, boolean idempotent, Duration timeout) throws OstisConnectionException;
+
+    /**
+     * Sends the request without waiting for the response.
+     * The returned future is completed when the response with the same id is received,
+     * or completed exceptionally with {@link OstisConnectionException} if the response cannot be received.
+     * If the deadline is passed, the request is forgotten,
+     * and the future is completed exceptionally with {@link org.jmantic.scmemory.websocketmemory.sync.exception.OstisTimeoutException}.
+     * <p>
+     * If the connection is lost, idempotent requests are sent again when the connection is restored.
+     * Other requests are completed exceptionally with
+     * {@link org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionLostException},
+     * because it is unknown whether the sc-machine applied them.
+     * <p>
+     * The caller never waits for a place in the window of requests in flight.
+     * If the window is full, the future is completed exceptionally with
+     * {@link org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException}.
+     *
+     * @param requestId   - id of the request. Must be unique among the requests that are waiting for the response.
+     * @param jsonRequest - request in the json format.
+     * @param idempotent  - whether the request can be sent again after reconnection.
+     * @param timeout     - deadline of the request, or zero duration to wait without deadline.
+     * @return future of the response with the same id.
+     * @since 0.4.0
+     */
+    default CompletableFuture<String> sendToOstisAsync(long requestId, String jsonRequest, boolean idempotent, Duration timeout) {
+        return sendToOstisAsync(requestId, RequestWriter.of(jsonRequest), idempotent, timeout).thenApply(OstisMessage::getText);
+    }
+
+    /**
+     * Same as {@link #sendToOstisAsync(long, String, boolean, Duration)},
+     * but the request is written straight into the buffers of the connection,
+     * so the whole request is never held in memory.
+     * The future is completed exceptionally with {@link OstisConnectionException}
+     * if the writer fails.
+     *
+     * @param request - writer of the request in the wire format of the client.
+     * @since 0.4.0
+     */
+    CompletableFuture<OstisMessage> sendToOstisAsync(long requestId, RequestWriter request, boolean idempotent, Duration timeout);
+
+    /**
+     * @return counters of the permessage-deflate compression of the messages of this client
+     * @since 0.4.0
+     */
+    default CompressionStats getCompressionStats() {
+        return CompressionStats.NONE;
+    }
+
+    /**
+     * Sets the listener of event messages of all connections of this client.
+     * Without a listener, event messages are skipped.
+     *
+     * @param listener - listener, or null to skip event messages
+     * @since 0.4.0
+     */
+    default void setEventListener(OstisEventListener listener) {
+    }
+
+    /**
+     * A subscription to events belongs to the connection that sent the events request,
+     * so the requests that create and delete subscriptions must be sent through one connection.
+     *
+     * @return client of the one connection that events requests are sent through
+     * @since 0.4.0
+     */
+    default OstisClient getEventsClient() {
+        return this;
+    }
 }
@@ -0,0 +1,27 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+/**
+ * Receives event messages of the sc-machine,
+ * which are sent for the subscriptions created with the events request.
+ * <p>
+ * It is called by the thread that reads the socket, so it must not block.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface OstisEventListener {
+
+    /**
+     * @param eventId - id of the subscription, as the sc-machine returned it for the events request
+     * @param message - whole event message, whose payload has the addresses of the event
+     */
+    void onEvent(long eventId, OstisMessage message);
+
+    /**
+     * Called when a lost connection is opened again.
+     * The sc-machine forgets the subscriptions of a closed connection,
+     * so events between the loss and this call are never received.
+     */
+    default void onConnectionRestored() {
+    }
+}
@@ -0,0 +1,57 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Message received from the server.
+ * It is the text of a text message, or the bytes of a binary message.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public final class OstisMessage {
+    private final String text;
+    private final byte[] bytes;
+
+    private OstisMessage(String text, byte[] bytes) {
+        this.text = text;
+        this.bytes = bytes;
+    }
+
+    public static OstisMessage ofText(String text) {
+        return new OstisMessage(text, null);
+    }
+
+    /**
+     * @param bytes - bytes that are not changed after the message is created
+     */
+    public static OstisMessage ofBytes(byte[] bytes) {
+        return new OstisMessage(null, bytes);
+    }
+
+    public boolean isBinary() {
+        return bytes != null;
+    }
+
+    /**
+     * @throws IllegalStateException if the message is binary
+     */
+    public String getText() {
+        if (text == null) {
+            throw new IllegalStateException("message is binary");
+        }
+        return text;
+    }
+
+    /**
+     * @return bytes of the binary message, or UTF-8 bytes of the text message
+     */
+    public byte[] getBytes() {
+        return bytes != null ? bytes : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return text != null ? text : "binary message of " + bytes.length + " bytes";
+    }
+}
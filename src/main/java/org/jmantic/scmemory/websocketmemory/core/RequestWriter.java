@@ -0,0 +1,27 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a request in the wire format of the client,
+ * which is json as UTF-8 bytes unless another format is configured.
+ * <p>
+ * The client may call it more than once for the same request,
+ * for example when an idempotent request is sent again after reconnection,
+ * so each call must write the same request.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@FunctionalInterface
+public interface RequestWriter {
+
+    void writeTo(OutputStream out) throws IOException;
+
+    static RequestWriter of(String jsonRequest) {
+        byte[] bytes = jsonRequest.getBytes(StandardCharsets.UTF_8);
+        return out -> out.write(bytes);
+    }
+}
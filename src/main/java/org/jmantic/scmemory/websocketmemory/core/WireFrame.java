@@ -0,0 +1,116 @@
+package org.jmantic.scmemory.websocketmemory.core;
+
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Request or response that is captured by the wire tap of the client,
+ * as it was written to the socket or received from it.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public final class WireFrame {
+    private final long sequence;
+    private final Instant timestamp;
+    private final Direction direction;
+    private final long requestId;
+    private final RequestType requestType;
+    private final boolean binary;
+    private final byte[] payload;
+
+    /**
+     * @param payload - bytes that are not changed after the frame is created
+     */
+    public WireFrame(long sequence,
+                     Instant timestamp,
+                     Direction direction,
+                     long requestId,
+                     RequestType requestType,
+                     boolean binary,
+                     byte[] payload) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.direction = direction;
+        this.requestId = requestId;
+        this.requestType = requestType;
+        this.binary = binary;
+        this.payload = payload;
+    }
+
+    /**
+     * @return number of the frame among all frames captured by the wire tap, starting from 0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * @return type of the request, also for its response
+     */
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    /**
+     * @return whether the frame is in a binary wire format
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * @return copy of the bytes of the message
+     */
+    public byte[] getPayload() {
+        return payload.clone();
+    }
+
+    /**
+     * @return size of the message in bytes
+     */
+    public int getSize() {
+        return payload.length;
+    }
+
+    /**
+     * @throws IllegalStateException if the frame is binary
+     */
+    public String getText() {
+        if (binary) {
+            throw new IllegalStateException("frame is binary");
+        }
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "WireFrame{" +
+                "sequence=" + sequence +
+                ", timestamp=" + timestamp +
+                ", direction=" + direction +
+                ", requestId=" + requestId +
+                ", requestType=" + requestType +
+                ", payload=" + (binary ? "binary message of " + payload.length + " bytes" : getText()) +
+                '}';
+    }
+
+    public enum Direction {
+        SENT,
+        RECEIVED
+    }
+}
@@ -9,5 +9,17 @@ public interface ScRequest {
 
     RequestType getRequestType();
 
+    /**
+     * Idempotent request does not change the sc-memory,
+     * so it can be sent again if the connection is lost before the response is received.
+     * Requests that do not override this method are never sent again.
+     *
+     * @return true if the request can be safely sent again
+     * @since 0.4.0
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
     boolean isEmpty();
 }
@@ -1,11 +1,67 @@
 package org.jmantic.scmemory.websocketmemory.message.response;
 
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
+ * Each found construction has the same size,
+ * and its addresses are in the order of the components of the template.
+ *
  * @author artrayme
  * @since 0.0.1
  */
 public interface SearchByTemplateResponse extends ScResponse {
+    /**
+     * Boxes every address,
+     * so prefer {@link #getFoundAddress(int, int)} for big results.
+     */
     Stream<Stream<Long>> getFoundAddresses();
+
+    /**
+     * @since 0.4.0
+     */
+    default int getFoundConstructionsCount() {
+        return (int) getFoundAddresses().count();
+    }
+
+    /**
+     * @return count of addresses in each found construction
+     * @since 0.4.0
+     */
+    default int getFoundConstructionSize() {
+        return getFoundAddresses()
+                .findFirst()
+                .map(construction -> (int) construction.count())
+                .orElse(0);
+    }
+
+    /**
+     * Default implementation walks {@link #getFoundAddresses()}, so implementations should override it.
+     *
+     * @param construction - index of the found construction
+     * @param position     - index of the address inside the construction
+     * @throws IndexOutOfBoundsException if there is no such construction or position
+     * @since 0.4.0
+     */
+    default long getFoundAddress(int construction, int position) {
+        if (construction < 0 || position < 0) {
+            throw new IndexOutOfBoundsException("construction " + construction + ", position " + position);
+        }
+        return getFoundAddresses()
+                .skip(construction)
+                .findFirst()
+                .orElseThrow(() -> new IndexOutOfBoundsException("construction " + construction + " is not found"))
+                .skip(position)
+                .findFirst()
+                .orElseThrow(() -> new IndexOutOfBoundsException("construction has no position " + position));
+    }
+
+    /**
+     * @return positions of the aliases of the template inside each found construction,
+     * or empty map if the implementation does not know the aliases
+     * @since 0.4.0
+     */
+    default Map<String, Integer> getAliases() {
+        return Map.of();
+    }
 }
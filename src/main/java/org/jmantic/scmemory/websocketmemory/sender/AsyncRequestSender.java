@@ -0,0 +1,34 @@
+package org.jmantic.scmemory.websocketmemory.sender;
+
+import org.jmantic.scmemory.websocketmemory.message.request.CreateScElRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.DeleteScElRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.GetLinkContentRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.SetLinkContentRequest;
+import org.jmantic.scmemory.websocketmemory.message.response.CreateScElResponse;
+import org.jmantic.scmemory.websocketmemory.message.response.DeleteScElResponse;
+import org.jmantic.scmemory.websocketmemory.message.response.GetLinkContentResponse;
+import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
+import org.jmantic.scmemory.websocketmemory.message.response.SetLinkContentResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking version of {@link RequestSender}.
+ * Each returned future is completed when the response is received,
+ * or completed exceptionally with {@link org.jmantic.scmemory.model.exception.ScMemoryException}.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public interface AsyncRequestSender {
+    CompletableFuture<CreateScElResponse> sendCreateElRequestAsync(CreateScElRequest request);
+
+    CompletableFuture<DeleteScElResponse> sendDeleteElRequestAsync(DeleteScElRequest request);
+
+    CompletableFuture<SearchByTemplateResponse> sendSearchByTemplateRequestAsync(SearchByTemplateRequest request);
+
+    CompletableFuture<SetLinkContentResponse> sendSetLinkContentRequestAsync(SetLinkContentRequest request);
+
+    CompletableFuture<GetLinkContentResponse> sendGetLinkContentRequestAsync(GetLinkContentRequest request);
+}
@@ -0,0 +1,599 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.jmantic.scmemory.websocketmemory.core.OstisClient;
+import org.jmantic.scmemory.websocketmemory.core.OstisEventListener;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisClientConfigurationException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionLostException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base of the websocket clients that can have many requests in flight over one connection.
+ * Each request is registered in the table of pending requests by its id,
+ * and the caller is completed when the response with the same id is received.
+ * <p>
+ * When the connection is lost, the client reconnects with exponential backoff and jitter.
+ * Idempotent requests in flight are sent again over the new connection,
+ * and other requests fail with {@link OstisConnectionLostException}.
+ * <p>
+ * Keepalive pings are sent on the configured interval.
+ * Missed pongs and failures to send over the connection lower the health score of the connection,
+ * and the connection with a low score is recycled before next requests are sent over it.
+ * Deadlines of requests are chosen by the callers, so passed deadlines do not change the score.
+ * <p>
+ * Requests are written into pooled buffers of the configured fragment size,
+ * and a request that does not fit into one buffer is sent as several fragments of one message.
+ * Messages are text or binary, depending on the configured wire format.
+ * <p>
+ * Implementations only provide the transport of messages through {@link Connection}.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+abstract class AbstractOstisClient implements OstisClient {
+
+    private final static Logger logger = LoggerFactory.getLogger(AbstractOstisClient.class);
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final RequestCredits credits;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService[] decoders;
+    private final boolean reconnectEnabled;
+    private final long reconnectInitialDelayNanos;
+    private final long reconnectMaxDelayNanos;
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+    private final ConnectionHealth health = new ConnectionHealth();
+    private final Duration pingInterval;
+    private final double minHealthScore;
+    private final BufferPool buffers;
+    private final WireCodec codec;
+    private final CompressionCounters compressionCounters = new CompressionCounters();
+    /**
+     * Held while a message is sent, so that fragments of different messages are not mixed.
+     */
+    private final ReentrantLock messageLock = new ReentrantLock();
+    private ScheduledFuture<?> keepalive;
+    private volatile long pingSentAt;
+    /**
+     * Guards replacing of the connection.
+     * It is a lock instead of a monitor, because the connection is opened while it is held,
+     * and a virtual thread that blocks inside a monitor pins its carrier thread.
+     */
+    private final ReentrantLock connectionLock = new ReentrantLock();
+    private volatile Connection connection;
+    private volatile boolean opened;
+    private volatile boolean closed;
+    private volatile boolean connectedBefore;
+    private volatile OstisEventListener eventListener;
+
+    /**
+     * Implementation must call {@link #configure(URI)} at the end of its constructor.
+     */
+    AbstractOstisClient(OstisClientConfiguration configuration) {
+        credits = new RequestCredits(configuration.getMaxInFlightRequests(), configuration.getBackpressurePolicy());
+        reconnectEnabled = configuration.isReconnectEnabled();
+        reconnectInitialDelayNanos = configuration.getReconnectInitialDelay().toNanos();
+        reconnectMaxDelayNanos = configuration.getReconnectMaxDelay().toNanos();
+        pingInterval = configuration.getPingInterval();
+        minHealthScore = configuration.getMinHealthScore();
+        buffers = new BufferPool(configuration.getFragmentSize(), MAX_POOLED_BUFFERS);
+        codec = WireCodec.of(configuration.getWireFormat());
+        scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ostis-client-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        decoders = new ExecutorService[configuration.getDecoderThreads()];
+        for (int i = 0; i < decoders.length; i++) {
+            String name = "ostis-client-decoder-" + i;
+            decoders[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return client on top of the websocket library that is selected in the configuration
+     */
+    static AbstractOstisClient create(URI serverUri, OstisClientConfiguration configuration) {
+        return switch (configuration.getTransport()) {
+            case JAVA_WEBSOCKET -> new OstisClientSync(serverUri, configuration);
+            case JDK -> new OstisClientJdk(serverUri, configuration);
+        };
+    }
+
+    /**
+     * Creates a connection that is not connected yet.
+     * A new connection is created for each attempt to reconnect.
+     */
+    abstract Connection createConnection(URI serverUri);
+
+    @Override
+    public void configure(URI serverUri) {
+        connectionLock.lock();
+        try {
+            connection = createConnection(serverUri);
+            logger.info("ostis client is configured to the uri {}", serverUri);
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public void open() {
+        connectionLock.lock();
+        try {
+            opened = true;
+            connection.connectBlocking();
+            logger.info("ostis client is connected to uri {}", connection.getURI());
+            startKeepalive();
+        } catch (InterruptedException e) {
+            logger.error("cannot connect to uri {}", connection.getURI());
+            throw new OstisClientConfigurationException("cannot connect to this uri", e);
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * The caller waits for a place in the window of requests in flight if the backpressure policy says so.
+     * If the caller is interrupted, the request is failed,
+     * so its place in the window of requests in flight and its deadline are released.
+     */
+    @Override
+    public OstisMessage sendToOstis(long requestId, RequestWriter request, boolean idempotent, Duration timeout) throws OstisConnectionException {
+        credits.acquire();
+        CompletableFuture<OstisMessage> response = send(requestId, request, idempotent, timeout);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("interrupted while waiting for the response to the request {}", requestId);
+            OstisConnectionException exception = new OstisConnectionException("interrupted while waiting for the response", e);
+            pendingRequests.computeIfPresent(requestId, (id, pending) -> pending.response == response ? null : pending);
+            response.completeExceptionally(exception);
+            throw exception;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OstisConnectionException connectionException) {
+                throw connectionException;
+            }
+            throw new OstisConnectionException("cannot receive the response", e.getCause());
+        }
+    }
+
+    /**
+     * A place in the window of requests in flight is taken before the request is written to the socket,
+     * and it is freed when the returned future is completed.
+     * The caller never waits for the place, because it can be the thread that must receive the response
+     * that frees it, so the request fails with {@link OstisBackpressureException} when the window is full,
+     * whatever the backpressure policy is.
+     */
+    @Override
+    public CompletableFuture<OstisMessage> sendToOstisAsync(long requestId, RequestWriter writer, boolean idempotent, Duration timeout) {
+        try {
+            credits.tryAcquire();
+        } catch (OstisBackpressureException e) {
+            logger.warn("request {} is not sent: {}", requestId, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(requestId, writer, idempotent, timeout);
+    }
+
+    /**
+     * Sends the request whose place in the window of requests in flight is already taken.
+     * The deadline is counted from the moment the request is registered as pending,
+     * so the time spent on reconnection is included.
+     */
+    private CompletableFuture<OstisMessage> send(long requestId, RequestWriter writer, boolean idempotent, Duration timeout) {
+        PendingRequest request = new PendingRequest(writer, idempotent);
+        if (pendingRequests.putIfAbsent(requestId, request) != null) {
+            credits.release();
+            return CompletableFuture.failedFuture(new OstisConnectionException("request with id " + requestId + " is already in flight"));
+        }
+        request.response.whenComplete((message, cause) -> credits.release());
+        scheduleTimeout(requestId, request, timeout);
+        send(requestId, request);
+        return request.response;
+    }
+
+    /**
+     * @return the number of requests that are waiting for the response
+     * @since 0.4.0
+     */
+    int getInFlightRequestsCount() {
+        return pendingRequests.size();
+    }
+
+    /**
+     * @return true if the client is not closed and its current connection is open
+     * @since 0.4.0
+     */
+    boolean isOpen() {
+        return !closed && connection.isOpen();
+    }
+
+    /**
+     * @return value from 0 to 1, where 1 means that recent pings succeeded and nothing failed to be sent
+     * @since 0.4.0
+     */
+    double getHealthScore() {
+        return health.getScore();
+    }
+
+    /**
+     * @return average round trip time of the recent pings, or null if no pong was received yet
+     * @since 0.4.0
+     */
+    Duration getPongRtt() {
+        return health.getPongRtt();
+    }
+
+    @Override
+    public CompressionStats getCompressionStats() {
+        return compressionCounters.snapshot();
+    }
+
+    @Override
+    public void setEventListener(OstisEventListener listener) {
+        eventListener = listener;
+    }
+
+    /**
+     * @return counters that the compression of every connection of this client is recorded to
+     */
+    CompressionCounters getCompressionCounters() {
+        return compressionCounters;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        connection.closeBlocking();
+        scheduler.shutdownNow();
+        for (ExecutorService decoder : decoders) {
+            decoder.shutdownNow();
+        }
+        failPendingRequests(new OstisConnectionException("ostis client is closed"));
+        logger.info("ostis client closed");
+    }
+
+    /**
+     * If the connection is lost or is not opened yet, an idempotent request stays pending
+     * and is sent when the connection is opened.
+     * The request is marked with the connection before it is written,
+     * so it is not sent again by {@link #onConnectionOpened(Connection)} of the same connection.
+     */
+    private void send(long requestId, PendingRequest request) {
+        Connection client = connection;
+        if (request.idempotent && isReconnecting() && !client.isOpen()) {
+            logger.warn("request {} will be sent after reconnection", requestId);
+            return;
+        }
+        if (!request.markSentOn(client)) {
+            return;
+        }
+        try {
+            logger.debug("try to send request {}", requestId);
+            write(requestId, request.writer, client);
+        } catch (IOException e) {
+            logger.error("cannot write request {}", requestId, e);
+            if (pendingRequests.remove(requestId, request)) {
+                request.response.completeExceptionally(new OstisConnectionException("cannot write the request " + requestId, e));
+            }
+        } catch (RuntimeException e) {
+            health.recordFailure();
+            if (request.idempotent && isReconnecting()) {
+                logger.warn("request {} will be sent after reconnection", requestId);
+                return;
+            }
+            logger.error("cannot send request {}", requestId);
+            if (pendingRequests.remove(requestId, request)) {
+                request.response.completeExceptionally(new OstisConnectionLostException("cannot send the request " + requestId, e));
+            }
+        }
+    }
+
+    /**
+     * If the writer fails after some fragments are sent,
+     * the connection is aborted, because the sc-machine cannot read the rest of its message.
+     */
+    private void write(long requestId, RequestWriter writer, Connection client) throws IOException {
+        ByteBuffer buffer = buffers.acquire();
+        FragmentingOutputStream out = new FragmentingOutputStream(client, buffer, messageLock, codec.isBinary());
+        try {
+            writer.writeTo(out);
+            out.finish();
+        } catch (RuntimeException e) {
+            if (out.isConnectionFailed()) {
+                throw e;
+            }
+            throw new IOException("writer of the request failed", e);
+        } finally {
+            if (out.abandon()) {
+                client.abort("request " + requestId + " is sent partially");
+            }
+            buffers.release(buffer);
+        }
+    }
+
+    private boolean isReconnecting() {
+        return reconnectEnabled && opened && !closed;
+    }
+
+    private void scheduleTimeout(long requestId, PendingRequest request, Duration timeout) {
+        if (timeout == null || timeout.isZero()) {
+            return;
+        }
+        ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+            if (pendingRequests.remove(requestId, request)) {
+                logger.warn("request {} is not answered in {}", requestId, timeout);
+                request.response.completeExceptionally(new OstisTimeoutException("response to the request " + requestId + " is not received in " + timeout));
+            }
+        }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        request.response.whenComplete((message, cause) -> deadline.cancel(false));
+    }
+
+    private void startKeepalive() {
+        if (pingInterval.isZero() || keepalive != null) {
+            return;
+        }
+        long interval = pingInterval.toNanos();
+        keepalive = scheduler.scheduleAtFixedRate(this::ping, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A pong that is not received before the next ping is recorded as a failure.
+     * The unhealthy connection is closed, so that it is opened again by the usual reconnection.
+     */
+    private void ping() {
+        Connection client = connection;
+        if (!client.isOpen()) {
+            return;
+        }
+        if (pingSentAt != 0) {
+            logger.warn("ostis client did not receive pong in {}", pingInterval);
+            health.recordFailure();
+        }
+        if (health.getScore() < minHealthScore && isReconnecting()) {
+            logger.warn("ostis client recycles unhealthy connection: {}", health);
+            pingSentAt = 0;
+            client.abort("connection is unhealthy");
+            return;
+        }
+        try {
+            pingSentAt = System.nanoTime();
+            client.sendPing();
+        } catch (RuntimeException e) {
+            logger.warn("ostis client cannot send ping", e);
+            health.recordFailure();
+        }
+    }
+
+    final void onPong(Connection client) {
+        long sentAt = pingSentAt;
+        if (client != connection || sentAt == 0) {
+            return;
+        }
+        pingSentAt = 0;
+        health.recordPong(System.nanoTime() - sentAt);
+    }
+
+    private void scheduleReconnect() {
+        int attempt = reconnectAttempts.getAndIncrement();
+        long delay = reconnectDelayNanos(attempt);
+        logger.info("ostis client will try to reconnect in {} ms, attempt {}", TimeUnit.NANOSECONDS.toMillis(delay), attempt + 1);
+        try {
+            scheduler.schedule(this::reconnect, delay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("reconnection is not scheduled, because ostis client is closed");
+        }
+    }
+
+    /**
+     * The delay is doubled with each attempt, and a random part of up to a half of it is subtracted,
+     * so that clients that lost the connection at the same moment do not reconnect at the same moment.
+     */
+    private long reconnectDelayNanos(int attempt) {
+        long delay = reconnectInitialDelayNanos;
+        for (int i = 0; i < attempt && delay < reconnectMaxDelayNanos; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, reconnectMaxDelayNanos);
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void reconnect() {
+        connectionLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            URI serverUri = connection.getURI();
+            connection = createConnection(serverUri);
+            logger.info("ostis client tries to reconnect to uri {}", serverUri);
+            connection.connect();
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    final void onConnectionOpened(Connection client) {
+        if (client != connection) {
+            return;
+        }
+        reconnectAttempts.set(0);
+        health.reset();
+        pingSentAt = 0;
+        OstisEventListener listener = eventListener;
+        if (connectedBefore && listener != null) {
+            listener.onConnectionRestored();
+        }
+        connectedBefore = true;
+        pendingRequests.forEach((id, request) -> {
+            if (request.sentOn.get() != client) {
+                logger.info("request {} is sent again after reconnection", id);
+                send(id, request);
+            }
+        });
+    }
+
+    final void onConnectionLost(Connection client, String reason) {
+        if (client != connection || closed) {
+            return;
+        }
+        if (!isReconnecting()) {
+            failPendingRequests(new OstisConnectionLostException(reason));
+            return;
+        }
+        pendingRequests.forEach((id, request) -> {
+            if (!request.idempotent && pendingRequests.remove(id, request)) {
+                request.response.completeExceptionally(new OstisConnectionLostException(reason));
+            }
+        });
+        scheduleReconnect();
+    }
+
+    /**
+     * Only the header of the response is read here.
+     * If decoder threads are configured, the request is completed by the decoder thread chosen by the id,
+     * so the caller of an asynchronous request deserializes the payload on this decoder thread
+     * instead of the thread that reads the socket.
+     */
+    final void completePendingRequest(OstisMessage message) {
+        ResponseHeader header;
+        try {
+            header = ResponseHeader.read(codec, message);
+        } catch (IOException e) {
+            logger.error("cannot read id of the response {}", message, e);
+            return;
+        }
+        if (header.isEvent()) {
+            OstisEventListener listener = eventListener;
+            if (listener == null) {
+                logger.debug("ostis client skips event message with id {}", header.getId());
+                return;
+            }
+            listener.onEvent(header.getId(), message);
+            return;
+        }
+        long id = header.getId();
+        if (decoders.length == 0) {
+            completePendingRequest(id, message);
+            return;
+        }
+        try {
+            decoders[Math.floorMod(id, decoders.length)].execute(() -> completePendingRequest(id, message));
+        } catch (RejectedExecutionException e) {
+            logger.debug("response {} is dropped, because ostis client is closed", id);
+        }
+    }
+
+    private void completePendingRequest(long id, OstisMessage message) {
+        PendingRequest request = pendingRequests.remove(id);
+        if (request == null) {
+            logger.warn("ostis client dropped response with unknown id {}. It may be a response after the deadline", id);
+            return;
+        }
+        request.response.complete(message);
+    }
+
+    private void failPendingRequests(Throwable cause) {
+        pendingRequests.keySet().forEach(id -> {
+            PendingRequest request = pendingRequests.remove(id);
+            if (request != null) {
+                request.response.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private static class PendingRequest {
+        private final RequestWriter writer;
+        private final boolean idempotent;
+        private final CompletableFuture<OstisMessage> response = new CompletableFuture<>();
+        private final AtomicReference<Connection> sentOn = new AtomicReference<>();
+
+        private PendingRequest(RequestWriter writer, boolean idempotent) {
+            this.writer = writer;
+            this.idempotent = idempotent;
+        }
+
+        /**
+         * @return false if the request is already sent over this connection
+         */
+        private boolean markSentOn(Connection client) {
+            return sentOn.getAndSet(client) != client;
+        }
+    }
+
+    /**
+     * One attempt to connect to the sc-machine.
+     * Implementation reports events of the connection
+     * to {@link #onConnectionOpened(Connection)}, {@link #completePendingRequest(OstisMessage)},
+     * {@link #onPong(Connection)} and {@link #onConnectionLost(Connection, String)}.
+     */
+    interface Connection {
+        URI getURI();
+
+        void connect();
+
+        boolean connectBlocking() throws InterruptedException;
+
+        boolean isOpen();
+
+        /**
+         * Sends the remaining bytes of the buffer as a fragment of a text message.
+         * The first fragment starts a new message, and the fragment with the last flag ends it.
+         * The buffer is reused after the method returns,
+         * so implementation must copy or send its bytes before.
+         *
+         * @param fragment - UTF-8 bytes that end on the boundary of a character
+         * @throws RuntimeException if the fragment cannot be sent, because the connection is not open
+         */
+        void sendText(ByteBuffer fragment, boolean last);
+
+        /**
+         * Same as {@link #sendText(ByteBuffer, boolean)}, but the fragment is a part of a binary message.
+         *
+         * @since 0.4.0
+         */
+        void sendBinary(ByteBuffer fragment, boolean last);
+
+        void sendPing();
+
+        /**
+         * Closes the connection without the closing handshake and reports it as lost.
+         */
+        void abort(String reason);
+
+        void closeBlocking() throws InterruptedException;
+    }
+}
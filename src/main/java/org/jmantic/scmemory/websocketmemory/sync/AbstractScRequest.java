@@ -1,20 +1,20 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
 import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * @author Michael
  * @since 0.2.0
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 abstract class AbstractScRequest implements ScRequest {
-    @JsonProperty("id")
+    private static final AtomicLong requestIdGenerator = new AtomicLong();
+
     private final long requestId;
-    @JsonProperty("type")
     private final RequestType requestType;
 
     public AbstractScRequest(long requestId, RequestType requestType){
@@ -22,15 +22,53 @@ abstract class AbstractScRequest implements ScRequest {
         this.requestType = requestType;
     }
 
-    @JsonIgnore
+    /**
+     * Creates a request with a new unique id.
+     * The sc-machine returns the same id in the response,
+     * so the id is used to match responses with requests sent over one connection.
+     */
+    public AbstractScRequest(RequestType requestType) {
+        this(requestIdGenerator.incrementAndGet(), requestType);
+    }
+
     @Override
     public long getRequestId() {
         return requestId;
     }
 
-    @JsonIgnore
     @Override
     public RequestType getRequestType() {
         return requestType;
     }
+
+    /**
+     * Search and check requests only read the sc-memory.
+     * Requests of other types are not idempotent unless their implementation says otherwise.
+     */
+    @Override
+    public boolean isIdempotent() {
+        return requestType == RequestType.SEARCH_TEMPLATE || requestType == RequestType.CHECK_ELEMENTS;
+    }
+
+    /**
+     * Writes the whole request as it is sent to the sc-machine.
+     *
+     * @since 0.4.0
+     */
+    final void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", requestId);
+        generator.writeStringField("type", WireCodes.of(requestType));
+        generator.writeFieldName("payload");
+        writePayload(generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the payload of the request straight from its fields,
+     * so no intermediate objects are created for the elements of the request.
+     *
+     * @since 0.4.0
+     */
+    abstract void writePayload(JsonGenerator generator) throws IOException;
 }
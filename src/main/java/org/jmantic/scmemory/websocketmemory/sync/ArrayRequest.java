@@ -0,0 +1,97 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.io.IOException;
+
+/**
+ * Request whose payload is written straight from the arrays passed to {@link SyncOstisScMemory},
+ * so no element objects and no boxed addresses are created for it.
+ * <p>
+ * The arrays are not copied, and must not be changed until the request is sent.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class ArrayRequest extends AbstractScRequest {
+    private final int size;
+    private final ItemWriter itemWriter;
+
+    private ArrayRequest(RequestType requestType, int size, ItemWriter itemWriter) {
+        super(requestType);
+        this.size = size;
+        this.itemWriter = itemWriter;
+    }
+
+    static ArrayRequest createNodes(NodeType[] types) {
+        return new ArrayRequest(RequestType.CREATE_ELEMENTS, types.length,
+                (generator, i) -> ScNodeImpl.write(generator, types[i]));
+    }
+
+    static ArrayRequest createEdges(EdgeType[] types, long[] sources, long[] targets) {
+        return new ArrayRequest(RequestType.CREATE_ELEMENTS, types.length,
+                (generator, i) -> ScEdgeImpl.write(generator,
+                        types[i],
+                        EdgeEndpointType.ADDR,
+                        sources[i],
+                        EdgeEndpointType.ADDR,
+                        targets[i]));
+    }
+
+    static ArrayRequest createIntegerLinks(LinkType[] types, int[] content) {
+        return new ArrayRequest(RequestType.CREATE_ELEMENTS, types.length,
+                (generator, i) -> ScLinkIntegerImpl.write(generator, types[i], content[i]));
+    }
+
+    static ArrayRequest createFloatLinks(LinkType[] types, float[] content) {
+        return new ArrayRequest(RequestType.CREATE_ELEMENTS, types.length,
+                (generator, i) -> ScLinkFloatImpl.write(generator, types[i], content[i]));
+    }
+
+    static ArrayRequest setIntegerLinkContent(long[] links, int[] content) {
+        return new ArrayRequest(RequestType.CONTENT, links.length,
+                (generator, i) -> SetLinkContentRequestImpl.writeCommand(generator, links[i], content[i]));
+    }
+
+    static ArrayRequest setFloatLinkContent(long[] links, float[] content) {
+        return new ArrayRequest(RequestType.CONTENT, links.length,
+                (generator, i) -> SetLinkContentRequestImpl.writeCommand(generator, links[i], content[i]));
+    }
+
+    static ArrayRequest deleteElements(long[] addresses) {
+        return new ArrayRequest(RequestType.DELETE_ELEMENTS, addresses.length,
+                (generator, i) -> generator.writeNumber(addresses[i]));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < size; i++) {
+            itemWriter.write(generator, i);
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayRequest{" +
+                "requestId=" + getRequestId() +
+                ", requestType=" + getRequestType() +
+                ", size=" + size +
+                '}';
+    }
+
+    @FunctionalInterface
+    private interface ItemWriter {
+        void write(JsonGenerator generator, int index) throws IOException;
+    }
+}
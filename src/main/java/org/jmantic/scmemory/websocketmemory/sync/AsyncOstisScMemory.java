@@ -0,0 +1,412 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.AsyncScMemory;
+import org.jmantic.scmemory.model.element.ScElement;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLink;
+import org.jmantic.scmemory.model.element.link.ScLinkFloat;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.jmantic.scmemory.websocketmemory.core.OstisClient;
+import org.jmantic.scmemory.websocketmemory.core.WireFrame;
+import org.jmantic.scmemory.websocketmemory.message.request.CreateScElRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.DeleteScElRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.GetLinkContentRequest;
+import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
+import org.jmantic.scmemory.websocketmemory.message.response.CreateScElResponse;
+import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking {@link AsyncScMemory} implementation over the websocket connection.
+ * <p>
+ * Requests are multiplexed over one connection,
+ * and the returned futures are completed by the thread that reads responses from the websocket.
+ * No thread waits for the response of a request.
+ * Do not run long blocking actions in the dependent stages without an executor,
+ * because it stops reading responses of other requests.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class AsyncOstisScMemory implements AsyncScMemory {
+    private final RequestSenderImpl requestSender;
+    private final OstisClient ostisClient;
+
+    public AsyncOstisScMemory(URI serverURI) {
+        this(serverURI, new OstisClientConfiguration());
+    }
+
+    /**
+     * If the window of requests in flight is limited, methods of this sc-memory never wait for a free place in it,
+     * whatever the backpressure policy is.
+     * Requests that do not fit into the window fail with
+     * {@link org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException}.
+     *
+     * @param configuration - settings of the websocket connection
+     */
+    public AsyncOstisScMemory(URI serverURI, OstisClientConfiguration configuration) {
+        ostisClient = AbstractOstisClient.create(serverURI, configuration);
+        requestSender = new RequestSenderImpl(ostisClient,
+                WireCodec.of(configuration.getWireFormat()),
+                configuration.getRequestTimeout(),
+                WireTap.of(configuration));
+    }
+
+    private AsyncOstisScMemory(OstisClient ostisClient, RequestSenderImpl requestSender) {
+        this.ostisClient = ostisClient;
+        this.requestSender = requestSender;
+    }
+
+    @Override
+    public AsyncScMemory withTimeout(Duration timeout) {
+        return new AsyncOstisScMemory(ostisClient, requestSender.withTimeout(timeout));
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScNode>> createNodes(Stream<NodeType> elements) {
+        List<ScNodeImpl> nodesToCreate = elements
+                .map(ScNodeImpl::new)
+                .toList();
+        CreateScElRequest request = new CreateScElRequestImpl();
+        request.addToRequest(nodesToCreate);
+
+        return requestSender.sendCreateElRequestAsync(request)
+                .thenApply(response -> {
+                    setAddresses(response, nodesToCreate);
+                    return nodesToCreate.stream();
+                });
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScEdge>> createEdges(Stream<EdgeType> elements,
+                                                                   Stream<? extends ScElement> sources,
+                                                                   Stream<? extends ScElement> targets) {
+        List<ScEdgeImpl> result = new ArrayList<>();
+        CreateScElRequest request = new CreateScElRequestImpl();
+        Iterator<EdgeType> elementsTypesIter = elements.iterator();
+        Iterator<? extends ScElement> firstComponentsIter = sources.iterator();
+        Iterator<? extends ScElement> secondComponentsIter = targets.iterator();
+        while (elementsTypesIter.hasNext() && firstComponentsIter.hasNext() && secondComponentsIter.hasNext()) {
+            ScEdgeImpl edge = new ScEdgeImpl(elementsTypesIter.next(), firstComponentsIter.next(), secondComponentsIter.next());
+            request.addElementToRequest(edge);
+            result.add(edge);
+        }
+        if (elementsTypesIter.hasNext() != firstComponentsIter.hasNext() || elementsTypesIter.hasNext() != secondComponentsIter.hasNext()) {
+            return differentLengths();
+        }
+
+        return requestSender.sendCreateElRequestAsync(request)
+                .thenApply(response -> {
+                    setAddresses(response, result);
+                    return result.stream();
+                });
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScLinkInteger>> createIntegerLinks(Stream<LinkType> elements, Stream<Integer> content) {
+        List<ScLinkIntegerImpl> links = new ArrayList<>();
+        Iterator<LinkType> elementsIter = elements.iterator();
+        Iterator<Integer> contentIter = content.iterator();
+        while (elementsIter.hasNext() && contentIter.hasNext()) {
+            ScLinkIntegerImpl link = new ScLinkIntegerImpl(elementsIter.next());
+            link.setContent(contentIter.next());
+            links.add(link);
+        }
+        if (elementsIter.hasNext() != contentIter.hasNext()) {
+            return differentLengths();
+        }
+        return createLinks(links).thenApply(List::stream);
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScLinkFloat>> createFloatLinks(Stream<LinkType> elements, Stream<Float> content) {
+        List<ScLinkFloatImpl> links = new ArrayList<>();
+        Iterator<LinkType> elementsIter = elements.iterator();
+        Iterator<Float> contentIter = content.iterator();
+        while (elementsIter.hasNext() && contentIter.hasNext()) {
+            ScLinkFloatImpl link = new ScLinkFloatImpl(elementsIter.next());
+            link.setContent(contentIter.next());
+            links.add(link);
+        }
+        if (elementsIter.hasNext() != contentIter.hasNext()) {
+            return differentLengths();
+        }
+        return createLinks(links).thenApply(List::stream);
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScLinkString>> createStringLinks(Stream<LinkType> elements, Stream<String> content) {
+        List<ScLinkStringImpl> links = new ArrayList<>();
+        Iterator<LinkType> elementsIter = elements.iterator();
+        Iterator<String> contentIter = content.iterator();
+        while (elementsIter.hasNext() && contentIter.hasNext()) {
+            ScLinkStringImpl link = new ScLinkStringImpl(elementsIter.next());
+            link.setContent(contentIter.next());
+            links.add(link);
+        }
+        if (elementsIter.hasNext() != contentIter.hasNext()) {
+            return differentLengths();
+        }
+        return createLinks(links).thenApply(List::stream);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteElements(Stream<? extends ScElement> elements) {
+        DeleteScElRequest request = new DeleteScElRequestImpl();
+        elements.forEach(el -> request.addAddressToRequest(el.getAddress()));
+
+        return requestSender.sendDeleteElRequestAsync(request)
+                .thenApply(response -> response.getResponseStatus());
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeNode(ScNode fixedNode,
+                                                                                  EdgeType edgeType,
+                                                                                  NodeType nodeType) {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeNode(edgeType, nodeType).request(fixedNode.getAddress());
+
+        return requestSender.sendSearchByTemplateRequestAsync(request)
+                .thenApply(response -> {
+                    int found = response.getFoundConstructionsCount();
+                    List<ScEdge> result = new ArrayList<>(found);
+                    for (int i = 0; i < found; i++) {
+                        var targetNode = new ScNodeImpl(nodeType, response.getFoundAddress(i, 2));
+                        result.add(new ScEdgeImpl(edgeType, fixedNode, targetNode, response.getFoundAddress(i, 1)));
+                    }
+                    return result.stream();
+                });
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeLink(ScNode fixedNode,
+                                                                                  EdgeType edgeType,
+                                                                                  LinkType linkType,
+                                                                                  LinkContentType contentType) {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLink(edgeType, linkType).request(fixedNode.getAddress());
+
+        return getScEdgesFromSearchingTemplate(fixedNode, edgeType, linkType, contentType, request);
+    }
+
+    @Override
+    public CompletableFuture<Stream<? extends ScEdge>> findByTemplateNodeEdgeLinkWithRelation(ScNode fixedNode,
+                                                                                              EdgeType edgeType,
+                                                                                              LinkType linkType,
+                                                                                              LinkContentType contentType,
+                                                                                              ScNode fixedRelationNode,
+                                                                                              EdgeType relationEdgeType) {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLinkWithRelation(edgeType, linkType, relationEdgeType)
+                .request(fixedNode.getAddress(), fixedRelationNode.getAddress());
+
+        return getScEdgesFromSearchingTemplate(fixedNode, edgeType, linkType, contentType, request);
+    }
+
+    @Override
+    public CompletableFuture<Stream<Boolean>> setIntegerLinkContent(Stream<? extends ScLinkInteger> links, Stream<Integer> content) {
+        return setLinkContent(links, content);
+    }
+
+    @Override
+    public CompletableFuture<Stream<Boolean>> setFloatLinkContent(Stream<? extends ScLinkFloat> links, Stream<Float> content) {
+        return setLinkContent(links, content);
+    }
+
+    @Override
+    public CompletableFuture<Stream<Boolean>> setStringLinkContent(Stream<? extends ScLinkString> links, Stream<String> content) {
+        return setLinkContent(links, content);
+    }
+
+    @Override
+    public CompletableFuture<Stream<Integer>> getIntegerLinkContent(Stream<? extends ScLinkInteger> elements) {
+        return getLinkContent(elements.toList()).thenApply(values -> values.stream().map(v -> (Integer) v));
+    }
+
+    @Override
+    public CompletableFuture<Stream<Float>> getFloatLinkContent(Stream<? extends ScLinkFloat> elements) {
+        return getLinkContent(elements.toList()).thenApply(values -> values.stream().map(v -> (Float) v));
+    }
+
+    @Override
+    public CompletableFuture<Stream<String>> getStringLinkContent(Stream<? extends ScLinkString> elements) {
+        return getLinkContent(elements.toList()).thenApply(values -> values.stream().map(v -> (String) v));
+    }
+
+    /**
+     * @return counters of the permessage-deflate compression of the websocket connections
+     * @since 0.4.0
+     */
+    public CompressionStats getCompressionStats() {
+        return ostisClient.getCompressionStats();
+    }
+
+    /**
+     * @return recent requests and responses from the oldest to the newest,
+     * or empty list if the wire tap is not enabled in the configuration
+     * @since 0.4.0
+     */
+    public List<WireFrame> dumpWireTap() {
+        return requestSender.getWireTap().dump();
+    }
+
+    @Override
+    public void open() {
+        ostisClient.open();
+    }
+
+    @Override
+    public void close() throws Exception {
+        ostisClient.close();
+    }
+
+    private static void setAddresses(CreateScElResponse response, List<? extends ScEntity> elements) {
+        if (!response.getResponseStatus()) {
+            throw new CompletionException(new ScMemoryException("the response status is FALSE"));
+        }
+        List<Long> addresses = response.getAddresses().toList();
+        for (int i = 0; i < addresses.size(); i++) {
+            elements.get(i).setAddress(addresses.get(i));
+        }
+    }
+
+    private <L extends ScEntity> CompletableFuture<List<L>> createLinks(List<L> links) {
+        CreateScElRequest request = new CreateScElRequestImpl();
+        request.addToRequest(links);
+        return requestSender.sendCreateElRequestAsync(request)
+                .thenApply(response -> {
+                    setAddresses(response, links);
+                    return links;
+                });
+    }
+
+    /**
+     * Contents of all found sc-links are requested by one additional request.
+     */
+    private CompletableFuture<Stream<? extends ScEdge>> getScEdgesFromSearchingTemplate(ScNode fixedNode,
+                                                                                        EdgeType edgeType,
+                                                                                        LinkType linkType,
+                                                                                        LinkContentType contentType,
+                                                                                        SearchByTemplateRequest request) {
+        return requestSender.sendSearchByTemplateRequestAsync(request)
+                .thenCompose(response -> {
+                    List<ScEdge> edges = new ArrayList<>();
+                    List<ScLink> links = new ArrayList<>();
+                    collectEdgesToLinks(response, fixedNode, edgeType, linkType, contentType, edges, links);
+                    if (links.isEmpty()) {
+                        return CompletableFuture.completedFuture(edges.stream());
+                    }
+                    return getLinkContent(links).thenApply(values -> edges.stream());
+                });
+    }
+
+    private static void collectEdgesToLinks(SearchByTemplateResponse response,
+                                            ScNode fixedNode,
+                                            EdgeType edgeType,
+                                            LinkType linkType,
+                                            LinkContentType contentType,
+                                            List<ScEdge> edges,
+                                            List<ScLink> links) {
+        for (int i = 0; i < response.getFoundConstructionsCount(); i++) {
+            long address = response.getFoundAddress(i, 2);
+            ScLink targetLink = switch (contentType) {
+                case INTEGER -> new ScLinkIntegerImpl(linkType, address);
+                case FLOAT -> new ScLinkFloatImpl(linkType, address);
+                case STRING -> new ScLinkStringImpl(linkType, address);
+                case BINARY -> throw new UnsupportedOperationException("Binary type is not implemented yet");
+            };
+            links.add(targetLink);
+            edges.add(new ScEdgeImpl(edgeType, fixedNode, targetLink, response.getFoundAddress(i, 1)));
+        }
+    }
+
+    /**
+     * Wrong arguments are reported by the returned future, like failures of the requests.
+     */
+    private static <T> CompletableFuture<T> differentLengths() {
+        return CompletableFuture.failedFuture(new IllegalArgumentException("All passed streams must have same length"));
+    }
+
+    private <L, C> CompletableFuture<Stream<Boolean>> setLinkContent(Stream<L> links, Stream<C> content) {
+        SetLinkContentRequestImpl request = new SetLinkContentRequestImpl();
+        Iterator<L> linksIter = links.iterator();
+        Iterator<C> contentIter = content.iterator();
+        List<ScLink> linksWithoutContent = new ArrayList<>();
+        List<C> contentWithoutLink = new ArrayList<>();
+        while (linksIter.hasNext() && contentIter.hasNext()) {
+            ScLink link = (ScLink) linksIter.next();
+            linksWithoutContent.add(link);
+            C data = contentIter.next();
+            contentWithoutLink.add(data);
+            request.addToRequest(link, data);
+        }
+        if (linksIter.hasNext() != contentIter.hasNext()) {
+            return differentLengths();
+        }
+
+        return requestSender.sendSetLinkContentRequestAsync(request)
+                .thenApply(response -> {
+                    if (!response.getResponseStatus()) {
+                        throw new CompletionException(new ScMemoryException("the response status is FALSE"));
+                    }
+                    List<Boolean> statusOfOperation = response.getOperationStatus();
+                    for (int i = 0; i < statusOfOperation.size(); i++) {
+                        if (statusOfOperation.get(i)) {
+                            setContent(linksWithoutContent.get(i), contentWithoutLink.get(i));
+                        }
+                    }
+                    return statusOfOperation.stream();
+                });
+    }
+
+    /**
+     * Requests contents of the passed links and stores them in the links.
+     *
+     * @return contents converted to the java types of the corresponding links
+     */
+    private CompletableFuture<List<Object>> getLinkContent(List<? extends ScLink> links) {
+        GetLinkContentRequest request = new GetLinkContentRequestImpl();
+        links.forEach(l -> request.addAddressToRequest(l.getAddress()));
+
+        return requestSender.sendGetLinkContentRequestAsync(request)
+                .thenApply(response -> {
+                    List<Object> values = response.getContent();
+                    List<Object> result = new ArrayList<>();
+                    for (int i = 0; i < links.size(); i++) {
+                        Object value = values.get(i);
+                        if (value != null) {
+                            ScLink link = links.get(i);
+                            Object content = link.getContentType() == LinkContentType.FLOAT
+                                    ? ((Number) value).floatValue()
+                                    : value;
+                            setContent(link, content);
+                            result.add(content);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    private static void setContent(ScLink link, Object content) {
+        switch (link.getContentType()) {
+            case FLOAT -> ((ScLinkFloatImpl) link).setContent((float) content);
+            case INTEGER -> ((ScLinkIntegerImpl) link).setContent((int) content);
+            case STRING -> ((ScLinkStringImpl) link).setContent((String) content);
+            default -> throw new IllegalArgumentException("unknown type of content");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Buffers of the same size that are reused by requests one after another.
+ * A buffer is allocated when the pool is empty,
+ * and a released buffer is dropped when the pool is full.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class BufferPool {
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> buffers;
+
+    public BufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocate(bufferSize);
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
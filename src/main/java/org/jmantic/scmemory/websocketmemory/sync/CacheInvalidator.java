@@ -0,0 +1,281 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.model.event.EventType;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.websocketmemory.core.OstisEventListener;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Removes cached contents of links when the sc-machine reports that they are changed,
+ * also by other clients.
+ * <p>
+ * An element is subscribed to once, when its content is put into the cache,
+ * and the subscription is kept while the content stays in the cache.
+ * Subscriptions of the removed contents, and of the contents that are read but not cached,
+ * are deleted by the next events request, so removals cost no requests of their own.
+ * The subscription of an element is not deleted while its content is being read.
+ * Subscriptions whose deletion fails are deleted by the next events request.
+ * <p>
+ * The cache is subscribed to the element before its content is requested,
+ * also when the subscription is created by another thread,
+ * so a change that is made after the content is read is always reported.
+ * A subscription belongs to the connection that sent the events request,
+ * so all events requests are sent through the one connection of the passed request sender.
+ * When the connection is restored, the events in between are lost,
+ * so the whole cache is invalidated.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class CacheInvalidator implements OstisEventListener {
+    private final static Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    /**
+     * Invalidator that subscribes to nothing.
+     */
+    static final CacheInvalidator DISABLED = new CacheInvalidator(null, LinkContentCache.DISABLED, new EventType[0]);
+
+    /**
+     * Marks an element whose subscription is being created.
+     */
+    private static final long[] PENDING = new long[0];
+
+    private final RequestSenderImpl requestSender;
+    private final LinkContentCache cache;
+    private final EventType[] eventTypes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, long[]> subscriptions = new HashMap<>();
+    /**
+     * Completed when the subscription of the element is created or fails.
+     */
+    private final Map<Long, CompletableFuture<Void>> pendingSubscriptions = new HashMap<>();
+    /**
+     * Events whose subscriptions are not deleted yet, because the events request failed.
+     */
+    private final List<Long> failedDeletions = new ArrayList<>();
+    /**
+     * Number of the reads of the content of each element that are in progress.
+     */
+    private final Map<Long, Integer> reads = new HashMap<>();
+    private final Map<Long, Long> elementsByEvent = new ConcurrentHashMap<>();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param eventTypes - events that change the cached data of an element
+     */
+    CacheInvalidator(RequestSenderImpl requestSender, LinkContentCache cache, EventType... eventTypes) {
+        this.requestSender = requestSender;
+        this.cache = cache;
+        this.eventTypes = eventTypes.clone();
+    }
+
+    /**
+     * Content of a link is changed by the change of the content and by the deletion of the link.
+     */
+    static CacheInvalidator forContents(RequestSenderImpl requestSender, LinkContentCache cache) {
+        CacheInvalidator invalidator = new CacheInvalidator(requestSender, cache,
+                EventType.ON_CONTENT_CHANGE,
+                EventType.ON_DELETE_ELEMENT);
+        cache.setRemovalListener(invalidator.removed::add);
+        return invalidator;
+    }
+
+    boolean isEnabled() {
+        return eventTypes.length > 0;
+    }
+
+    /**
+     * Subscribes to the elements that are not subscribed yet,
+     * and deletes the subscriptions of the elements that are removed from the cache.
+     * The contents of the elements are being read until {@link #release(long[])} is called.
+     * <p>
+     * If the subscription of an element is being created by another thread, it is waited for,
+     * because the content that is read before the subscription exists can be changed without an event.
+     *
+     * @throws ScMemoryException if the subscriptions cannot be created,
+     *                           then the contents of the elements must not be cached and must not be released
+     */
+    void watch(long[] elements) throws ScMemoryException {
+        if (!isEnabled()) {
+            return;
+        }
+        List<Long> created = new ArrayList<>();
+        List<CompletableFuture<Void>> awaited = new ArrayList<>();
+        long[] deleted;
+        lock.lock();
+        try {
+            Arrays.stream(elements).distinct().forEach(element -> {
+                removed.remove(element);
+                reads.merge(element, 1, Integer::sum);
+                long[] elementEvents = subscriptions.putIfAbsent(element, PENDING);
+                if (elementEvents == null) {
+                    created.add(element);
+                    pendingSubscriptions.put(element, new CompletableFuture<>());
+                } else if (elementEvents == PENDING) {
+                    awaited.add(pendingSubscriptions.get(element));
+                }
+            });
+            deleted = releaseRemoved();
+        } finally {
+            lock.unlock();
+        }
+        if (!created.isEmpty() || deleted.length > 0) {
+            subscribe(elements, created.stream().mapToLong(Long::longValue).toArray(), deleted);
+        }
+        try {
+            CompletableFuture.allOf(awaited.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            release(elements);
+            throw new ScMemoryException("subscription that is created by another thread failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(elements);
+            throw new ScMemoryException("interrupted while waiting for the subscription of another thread", e);
+        }
+    }
+
+    private void subscribe(long[] elements, long[] created, long[] deleted) throws ScMemoryException {
+        EventsRequest request = new EventsRequest(created, eventTypes, deleted);
+        long[] eventIds;
+        try {
+            EventsResponseImpl response = requestSender.send(request, EventsResponseImpl.class);
+            eventIds = response.getEventIds();
+            if (eventIds.length != request.getCreatedCount()) {
+                throw new ScMemoryException("expected " + request.getCreatedCount() + " subscriptions, but the response has " + eventIds.length);
+            }
+        } catch (ScMemoryException | RuntimeException e) {
+            forget(created, deleted, e);
+            release(elements);
+            throw e;
+        }
+        lock.lock();
+        try {
+            for (int i = 0; i < created.length; i++) {
+                long[] elementEvents = Arrays.copyOfRange(eventIds, i * eventTypes.length, (i + 1) * eventTypes.length);
+                subscriptions.put(created[i], elementEvents);
+                for (long eventId : elementEvents) {
+                    elementsByEvent.put(eventId, created[i]);
+                }
+                pendingSubscriptions.remove(created[i]).complete(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends the reads of the contents of the elements.
+     * Subscriptions of the elements whose contents are not cached after that,
+     * for example because the link has no content or it was changed while it was read,
+     * are deleted by the next events request.
+     */
+    void release(long[] elements) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Arrays.stream(elements)
+                    .distinct()
+                    .filter(element -> reads.computeIfPresent(element, (key, count) -> count > 1 ? count - 1 : null) == null)
+                    .filter(element -> !cache.contains(element))
+                    .forEach(removed::add);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onEvent(long eventId, OstisMessage message) {
+        Long element = elementsByEvent.get(eventId);
+        if (element == null) {
+            logger.debug("event {} is not a subscription of the cache", eventId);
+            return;
+        }
+        cache.invalidate(element);
+    }
+
+    @Override
+    public void onConnectionRestored() {
+        lock.lock();
+        try {
+            subscriptions.keySet().retainAll(pendingSubscriptions.keySet());
+            elementsByEvent.clear();
+            failedDeletions.clear();
+        } finally {
+            lock.unlock();
+        }
+        cache.invalidateAll();
+        removed.clear();
+        logger.info("link content cache is invalidated, because the connection was restored");
+    }
+
+    /**
+     * Subscriptions that are still being created and of the elements that are being read are kept,
+     * their elements are released later.
+     * The subscription of the element that is cached again is kept too.
+     */
+    private long[] releaseRemoved() {
+        List<long[]> released = new ArrayList<>();
+        released.add(failedDeletions.stream().mapToLong(Long::longValue).toArray());
+        failedDeletions.clear();
+        Iterator<Long> elements = removed.iterator();
+        while (elements.hasNext()) {
+            Long element = elements.next();
+            long[] elementEvents = subscriptions.get(element);
+            if (elementEvents == PENDING || reads.containsKey(element)) {
+                continue;
+            }
+            elements.remove();
+            if (elementEvents != null && !cache.contains(element)) {
+                subscriptions.remove(element);
+                for (long eventId : elementEvents) {
+                    elementsByEvent.remove(eventId);
+                }
+                released.add(elementEvents);
+            }
+        }
+        return released.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    /**
+     * Threads that wait for the subscriptions that are not created are failed,
+     * and the subscriptions that are not deleted are deleted by the next events request.
+     */
+    private void forget(long[] created, long[] deleted, Exception cause) {
+        lock.lock();
+        try {
+            for (long element : created) {
+                subscriptions.remove(element, PENDING);
+                pendingSubscriptions.remove(element).completeExceptionally(cause);
+            }
+            for (long eventId : deleted) {
+                failedDeletions.add(eventId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidator{" +
+                "eventTypes=" + Arrays.toString(eventTypes) +
+                ", subscriptions=" + elementsByEvent.size() +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the compression of one client, which are shared by all its connections.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class CompressionCounters {
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong compressedSentMessages = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong sentWireBytes = new AtomicLong();
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong compressedReceivedMessages = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicLong receivedWireBytes = new AtomicLong();
+
+    void recordSentMessage(boolean compressed) {
+        sentMessages.incrementAndGet();
+        if (compressed) {
+            compressedSentMessages.incrementAndGet();
+        }
+    }
+
+    void recordSentFrame(int bytes, int wireBytes) {
+        sentBytes.addAndGet(bytes);
+        sentWireBytes.addAndGet(wireBytes);
+    }
+
+    void recordReceivedMessage(boolean compressed) {
+        receivedMessages.incrementAndGet();
+        if (compressed) {
+            compressedReceivedMessages.incrementAndGet();
+        }
+    }
+
+    void recordReceivedFrame(int bytes, int wireBytes) {
+        receivedBytes.addAndGet(bytes);
+        receivedWireBytes.addAndGet(wireBytes);
+    }
+
+    CompressionStats snapshot() {
+        return new CompressionStats(sentMessages.get(),
+                compressedSentMessages.get(),
+                sentBytes.get(),
+                sentWireBytes.get(),
+                receivedMessages.get(),
+                compressedReceivedMessages.get(),
+                receivedBytes.get(),
+                receivedWireBytes.get());
+    }
+}
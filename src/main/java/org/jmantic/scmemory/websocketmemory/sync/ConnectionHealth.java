@@ -0,0 +1,62 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import java.time.Duration;
+
+/**
+ * Health of one websocket connection.
+ * <p>
+ * Each pong is recorded as a success,
+ * and each missed pong and failure to send over the connection is recorded as a failure.
+ * The health score is one minus the recent error rate,
+ * where the error rate is a moving average that forgets old outcomes.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class ConnectionHealth {
+    private static final double WEIGHT_OF_LAST_OUTCOME = 0.2;
+    private double errorRate;
+    private long pongRttNanos = -1;
+
+    synchronized void recordSuccess() {
+        errorRate = errorRate * (1 - WEIGHT_OF_LAST_OUTCOME);
+    }
+
+    synchronized void recordFailure() {
+        errorRate = errorRate * (1 - WEIGHT_OF_LAST_OUTCOME) + WEIGHT_OF_LAST_OUTCOME;
+    }
+
+    synchronized void recordPong(long rttNanos) {
+        recordSuccess();
+        pongRttNanos = pongRttNanos < 0
+                ? rttNanos
+                : (long) (pongRttNanos * (1 - WEIGHT_OF_LAST_OUTCOME) + rttNanos * WEIGHT_OF_LAST_OUTCOME);
+    }
+
+    synchronized void reset() {
+        errorRate = 0;
+        pongRttNanos = -1;
+    }
+
+    /**
+     * @return value from 0 (every recent operation failed) to 1 (every recent operation succeeded)
+     */
+    synchronized double getScore() {
+        return 1 - errorRate;
+    }
+
+    /**
+     * @return average round trip time of the recent pings, or null if no pong was received yet
+     */
+    synchronized Duration getPongRtt() {
+        return pongRttNanos < 0 ? null : Duration.ofNanos(pongRttNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConnectionHealth{" +
+                "score=" + (1 - errorRate) +
+                ", pongRtt=" + getPongRtt() +
+                '}';
+    }
+}
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jmantic.scmemory.websocketmemory.message.response.CreateScElResponse;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 /**
@@ -15,11 +15,19 @@ import java.util.stream.Stream;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class CreateScElResponseImpl extends AbstractScResponse implements CreateScElResponse {
     @JsonProperty("payload")
-    private List<Long> createdElementAddress;
+    private long[] createdElementAddress = new long[0];
 
     @Override
     public Stream<Long> getAddresses() {
-        return createdElementAddress.stream();
+        return Arrays.stream(createdElementAddress).boxed();
+    }
+
+    /**
+     * @return addresses of the created elements in the order of the request, the array is not copied
+     * @since 0.4.0
+     */
+    long[] getAddressArray() {
+        return createdElementAddress;
     }
 
     @JsonIgnore
@@ -29,7 +37,7 @@ class CreateScElResponseImpl extends AbstractScResponse implements CreateScElRes
                 "responseId=" + getResponseId() +
                 ", status=" + getResponseStatus() +
                 ", event=" + getEvent() +
-                ", createdElementAddress=" + createdElementAddress +
+                ", createdElementAddress=" + Arrays.toString(createdElementAddress) +
                 '}';
     }
 }
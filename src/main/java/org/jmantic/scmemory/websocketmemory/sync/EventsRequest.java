@@ -0,0 +1,81 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.model.event.EventType;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.io.IOException;
+
+/**
+ * Request that creates subscriptions to the events of elements and deletes other subscriptions.
+ * <p>
+ * A subscription is created for each element and each event type, element by element,
+ * and the sc-machine returns the ids of the created subscriptions in the same order.
+ * <p>
+ * The arrays are not copied, and must not be changed until the request is sent.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class EventsRequest extends AbstractScRequest {
+    private final long[] elements;
+    private final EventType[] eventTypes;
+    private final long[] deletedEvents;
+
+    /**
+     * @param elements      - addresses of the elements to subscribe to
+     * @param eventTypes    - types of the events of each element
+     * @param deletedEvents - ids of the subscriptions to delete
+     */
+    EventsRequest(long[] elements, EventType[] eventTypes, long[] deletedEvents) {
+        super(RequestType.EVENTS);
+        this.elements = elements;
+        this.eventTypes = eventTypes;
+        this.deletedEvents = deletedEvents;
+    }
+
+    /**
+     * @return number of the subscriptions that are created by this request
+     */
+    int getCreatedCount() {
+        return elements.length * eventTypes.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elements.length == 0 && deletedEvents.length == 0;
+    }
+
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        if (elements.length > 0) {
+            generator.writeFieldName("create");
+            generator.writeStartArray();
+            for (long element : elements) {
+                for (EventType eventType : eventTypes) {
+                    generator.writeStartObject();
+                    generator.writeStringField("type", WireCodes.of(eventType));
+                    generator.writeNumberField("addr", element);
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+        }
+        if (deletedEvents.length > 0) {
+            generator.writeFieldName("delete");
+            generator.writeArray(deletedEvents, 0, deletedEvents.length);
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        return "EventsRequest{" +
+                "id=" + getRequestId() +
+                ", elements=" + elements.length +
+                ", eventTypes=" + eventTypes.length +
+                ", deletedEvents=" + deletedEvents.length +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+
+/**
+ * Response to {@link EventsRequest}, whose payload is the ids of the created subscriptions.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+class EventsResponseImpl extends AbstractScResponse {
+    @JsonProperty("payload")
+    private long[] eventIds = new long[0];
+
+    /**
+     * @return ids of the created subscriptions in the order of the request, the array is not copied
+     */
+    long[] getEventIds() {
+        return eventIds;
+    }
+
+    @JsonIgnore
+    @Override
+    public String toString() {
+        return "EventsResponseImpl{" +
+                "responseId=" + getResponseId() +
+                ", status=" + getResponseStatus() +
+                ", event=" + getEvent() +
+                ", eventIds=" + Arrays.toString(eventIds) +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Addresses found by the search_template request.
+ * <p>
+ * All constructions have the same size,
+ * so the addresses are kept in one array row after row without boxing.
+ * Aliases of the template map names to positions inside each construction.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class FoundAddresses {
+    static final FoundAddresses EMPTY = new FoundAddresses(new long[0], 0, 0, Collections.emptyMap());
+
+    private final long[] addresses;
+    private final int constructionsCount;
+    private final int constructionSize;
+    private final Map<String, Integer> aliases;
+
+    private FoundAddresses(long[] addresses, int constructionsCount, int constructionSize, Map<String, Integer> aliases) {
+        this.addresses = addresses;
+        this.constructionsCount = constructionsCount;
+        this.constructionSize = constructionSize;
+        this.aliases = aliases;
+    }
+
+    int getConstructionsCount() {
+        return constructionsCount;
+    }
+
+    int getConstructionSize() {
+        return constructionSize;
+    }
+
+    long getAddress(int construction, int position) {
+        if (construction < 0 || construction >= constructionsCount) {
+            throw new IndexOutOfBoundsException("construction " + construction + " of " + constructionsCount);
+        }
+        if (position < 0 || position >= constructionSize) {
+            throw new IndexOutOfBoundsException("position " + position + " of " + constructionSize);
+        }
+        return addresses[construction * constructionSize + position];
+    }
+
+    Map<String, Integer> getAliases() {
+        return aliases;
+    }
+
+    @Override
+    public String toString() {
+        return "FoundAddresses{" +
+                "constructionsCount=" + constructionsCount +
+                ", constructionSize=" + constructionSize +
+                ", aliases=" + aliases +
+                '}';
+    }
+
+    /**
+     * Reads the payload of the search_template response token by token.
+     * <p>
+     * The payload of a failed search is not an object, so it is read as nothing found.
+     *
+     * @author artrayme
+     * @since 0.4.0
+     */
+    static class Deserializer extends StdDeserializer<FoundAddresses> {
+        private static final int INITIAL_CAPACITY = 64;
+
+        public Deserializer() {
+            super(FoundAddresses.class);
+        }
+
+        @Override
+        public FoundAddresses deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartObjectToken()) {
+                parser.skipChildren();
+                return EMPTY;
+            }
+            long[] addresses = null;
+            int size = 0;
+            int constructionSize = 0;
+            Map<String, Integer> aliases = Collections.emptyMap();
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                JsonToken token = parser.nextToken();
+                if (field.equals("addrs") && token == JsonToken.START_ARRAY) {
+                    addresses = new long[INITIAL_CAPACITY];
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        int position = 0;
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (size == addresses.length) {
+                                addresses = Arrays.copyOf(addresses, size * 2);
+                            }
+                            addresses[size++] = parser.getLongValue();
+                            position++;
+                        }
+                        if (constructionSize == 0) {
+                            constructionSize = position;
+                        } else if (position != constructionSize) {
+                            return context.reportInputMismatch(this,
+                                    "found construction of size %d, but previous ones have size %d",
+                                    position,
+                                    constructionSize);
+                        }
+                    }
+                } else if (field.equals("aliases") && token == JsonToken.START_OBJECT) {
+                    aliases = new HashMap<>();
+                    for (String alias = parser.nextFieldName(); alias != null; alias = parser.nextFieldName()) {
+                        parser.nextToken();
+                        aliases.put(alias, parser.getIntValue());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            aliases = Collections.unmodifiableMap(aliases);
+            if (addresses == null || constructionSize == 0) {
+                return new FoundAddresses(new long[0], 0, 0, aliases);
+            }
+            return new FoundAddresses(addresses, size / constructionSize, constructionSize, aliases);
+        }
+
+        @Override
+        public FoundAddresses getNullValue(DeserializationContext context) {
+            return EMPTY;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Sends bytes written into it as one message of the connection.
+ * <p>
+ * Bytes are collected in the buffer, and a full buffer is sent as a fragment of the message.
+ * A fragment of a text message always ends on the boundary of a UTF-8 character,
+ * and the bytes of the unfinished character are moved to the next fragment.
+ * A message that fits into the buffer is sent as one frame when {@link #finish()} is called.
+ * <p>
+ * The lock of messages is taken before the first fragment is sent and held until the last one,
+ * so fragments of different messages are not mixed in the connection.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class FragmentingOutputStream extends OutputStream {
+    private final AbstractOstisClient.Connection connection;
+    private final ByteBuffer buffer;
+    private final Lock messageLock;
+    private final boolean binary;
+    private boolean locked;
+    private boolean finished;
+    private boolean connectionFailed;
+
+    /**
+     * @param buffer - empty buffer that is not used by anybody else until this stream is finished or abandoned
+     * @param binary - whether the message is binary instead of UTF-8 text
+     */
+    FragmentingOutputStream(AbstractOstisClient.Connection connection, ByteBuffer buffer, Lock messageLock, boolean binary) {
+        this.connection = connection;
+        this.buffer = buffer;
+        this.messageLock = messageLock;
+        this.binary = binary;
+    }
+
+    @Override
+    public void write(int b) {
+        if (!buffer.hasRemaining()) {
+            sendFragment();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                sendFragment();
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Sends the rest of the message as its last fragment.
+     * If it cannot be sent after other fragments, the lock is kept,
+     * so that {@link #abandon()} reports the message that is left in the middle.
+     */
+    void finish() {
+        boolean fragmentsSent = locked;
+        if (!locked) {
+            messageLock.lock();
+            locked = true;
+        }
+        buffer.flip();
+        try {
+            send(true);
+        } catch (RuntimeException e) {
+            if (!fragmentsSent) {
+                locked = false;
+                messageLock.unlock();
+            }
+            throw e;
+        }
+        finished = true;
+        locked = false;
+        messageLock.unlock();
+    }
+
+    /**
+     * Stops the message that is not finished.
+     *
+     * @return true if some fragments are already sent,
+     * so the connection is left in the middle of the message
+     */
+    boolean abandon() {
+        if (finished || !locked) {
+            return false;
+        }
+        locked = false;
+        messageLock.unlock();
+        return true;
+    }
+
+    private void sendFragment() {
+        if (!locked) {
+            messageLock.lock();
+            locked = true;
+        }
+        int end = binary ? buffer.position() : characterBoundary();
+        buffer.flip();
+        int limit = buffer.limit();
+        buffer.limit(end);
+        send(false);
+        buffer.limit(limit);
+        buffer.position(end);
+        buffer.compact();
+    }
+
+    /**
+     * @return true if the message is stopped by the connection instead of the writer of the message
+     */
+    boolean isConnectionFailed() {
+        return connectionFailed;
+    }
+
+    private void send(boolean last) {
+        try {
+            if (binary) {
+                connection.sendBinary(buffer, last);
+            } else {
+                connection.sendText(buffer, last);
+            }
+        } catch (RuntimeException e) {
+            connectionFailed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * @return position after the last complete character in the buffer
+     */
+    private int characterBoundary() {
+        int end = buffer.position();
+        for (int i = end - 1; i >= 0 && i >= end - 4; i--) {
+            int b = buffer.get(i) & 0xFF;
+            if (b < 0x80) {
+                return end;
+            }
+            if (b >= 0xC0) {
+                int length = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+                return i + length <= end ? end : i;
+            }
+        }
+        return end;
+    }
+}
@@ -1,82 +1,78 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jmantic.scmemory.websocketmemory.message.request.GetLinkContentRequest;
 import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class GetLinkContentRequestImpl extends AbstractScRequest implements GetLinkContentRequest {
-    @JsonProperty("payload")
-    private List<GetContentStruct> contentStructs;
-
-    private static class GetContentStruct {
-        @JsonProperty("command")
-        String command = "get";
-        @JsonProperty("addr")
-        long address;
-
-        public GetContentStruct(long address) {
-            this.address = address;
-        }
-
-        @JsonIgnore
-        @Override
-        public String toString() {
-            return "GetContentStruct{" +
-                    "command='" + command + '\'' +
-                    ", address=" + address +
-                    '}';
-        }
-    }
+    private long[] addresses = new long[16];
+    private int size;
 
     public GetLinkContentRequestImpl() {
-        super(1, RequestType.CONTENT);
-        contentStructs = new ArrayList<>();
+        super(RequestType.CONTENT);
     }
 
-    @JsonIgnore
     @Override
     public boolean addToRequest(List<Long> addresses) {
-        List<GetContentStruct> structs = addresses.stream().map(GetContentStruct::new).collect(Collectors.toList());
-        return contentStructs.addAll(structs);
+        for (Long address : addresses) {
+            addAddressToRequest(address);
+        }
+        return !addresses.isEmpty();
     }
 
-    @JsonIgnore
     @Override
     public boolean addAddressToRequest(long address) {
-        GetContentStruct struct = new GetContentStruct(address);
-        return contentStructs.add(struct);
+        if (size == addresses.length) {
+            addresses = Arrays.copyOf(addresses, size * 2);
+        }
+        addresses[size++] = address;
+        return true;
     }
 
-    @JsonIgnore
     @Override
     public void resetRequest() {
-        contentStructs.clear();
+        size = 0;
+    }
+
+    /**
+     * Content request with only get commands does not change the sc-memory.
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
     }
 
-    @JsonIgnore
     @Override
     public boolean isEmpty() {
-        return contentStructs.isEmpty();
+        return size == 0;
+    }
+
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < size; i++) {
+            generator.writeStartObject();
+            generator.writeStringField("command", "get");
+            generator.writeNumberField("addr", addresses[i]);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "GetLinkContentRequestImpl{" +
                 "requestId=" + getRequestId() +
                 ", requestType=" + getRequestType() +
-                ", contentStructs=" + contentStructs +
+                ", addresses=" + Arrays.toString(Arrays.copyOf(addresses, size)) +
                 '}';
     }
 }
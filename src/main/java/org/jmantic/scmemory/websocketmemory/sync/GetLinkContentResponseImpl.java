@@ -3,6 +3,7 @@ package org.jmantic.scmemory.websocketmemory.sync;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.jmantic.scmemory.websocketmemory.message.response.GetLinkContentResponse;
 
 import java.util.List;
@@ -14,28 +15,20 @@ import java.util.List;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class GetLinkContentResponseImpl extends AbstractScResponse implements GetLinkContentResponse {
     @JsonProperty("payload")
-    private List<GetContentStruct> linkContent;
-
-    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-    private static class GetContentStruct {
-        @JsonProperty("value")
-        Object value;
-        @JsonProperty("type")
-        String type;
-
-        @JsonIgnore
-        @Override
-        public String toString() {
-            return "GetContentStruct{" +
-                    "type='" + type + '\'' +
-                    ", value=" + value +
-                    '}';
-        }
-    }
+    @JsonDeserialize(using = LinkContents.Deserializer.class)
+    private LinkContents linkContent = LinkContents.EMPTY;
 
     @Override
     public List<Object> getContent() {
-        return linkContent.stream().map(s -> s.value).toList();
+        return linkContent.asList();
+    }
+
+    /**
+     * @return contents of the links without boxing
+     * @since 0.4.0
+     */
+    LinkContents getLinkContents() {
+        return linkContent;
     }
 
     @JsonIgnore
@@ -45,7 +38,7 @@ class GetLinkContentResponseImpl extends AbstractScResponse implements GetLinkCo
                 "responseId=" + getResponseId() +
                 ", status=" + getResponseStatus() +
                 ", event=" + getEvent() +
-                ", statusOfOperations=" + linkContent +
+                ", linkContent=" + linkContent +
                 '}';
     }
 }
@@ -0,0 +1,88 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Codec on top of the Jackson factory of the format.
+ * Json is read from the text of the message, and binary formats from its bytes.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class JacksonWireCodec implements WireCodec {
+    static final JacksonWireCodec JSON = new JacksonWireCodec(WireFormat.JSON, JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build());
+
+    private final WireFormat format;
+    private final JsonFactory factory;
+    private final ObjectMapper mapper;
+
+    private JacksonWireCodec(WireFormat format, JsonFactory factory) {
+        this.format = format;
+        this.factory = factory;
+        mapper = new ObjectMapper(factory);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    static JacksonWireCodec smile() {
+        return new JacksonWireCodec(WireFormat.SMILE, SmileFactory.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .build());
+    }
+
+    static JacksonWireCodec cbor() {
+        return new JacksonWireCodec(WireFormat.CBOR, CBORFactory.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .build());
+    }
+
+    @Override
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return format != WireFormat.JSON;
+    }
+
+    @Override
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return factory.createGenerator(out);
+    }
+
+    @Override
+    public JsonParser createParser(OstisMessage message) throws IOException {
+        if (message.isBinary() != isBinary()) {
+            throw new IOException((message.isBinary() ? "binary" : "text") + " message is received, but the wire format is " + format);
+        }
+        return isBinary() ? factory.createParser(message.getBytes()) : factory.createParser(message.getText());
+    }
+
+    @Override
+    public <T> T read(OstisMessage message, Class<T> type) throws IOException {
+        try (JsonParser parser = createParser(message)) {
+            return mapper.readValue(parser, type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonWireCodec{" +
+                "format=" + format +
+                '}';
+    }
+}
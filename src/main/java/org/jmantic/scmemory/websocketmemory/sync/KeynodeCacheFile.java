@@ -0,0 +1,272 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-mapped file that keeps the addresses of the resolved keynodes between the runs of the application.
+ * <p>
+ * The file starts with a header of the magic number, the version, the number of the entries and the end of the entries.
+ * Each entry is the address, the length of the identifier and the identifier in UTF-8.
+ * An entry is written before the header counts it, so an entry that is written partly is not read.
+ * <p>
+ * The file is written by the JVM that locks it, and only read by the others.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class KeynodeCacheFile {
+    private final static Logger logger = LoggerFactory.getLogger(KeynodeCacheFile.class);
+
+    /**
+     * File that keeps nothing.
+     */
+    static final KeynodeCacheFile DISABLED = new KeynodeCacheFile(null);
+
+    private static final int MAGIC = 0x4A4D4B4E;
+    private static final int VERSION = 2;
+    private static final int COUNT_POSITION = 8;
+    private static final int END_POSITION = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int ADDRESS_SIZE = Long.BYTES;
+    private static final int LENGTH_SIZE = Short.BYTES;
+    private static final int MAX_IDENTIFIER_SIZE = 0xFFFF;
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<String> systemIdentifiers = new ArrayList<>();
+    private int[] offsets = new int[0];
+    private FileChannel channel;
+    private FileLock fileLock;
+    private MappedByteBuffer buffer;
+
+    KeynodeCacheFile(Path path) {
+        this.path = path;
+    }
+
+    static KeynodeCacheFile of(OstisClientConfiguration configuration) {
+        Path path = configuration.getKeynodeCacheFile();
+        return path == null ? DISABLED : new KeynodeCacheFile(path);
+    }
+
+    boolean isEnabled() {
+        return path != null;
+    }
+
+    boolean isOpen() {
+        lock.lock();
+        try {
+            return channel != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isWritable() {
+        lock.lock();
+        try {
+            return fileLock != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Maps the file, creating it if it does not exist, and reads its entries.
+     * A file of another format is cleared, or ignored if it is locked by another JVM.
+     */
+    void open() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                return;
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                fileLock = null;
+            }
+            if (fileLock == null) {
+                logger.info("keynode cache file {} is locked by another sc-memory, so it is only read", path);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } else {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_SIZE));
+            }
+            if (!read()) {
+                logger.info("keynode cache file {} has no valid entries", path);
+                reset();
+            }
+        } catch (IOException e) {
+            closeChannel();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String[] getSystemIdentifiers() {
+        lock.lock();
+        try {
+            return systemIdentifiers.toArray(String[]::new);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long[] getAddresses() {
+        lock.lock();
+        try {
+            long[] addresses = new long[systemIdentifiers.size()];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = buffer.getLong(offsets[i]);
+            }
+            return addresses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the keynode, unless the file is not writable.
+     * A failure to grow the file is logged, and the keynode is not kept.
+     */
+    void append(String systemIdentifier, long address) {
+        byte[] identifier = systemIdentifier.getBytes(StandardCharsets.UTF_8);
+        if (identifier.length > MAX_IDENTIFIER_SIZE) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (fileLock == null) {
+                return;
+            }
+            int end = buffer.getInt(END_POSITION);
+            int size = ADDRESS_SIZE + LENGTH_SIZE + identifier.length;
+            if (end + size > buffer.capacity()) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(2L * buffer.capacity(), end + size));
+            }
+            buffer.putLong(end, address);
+            buffer.putShort(end + ADDRESS_SIZE, (short) identifier.length);
+            buffer.put(end + ADDRESS_SIZE + LENGTH_SIZE, identifier);
+            buffer.putInt(END_POSITION, end + size);
+            buffer.putInt(COUNT_POSITION, systemIdentifiers.size() + 1);
+            addEntry(systemIdentifier, end);
+        } catch (IOException e) {
+            logger.warn("keynode {} cannot be written to the keynode cache file {}", systemIdentifier, path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            reset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            if (buffer != null && fileLock != null) {
+                buffer.force();
+            }
+            closeChannel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the file has another format or broken entries
+     */
+    private boolean read() {
+        systemIdentifiers.clear();
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            return false;
+        }
+        int count = buffer.getInt(COUNT_POSITION);
+        int end = buffer.getInt(END_POSITION);
+        if (count < 0 || end < HEADER_SIZE || end > buffer.capacity()) {
+            return false;
+        }
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            int identifierOffset = offset + ADDRESS_SIZE + LENGTH_SIZE;
+            if (identifierOffset > end) {
+                return false;
+            }
+            int length = Short.toUnsignedInt(buffer.getShort(offset + ADDRESS_SIZE));
+            if (identifierOffset + length > end) {
+                return false;
+            }
+            byte[] identifier = new byte[length];
+            buffer.get(identifierOffset, identifier);
+            addEntry(new String(identifier, StandardCharsets.UTF_8), offset);
+            offset = identifierOffset + length;
+        }
+        return true;
+    }
+
+    private void reset() {
+        systemIdentifiers.clear();
+        if (fileLock == null || buffer == null) {
+            return;
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(COUNT_POSITION, 0);
+        buffer.putInt(END_POSITION, HEADER_SIZE);
+    }
+
+    private void addEntry(String systemIdentifier, int offset) {
+        if (offsets.length == systemIdentifiers.size()) {
+            offsets = Arrays.copyOf(offsets, Math.max(16, 2 * offsets.length));
+        }
+        offsets[systemIdentifiers.size()] = offset;
+        systemIdentifiers.add(systemIdentifier);
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("keynode cache file {} cannot be closed", path, e);
+        }
+        channel = null;
+        fileLock = null;
+        buffer = null;
+        systemIdentifiers.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "KeynodeCacheFile{" +
+                "path=" + path +
+                ", keynodes=" + getSystemIdentifiers().length +
+                '}';
+    }
+}
@@ -0,0 +1,296 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.model.KeynodeResolver;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.model.keynode.KeynodeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves keynodes by the keynodes request.
+ * <p>
+ * Each identifier has one entry in the concurrent map, which is put by the thread that requests it.
+ * Other threads that look up the same identifier at the same time wait for this entry
+ * instead of requesting it again, so concurrent lookups of one keynode cost one request.
+ * The entry keeps the found address as a primitive and stays in the map as the cache.
+ * Entries of identifiers that are not found and of failed requests are removed.
+ * <p>
+ * Found keynodes are also appended to the cache file, if it is configured,
+ * and restored from it when the sc-memory is opened again.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class KeynodeResolverImpl implements KeynodeResolver {
+    private final static Logger logger = LoggerFactory.getLogger(KeynodeResolverImpl.class);
+
+    private final RequestSenderImpl requestSender;
+    private final KeynodeCacheFile cacheFile;
+    private final Map<String, Keynode> keynodes = new ConcurrentHashMap<>();
+
+    KeynodeResolverImpl(RequestSenderImpl requestSender) {
+        this(requestSender, KeynodeCacheFile.DISABLED);
+    }
+
+    /**
+     * @param cacheFile - file that keeps the found keynodes between the runs
+     */
+    KeynodeResolverImpl(RequestSenderImpl requestSender, KeynodeCacheFile cacheFile) {
+        this.requestSender = requestSender;
+        this.cacheFile = cacheFile;
+    }
+
+    @Override
+    public long find(String systemIdentifier) throws ScMemoryException {
+        return find(new String[]{systemIdentifier})[0];
+    }
+
+    @Override
+    public long[] find(String[] systemIdentifiers) throws ScMemoryException {
+        return lookupAll(systemIdentifiers, new NodeType[systemIdentifiers.length]);
+    }
+
+    @Override
+    public long resolve(String systemIdentifier, NodeType type) throws ScMemoryException {
+        return resolve(new String[]{systemIdentifier}, type)[0];
+    }
+
+    @Override
+    public long[] resolve(String[] systemIdentifiers, NodeType type) throws ScMemoryException {
+        if (type == null) {
+            throw new IllegalArgumentException("type of the resolved nodes cannot be null");
+        }
+        NodeType[] types = new NodeType[systemIdentifiers.length];
+        Arrays.fill(types, type);
+        return lookupAll(systemIdentifiers, types);
+    }
+
+    @Override
+    public long[] lookup(String[] systemIdentifiers, NodeType[] types) throws ScMemoryException {
+        if (systemIdentifiers.length != types.length) {
+            throw new IllegalArgumentException("expected " + systemIdentifiers.length + " types, but got " + types.length);
+        }
+        return lookupAll(systemIdentifiers, types.clone());
+    }
+
+    /**
+     * Opens the cache file and finds all its keynodes by one request,
+     * so the keynodes that the application used before are cached before they are needed.
+     * The sc-machine reuses the address of a deleted element, even for an element of the same type,
+     * so the kept addresses are checked by finding their identifiers again.
+     * If any keynode is not found or has another address, the file is written again with the found keynodes.
+     * A file that cannot be opened is ignored.
+     *
+     * @return number of the restored keynodes
+     */
+    int restore() throws ScMemoryException {
+        if (!cacheFile.isEnabled() || cacheFile.isOpen()) {
+            return 0;
+        }
+        try {
+            cacheFile.open();
+        } catch (IOException e) {
+            logger.warn("keynode cache file cannot be opened, so keynodes are not kept", e);
+            return 0;
+        }
+        String[] systemIdentifiers = cacheFile.getSystemIdentifiers();
+        long[] keptAddresses = cacheFile.getAddresses();
+        if (systemIdentifiers.length == 0) {
+            return 0;
+        }
+        KeynodesResponseImpl response = requestSender.send(new KeynodesRequest(systemIdentifiers, (NodeType) null), KeynodesResponseImpl.class);
+        long[] addresses = response.getAddressArray();
+        if (addresses.length != systemIdentifiers.length) {
+            throw new ScMemoryException("expected " + systemIdentifiers.length + " keynodes, but the response has " + addresses.length);
+        }
+        boolean changed = !Arrays.equals(keptAddresses, addresses);
+        if (changed) {
+            logger.info("{} is written again, because keynodes are changed in the sc-memory", cacheFile);
+            cacheFile.clear();
+        }
+        int restored = 0;
+        for (int i = 0; i < systemIdentifiers.length; i++) {
+            if (addresses[i] == NOT_FOUND) {
+                continue;
+            }
+            Keynode keynode = new Keynode();
+            keynode.address = addresses[i];
+            keynode.resolved.complete(null);
+            if (keynodes.putIfAbsent(systemIdentifiers[i], keynode) == null && changed) {
+                cacheFile.append(systemIdentifiers[i], addresses[i]);
+            }
+            restored++;
+        }
+        logger.debug("{} keynodes are restored from {}", restored, cacheFile);
+        return restored;
+    }
+
+    void close() {
+        cacheFile.close();
+    }
+
+    /**
+     * Looks up the keynodes of all the sets by one request.
+     *
+     * @return number of the keynodes of the sets
+     */
+    int preload(Iterable<KeynodeSet> keynodeSets) throws ScMemoryException {
+        List<String> systemIdentifiers = new ArrayList<>();
+        List<NodeType> types = new ArrayList<>();
+        for (KeynodeSet keynodeSet : keynodeSets) {
+            String[] setIdentifiers = keynodeSet.getSystemIdentifiers();
+            NodeType[] setTypes = keynodeSet.getTypes();
+            if (setIdentifiers.length != setTypes.length) {
+                throw new ScMemoryException(keynodeSet.getClass().getName() + " has " + setIdentifiers.length + " identifiers, but " + setTypes.length + " types");
+            }
+            systemIdentifiers.addAll(Arrays.asList(setIdentifiers));
+            types.addAll(Arrays.asList(setTypes));
+        }
+        lookupAll(systemIdentifiers.toArray(String[]::new), types.toArray(NodeType[]::new));
+        if (!systemIdentifiers.isEmpty()) {
+            logger.debug("{} keynodes are looked up by one request", systemIdentifiers.size());
+        }
+        return systemIdentifiers.size();
+    }
+
+    /**
+     * @return number of the cached keynodes
+     */
+    int size() {
+        return (int) keynodes.values().stream().filter(Keynode::isResolved).count();
+    }
+
+    /**
+     * An identifier that another thread only finds may be not found,
+     * then it is resolved again by this thread.
+     *
+     * @param types - type of the created node for each identifier, or null to only find the element
+     */
+    private long[] lookupAll(String[] systemIdentifiers, NodeType[] types) throws ScMemoryException {
+        long[] result = new long[systemIdentifiers.length];
+        Keynode[] awaited = new Keynode[systemIdentifiers.length];
+        List<String> requested = new ArrayList<>();
+        List<NodeType> requestedTypes = new ArrayList<>();
+        List<Keynode> owned = new ArrayList<>();
+        for (int i = 0; i < systemIdentifiers.length; i++) {
+            Keynode keynode = keynodes.get(systemIdentifiers[i]);
+            if (keynode == null) {
+                Keynode created = new Keynode();
+                keynode = keynodes.putIfAbsent(systemIdentifiers[i], created);
+                if (keynode == null) {
+                    keynode = created;
+                    requested.add(systemIdentifiers[i]);
+                    requestedTypes.add(types[i]);
+                    owned.add(created);
+                }
+            }
+            if (keynode.isResolved()) {
+                result[i] = keynode.address;
+            } else {
+                awaited[i] = keynode;
+            }
+        }
+        if (!owned.isEmpty()) {
+            request(requested.toArray(String[]::new), requestedTypes.toArray(NodeType[]::new), owned);
+        }
+        int[] missing = new int[systemIdentifiers.length];
+        int missingCount = 0;
+        for (int i = 0; i < awaited.length; i++) {
+            if (awaited[i] != null) {
+                result[i] = awaited[i].await();
+                if (result[i] == NOT_FOUND && types[i] != null) {
+                    missing[missingCount++] = i;
+                }
+            }
+        }
+        if (missingCount > 0) {
+            String[] missingIdentifiers = new String[missingCount];
+            NodeType[] missingTypes = new NodeType[missingCount];
+            for (int i = 0; i < missingCount; i++) {
+                missingIdentifiers[i] = systemIdentifiers[missing[i]];
+                missingTypes[i] = types[missing[i]];
+            }
+            long[] resolved = lookupAll(missingIdentifiers, missingTypes);
+            for (int i = 0; i < missingCount; i++) {
+                result[missing[i]] = resolved[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entries of this thread are always completed, so other threads never wait forever.
+     */
+    private void request(String[] systemIdentifiers, NodeType[] types, List<Keynode> owned) throws ScMemoryException {
+        long[] addresses;
+        try {
+            KeynodesResponseImpl response = requestSender.send(new KeynodesRequest(systemIdentifiers, types), KeynodesResponseImpl.class);
+            addresses = response.getAddressArray();
+            if (addresses.length != systemIdentifiers.length) {
+                throw new ScMemoryException("expected " + systemIdentifiers.length + " keynodes, but the response has " + addresses.length);
+            }
+        } catch (ScMemoryException | RuntimeException e) {
+            for (int i = 0; i < systemIdentifiers.length; i++) {
+                keynodes.remove(systemIdentifiers[i], owned.get(i));
+                owned.get(i).resolved.completeExceptionally(e);
+            }
+            throw e;
+        }
+        for (int i = 0; i < systemIdentifiers.length; i++) {
+            Keynode keynode = owned.get(i);
+            if (addresses[i] == NOT_FOUND) {
+                keynodes.remove(systemIdentifiers[i], keynode);
+                if (types[i] != null) {
+                    keynode.resolved.completeExceptionally(new ScMemoryException("keynode " + systemIdentifiers[i] + " is not resolved"));
+                    continue;
+                }
+            }
+            keynode.address = addresses[i];
+            keynode.resolved.complete(null);
+            if (addresses[i] != NOT_FOUND) {
+                cacheFile.append(systemIdentifiers[i], addresses[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeynodeResolverImpl{" +
+                "keynodes=" + size() +
+                '}';
+    }
+
+    private static final class Keynode {
+        private final CompletableFuture<Void> resolved = new CompletableFuture<>();
+        /**
+         * Written before the future is completed, so it is visible to the threads that wait for the future.
+         */
+        private volatile long address;
+
+        private boolean isResolved() {
+            return resolved.isDone() && !resolved.isCompletedExceptionally() && address != NOT_FOUND;
+        }
+
+        private long await() throws ScMemoryException {
+            try {
+                resolved.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ScMemoryException cause) {
+                    throw new ScMemoryException(cause.getMessage(), cause);
+                }
+                throw new ScMemoryException(e.getCause());
+            }
+            return address;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Request that finds elements by their system identifiers,
+ * or resolves them, creating the nodes that are not found.
+ * <p>
+ * The sc-machine returns one address for each identifier in the same order,
+ * and 0 for an identifier that is not found.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class KeynodesRequest extends AbstractScRequest {
+    private final String[] systemIdentifiers;
+    private final NodeType[] types;
+
+    /**
+     * @param type - type of the created nodes, or null to only find the elements
+     */
+    KeynodesRequest(String[] systemIdentifiers, NodeType type) {
+        this(systemIdentifiers, filled(systemIdentifiers.length, type));
+    }
+
+    /**
+     * @param types - type of the created node for each identifier, or null to only find the element
+     */
+    KeynodesRequest(String[] systemIdentifiers, NodeType[] types) {
+        super(RequestType.KEYNODES);
+        if (systemIdentifiers.length != types.length) {
+            throw new IllegalArgumentException("expected " + systemIdentifiers.length + " types, but got " + types.length);
+        }
+        this.systemIdentifiers = systemIdentifiers;
+        this.types = types;
+    }
+
+    /**
+     * Repeated resolving finds the nodes that were created by the first one,
+     * so the request can be sent again after reconnection.
+     */
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return systemIdentifiers.length == 0;
+    }
+
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < systemIdentifiers.length; i++) {
+            generator.writeStartObject();
+            generator.writeStringField("command", types[i] == null ? "find" : "resolve");
+            generator.writeStringField("idtf", systemIdentifiers[i]);
+            if (types[i] != null) {
+                generator.writeNumberField("elType", WireCodes.of(types[i]));
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    @Override
+    public String toString() {
+        return "KeynodesRequest{" +
+                "id=" + getRequestId() +
+                ", systemIdentifiers=" + Arrays.toString(systemIdentifiers) +
+                ", types=" + Arrays.toString(types) +
+                '}';
+    }
+
+    private static NodeType[] filled(int length, NodeType type) {
+        NodeType[] types = new NodeType[length];
+        Arrays.fill(types, type);
+        return types;
+    }
+}
@@ -0,0 +1,37 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+
+/**
+ * Response to {@link KeynodesRequest}, whose payload is the addresses of the keynodes.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+class KeynodesResponseImpl extends AbstractScResponse {
+    @JsonProperty("payload")
+    private long[] addresses = new long[0];
+
+    /**
+     * @return addresses in the order of the identifiers of the request, the array is not copied
+     */
+    long[] getAddressArray() {
+        return addresses;
+    }
+
+    @JsonIgnore
+    @Override
+    public String toString() {
+        return "KeynodesResponseImpl{" +
+                "responseId=" + getResponseId() +
+                ", status=" + getResponseStatus() +
+                ", event=" + getEvent() +
+                ", addresses=" + Arrays.toString(addresses) +
+                '}';
+    }
+}
@@ -0,0 +1,273 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.ContentCacheStats;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Contents of links by their addresses, bounded by the approximate size of the contents in bytes.
+ * The least recently used contents are evicted first.
+ * <p>
+ * Contents that are written by this sc-memory replace the cached ones.
+ * A content that is read from the sc-machine is put only if nothing was written or invalidated
+ * while it was requested, so a slow read never replaces a newer write.
+ * <p>
+ * Integer contents are kept as Integer, float contents as Double and strings as String,
+ * the same as jackson reads them from the content response.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class LinkContentCache {
+    /**
+     * Cache that keeps nothing.
+     */
+    static final LinkContentCache DISABLED = new LinkContentCache(0);
+
+    /**
+     * Approximate size of the map entry with the boxed address.
+     */
+    private static final int ENTRY_WEIGHT = 64;
+    private static final int NUMBER_WEIGHT = 16;
+    private static final int STRING_WEIGHT = 40;
+
+    private final long maxWeight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private LongConsumer removalListener = link -> {
+    };
+
+    LinkContentCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    static LinkContentCache of(OstisClientConfiguration configuration) {
+        long maxWeight = configuration.getContentCacheMaxBytes();
+        return maxWeight == OstisClientConfiguration.NO_CONTENT_CACHE ? DISABLED : new LinkContentCache(maxWeight);
+    }
+
+    boolean isEnabled() {
+        return maxWeight > 0;
+    }
+
+    /**
+     * Sets the listener of the links whose contents are evicted or invalidated.
+     * It is called while the cache is locked, so it must not call the cache.
+     */
+    void setRemovalListener(LongConsumer removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * @param values - array of the same length as links, that the cached contents are put into
+     * @return indexes of the links whose contents are not cached
+     */
+    int[] lookup(long[] links, Object[] values) {
+        int[] missed = new int[links.length];
+        int missedCount = 0;
+        lock.lock();
+        try {
+            for (int i = 0; i < links.length; i++) {
+                Entry entry = entries.get(links[i]);
+                if (entry != null) {
+                    values[i] = entry.value;
+                } else {
+                    missed[missedCount++] = i;
+                }
+            }
+            misses += missedCount;
+            hits += links.length - missedCount;
+        } finally {
+            lock.unlock();
+        }
+        return Arrays.copyOf(missed, missedCount);
+    }
+
+    /**
+     * @return true if the content of the link is cached
+     */
+    boolean contains(long link) {
+        lock.lock();
+        try {
+            return entries.containsKey(link);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number that is changed by each write and invalidation,
+     * it is taken before the contents are requested and passed to {@link #putLoaded(long, long, Object)}
+     */
+    long getGeneration() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the content that is read from the sc-machine,
+     * unless something was written or invalidated since the generation was taken.
+     *
+     * @param value - content, or null if the link has no content, which is not cached
+     */
+    void putLoaded(long generation, long link, Object value) {
+        if (value == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (this.generation == generation) {
+                putEntry(link, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the content that is written to the sc-machine by this sc-memory.
+     */
+    void put(long link, Object value) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            generation++;
+            putEntry(link, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(long link) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            generation++;
+            removeEntry(link);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidateAll(long[] links) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            generation++;
+            for (long link : links) {
+                removeEntry(link);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all contents, for example when changes of the contents may be missed.
+     */
+    void invalidateAll() {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            generation++;
+            entries.keySet().forEach(removalListener::accept);
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ContentCacheStats getStats() {
+        if (!isEnabled()) {
+            return ContentCacheStats.NONE;
+        }
+        lock.lock();
+        try {
+            return new ContentCacheStats(hits, misses, evictions, entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A content that is larger than the whole cache is not put,
+     * and the previous content of the link is removed.
+     */
+    private void putEntry(long link, Object value) {
+        int entryWeight = weigh(value);
+        if (entryWeight > maxWeight) {
+            removeEntry(link);
+            return;
+        }
+        Entry previous = entries.put(link, new Entry(value, entryWeight));
+        weight += entryWeight - (previous == null ? 0 : previous.weight);
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            Map.Entry<Long, Entry> evicted = eldest.next();
+            weight -= evicted.getValue().weight;
+            eldest.remove();
+            evictions++;
+            removalListener.accept(evicted.getKey());
+        }
+    }
+
+    private void removeEntry(long link) {
+        Entry removed = entries.remove(link);
+        if (removed != null) {
+            weight -= removed.weight;
+            removalListener.accept(link);
+        }
+    }
+
+    /**
+     * Strings are counted with two bytes per character, which is their size in memory at most.
+     */
+    static int weigh(Object value) {
+        if (value instanceof String content) {
+            return ENTRY_WEIGHT + STRING_WEIGHT + 2 * content.length();
+        }
+        return ENTRY_WEIGHT + NUMBER_WEIGHT;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkContentCache{" +
+                "maxWeight=" + maxWeight +
+                ", stats=" + getStats() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final int weight;
+
+        private Entry(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
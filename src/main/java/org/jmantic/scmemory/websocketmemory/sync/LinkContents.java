@@ -0,0 +1,231 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contents of links returned by the content request.
+ * <p>
+ * Numbers are kept in one array without boxing,
+ * integers as they are and floats as the bits of doubles.
+ * Strings and other values are kept as objects,
+ * and their array is created only if the response has them.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class LinkContents {
+    static final LinkContents EMPTY = new LinkContents(new byte[0], new long[0], null, 0);
+
+    private static final byte NONE = 0;
+    private static final byte INTEGER = 1;
+    private static final byte FLOAT = 2;
+    private static final byte OBJECT = 3;
+
+    private final byte[] kinds;
+    private final long[] numbers;
+    private final Object[] objects;
+    private final int size;
+
+    private LinkContents(byte[] kinds, long[] numbers, Object[] objects, int size) {
+        this.kinds = kinds;
+        this.numbers = numbers;
+        this.objects = objects;
+        this.size = size;
+    }
+
+    /**
+     * @param values - contents as {@link #getValue(int)} returns them
+     */
+    static LinkContents of(Object[] values) {
+        byte[] kinds = new byte[values.length];
+        long[] numbers = new long[values.length];
+        Object[] objects = null;
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Integer || value instanceof Long) {
+                kinds[i] = INTEGER;
+                numbers[i] = ((Number) value).longValue();
+            } else if (value instanceof Double || value instanceof Float) {
+                kinds[i] = FLOAT;
+                numbers[i] = Double.doubleToRawLongBits(((Number) value).doubleValue());
+            } else if (value != null) {
+                if (objects == null) {
+                    objects = new Object[values.length];
+                }
+                kinds[i] = OBJECT;
+                objects[i] = value;
+            }
+        }
+        return new LinkContents(kinds, numbers, objects, values.length);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the content is an integer that fits into int
+     */
+    boolean isInteger(int index) {
+        checkIndex(index);
+        return kinds[index] == INTEGER && numbers[index] == (int) numbers[index];
+    }
+
+    /**
+     * @return true if the content is an integer or a float
+     */
+    boolean isNumber(int index) {
+        checkIndex(index);
+        return kinds[index] == INTEGER || kinds[index] == FLOAT;
+    }
+
+    /**
+     * @throws IllegalStateException if the content is not an integer
+     */
+    int getInteger(int index) {
+        if (!isInteger(index)) {
+            throw new IllegalStateException("content " + index + " is not an integer");
+        }
+        return (int) numbers[index];
+    }
+
+    /**
+     * @throws IllegalStateException if the content is not a number
+     */
+    double getDouble(int index) {
+        if (!isNumber(index)) {
+            throw new IllegalStateException("content " + index + " is not a number");
+        }
+        return kinds[index] == INTEGER ? numbers[index] : Double.longBitsToDouble(numbers[index]);
+    }
+
+    /**
+     * @return content as jackson reads it into an object:
+     * Integer or Long for integers, Double for floats, String for strings and null for links without content
+     */
+    Object getValue(int index) {
+        checkIndex(index);
+        long number = numbers[index];
+        // a conditional expression would box both branches into Long
+        switch (kinds[index]) {
+            case INTEGER:
+                if (number == (int) number) {
+                    return (int) number;
+                }
+                return number;
+            case FLOAT:
+                return Double.longBitsToDouble(number);
+            case OBJECT:
+                return objects[index];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return values of all contents, which are boxed when they are read
+     */
+    List<Object> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Object get(int index) {
+                return getValue(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("content " + index + " of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LinkContents" + asList();
+    }
+
+    /**
+     * Reads the payload of the content response token by token.
+     * <p>
+     * Each item is an object with the value and the type of the content,
+     * only the value is read, because its token already tells the type.
+     *
+     * @author artrayme
+     * @since 0.4.0
+     */
+    static class Deserializer extends StdDeserializer<LinkContents> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        public Deserializer() {
+            super(LinkContents.class);
+        }
+
+        @Override
+        public LinkContents deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                parser.skipChildren();
+                return EMPTY;
+            }
+            byte[] kinds = new byte[INITIAL_CAPACITY];
+            long[] numbers = new long[INITIAL_CAPACITY];
+            Object[] objects = null;
+            int size = 0;
+            for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+                if (size == kinds.length) {
+                    kinds = Arrays.copyOf(kinds, size * 2);
+                    numbers = Arrays.copyOf(numbers, size * 2);
+                    if (objects != null) {
+                        objects = Arrays.copyOf(objects, size * 2);
+                    }
+                }
+                if (item != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    size++;
+                    continue;
+                }
+                for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                    JsonToken token = parser.nextToken();
+                    if (!field.equals("value")) {
+                        parser.skipChildren();
+                    } else if (token == JsonToken.VALUE_NUMBER_INT
+                            && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                        kinds[size] = INTEGER;
+                        numbers[size] = parser.getLongValue();
+                    } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                        kinds[size] = FLOAT;
+                        numbers[size] = Double.doubleToRawLongBits(parser.getDoubleValue());
+                    } else if (token != JsonToken.VALUE_NULL) {
+                        if (objects == null) {
+                            objects = new Object[kinds.length];
+                        }
+                        kinds[size] = OBJECT;
+                        objects[size] = token == JsonToken.VALUE_STRING
+                                ? parser.getText()
+                                : context.readValue(parser, Object.class);
+                    }
+                }
+                size++;
+            }
+            return new LinkContents(kinds, numbers, objects, size);
+        }
+
+        @Override
+        public LinkContents getNullValue(DeserializationContext context) {
+            return EMPTY;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Websocket client on top of the {@link WebSocket} of the JDK.
+ * <p>
+ * The JDK websocket does not allow a new message to be sent until the previous one is written,
+ * so messages of each connection are written one after another in the order of sending.
+ * The next message is requested only after the previous one is handled.
+ * <p>
+ * The JDK websocket cannot negotiate extensions, so messages are never compressed.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class OstisClientJdk extends AbstractOstisClient {
+
+    private final static Logger logger = LoggerFactory.getLogger(OstisClientJdk.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private final HttpClient httpClient;
+
+    public OstisClientJdk(URI serverUri) {
+        this(serverUri, new OstisClientConfiguration());
+    }
+
+    public OstisClientJdk(URI serverUri, OstisClientConfiguration configuration) {
+        super(configuration);
+        if (configuration.isCompressionEnabled()) {
+            logger.warn("permessage-deflate is not supported by the JDK websocket, messages are sent without compression");
+        }
+        httpClient = HttpClient.newHttpClient();
+        configure(serverUri);
+    }
+
+    @Override
+    Connection createConnection(URI serverUri) {
+        return new JdkConnection(serverUri);
+    }
+
+    private class JdkConnection implements Connection, WebSocket.Listener {
+        private final URI serverUri;
+        private final StringBuilder partialMessage = new StringBuilder();
+        private final ByteArrayOutputStream partialBinaryMessage = new ByteArrayOutputStream();
+        private final AtomicBoolean lost = new AtomicBoolean();
+        private volatile CompletableFuture<WebSocket> opening;
+        private volatile WebSocket webSocket;
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private CompletableFuture<WebSocket> lastSend = CompletableFuture.completedFuture(null);
+
+        private JdkConnection(URI serverUri) {
+            this.serverUri = serverUri;
+        }
+
+        @Override
+        public URI getURI() {
+            return serverUri;
+        }
+
+        @Override
+        public void connect() {
+            opening = httpClient.newWebSocketBuilder().buildAsync(serverUri, this);
+            opening.whenComplete((ws, cause) -> {
+                if (cause != null) {
+                    logger.error("cannot connect to uri {}", serverUri, cause);
+                    reportLost("cannot connect to uri " + serverUri + ": " + cause.getMessage());
+                }
+            });
+        }
+
+        @Override
+        public boolean connectBlocking() throws InterruptedException {
+            connect();
+            try {
+                opening.get();
+                return true;
+            } catch (ExecutionException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            WebSocket ws = webSocket;
+            return ws != null && !ws.isOutputClosed() && !ws.isInputClosed();
+        }
+
+        /**
+         * The JDK websocket sends characters, so the fragment is decoded into a new buffer.
+         * The sender waits until a fragment that is not the last one is written,
+         * so a large message does not pile up in the queue of the connection.
+         */
+        @Override
+        public void sendText(ByteBuffer fragment, boolean last) {
+            CharBuffer text = StandardCharsets.UTF_8.decode(fragment);
+            awaitFragment(enqueue(ws -> ws.sendText(text, last)), last);
+        }
+
+        /**
+         * The fragment is copied, because the last fragment is not awaited,
+         * and the JDK websocket reads the buffer after the method returns.
+         */
+        @Override
+        public void sendBinary(ByteBuffer fragment, boolean last) {
+            ByteBuffer bytes = ByteBuffer.allocate(fragment.remaining()).put(fragment).flip();
+            awaitFragment(enqueue(ws -> ws.sendBinary(bytes, last)), last);
+        }
+
+        private void awaitFragment(CompletableFuture<WebSocket> sent, boolean last) {
+            if (last) {
+                return;
+            }
+            try {
+                sent.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("cannot send fragment to uri " + serverUri, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while sending fragment to uri " + serverUri, e);
+            }
+        }
+
+        @Override
+        public void sendPing() {
+            enqueue(ws -> ws.sendPing(ByteBuffer.allocate(0)));
+        }
+
+        @Override
+        public void abort(String reason) {
+            WebSocket ws = webSocket;
+            if (ws != null) {
+                ws.abort();
+            }
+            reportLost(reason);
+        }
+
+        @Override
+        public void closeBlocking() throws InterruptedException {
+            WebSocket ws = webSocket;
+            if (ws == null) {
+                return;
+            }
+            try {
+                enqueue(w -> w.sendClose(WebSocket.NORMAL_CLOSURE, "")).get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (ExecutionException | TimeoutException | IllegalStateException e) {
+                logger.debug("websocket is not closed gracefully", e);
+            } finally {
+                ws.abort();
+            }
+        }
+
+        /**
+         * Previous failure does not stop the queue,
+         * because the failed message is already reported by the listener.
+         */
+        private CompletableFuture<WebSocket> enqueue(Function<WebSocket, CompletableFuture<WebSocket>> operation) {
+            WebSocket ws = webSocket;
+            if (ws == null || ws.isOutputClosed()) {
+                throw new IllegalStateException("websocket is not connected to uri " + serverUri);
+            }
+            sendLock.lock();
+            try {
+                lastSend = lastSend.exceptionally(cause -> ws).thenCompose(ignored -> operation.apply(ws));
+                return lastSend;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            this.webSocket = webSocket;
+            logger.info("ostis client is connected to uri {} with subprotocol '{}'", serverUri, webSocket.getSubprotocol());
+            webSocket.request(1);
+            onConnectionOpened(this);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partialMessage.append(data);
+            if (last) {
+                String message = partialMessage.toString();
+                partialMessage.setLength(0);
+                completePendingRequest(OstisMessage.ofText(message));
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            partialBinaryMessage.writeBytes(bytes);
+            if (last) {
+                byte[] message = partialBinaryMessage.toByteArray();
+                partialBinaryMessage.reset();
+                completePendingRequest(OstisMessage.ofBytes(message));
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onPong(WebSocket webSocket, ByteBuffer message) {
+            OstisClientJdk.this.onPong(this);
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            logger.info("ostis closed with code {} and reason {}", statusCode, reason);
+            reportLost("connection is closed with code " + statusCode + " and reason " + reason);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            logger.error("something wrong at ostis websocket client", error);
+            reportLost("connection is broken: " + error.getMessage());
+        }
+
+        /**
+         * The JDK websocket may report both the error and the close of the same connection.
+         */
+        private void reportLost(String reason) {
+            if (lost.compareAndSet(false, true)) {
+                onConnectionLost(this, reason);
+            }
+        }
+    }
+}
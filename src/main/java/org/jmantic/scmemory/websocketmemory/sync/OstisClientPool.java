@@ -0,0 +1,157 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.exception.ScMemoryConfigurationException;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.jmantic.scmemory.websocketmemory.core.OstisClient;
+import org.jmantic.scmemory.websocketmemory.core.OstisEventListener;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client that holds several websocket connections to the same sc-machine.
+ * Each request is sent through the open connection with the fewest requests in flight.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class OstisClientPool implements OstisClient {
+    private final static Logger logger = LoggerFactory.getLogger(OstisClientPool.class);
+    private final List<AbstractOstisClient> clients;
+    private final AtomicInteger nextClient = new AtomicInteger();
+
+    public OstisClientPool(URI serverUri, int poolSize, OstisClientConfiguration configuration) {
+        if (poolSize < 1) {
+            throw new ScMemoryConfigurationException("pool size must be positive, but it is " + poolSize);
+        }
+        clients = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            clients.add(AbstractOstisClient.create(serverUri, configuration));
+        }
+        logger.info("ostis client pool with {} connections is configured to the uri {}", poolSize, serverUri);
+    }
+
+    /**
+     * @param clients - configured connections of the pool
+     */
+    OstisClientPool(List<AbstractOstisClient> clients) {
+        if (clients.isEmpty()) {
+            throw new ScMemoryConfigurationException("pool size must be positive, but it is 0");
+        }
+        this.clients = new ArrayList<>(clients);
+    }
+
+    @Override
+    public void configure(URI serverUri) {
+        clients.forEach(client -> client.configure(serverUri));
+    }
+
+    @Override
+    public void open() {
+        clients.forEach(AbstractOstisClient::open);
+    }
+
+    @Override
+    public OstisMessage sendToOstis(long requestId, RequestWriter request, boolean idempotent, Duration timeout) throws OstisConnectionException {
+        return selectClient().sendToOstis(requestId, request, idempotent, timeout);
+    }
+
+    @Override
+    public CompletableFuture<OstisMessage> sendToOstisAsync(long requestId, RequestWriter request, boolean idempotent, Duration timeout) {
+        return selectClient().sendToOstisAsync(requestId, request, idempotent, timeout);
+    }
+
+    @Override
+    public void close() throws Exception {
+        Exception failure = null;
+        for (AbstractOstisClient client : clients) {
+            try {
+                client.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * A subscription belongs to the connection that sent the events request,
+     * so the listener is set to every connection.
+     */
+    @Override
+    public void setEventListener(OstisEventListener listener) {
+        clients.forEach(client -> client.setEventListener(listener));
+    }
+
+    /**
+     * @return the first connection of the pool
+     */
+    @Override
+    public OstisClient getEventsClient() {
+        return clients.get(0);
+    }
+
+    /**
+     * @return sums of the counters of all connections in the pool
+     */
+    @Override
+    public CompressionStats getCompressionStats() {
+        return clients.stream()
+                .map(AbstractOstisClient::getCompressionStats)
+                .reduce(CompressionStats.NONE, CompressionStats::plus);
+    }
+
+    public int getPoolSize() {
+        return clients.size();
+    }
+
+    public int getIdleConnectionsCount() {
+        return (int) clients.stream().filter(client -> client.getInFlightRequestsCount() == 0).count();
+    }
+
+    public int getBusyConnectionsCount() {
+        return getPoolSize() - getIdleConnectionsCount();
+    }
+
+    /**
+     * Scanning starts from the next connection each time,
+     * so connections with the same load are used in turn.
+     * Connections that are not open, for example while they reconnect, are skipped.
+     * If none of them is open, the request is sent through the first scanned connection,
+     * which waits for the reconnection or fails the request as a single client does.
+     */
+    private AbstractOstisClient selectClient() {
+        int size = clients.size();
+        int start = Math.floorMod(nextClient.getAndIncrement(), size);
+        AbstractOstisClient selected = null;
+        int minInFlight = Integer.MAX_VALUE;
+        for (int i = 0; i < size && minInFlight > 0; i++) {
+            AbstractOstisClient client = clients.get((start + i) % size);
+            if (!client.isOpen()) {
+                continue;
+            }
+            int inFlight = client.getInFlightRequestsCount();
+            if (inFlight < minInFlight) {
+                selected = client;
+                minInFlight = inFlight;
+            }
+        }
+        return selected != null ? selected : clients.get(start);
+    }
+}
@@ -1,95 +1,127 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
+import org.java_websocket.WebSocket;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ServerHandshake;
-import org.jmantic.scmemory.websocketmemory.core.OstisClient;
-import org.jmantic.scmemory.websocketmemory.sync.exception.OstisClientConfigurationException;
-import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
-import java.util.concurrent.CountDownLatch;
+import java.nio.ByteBuffer;
+import java.time.Duration;
 
 /**
+ * Websocket client on top of the Java-WebSocket library.
+ *
  * @author artrayme
  * @since 0.2.0
  */
-class OstisClientSync implements OstisClient {
+class OstisClientSync extends AbstractOstisClient {
 
     private final static Logger logger = LoggerFactory.getLogger(OstisClientSync.class);
-    private WebSocketClient webSocketClient;
-    private String responseMassage;
-    private CountDownLatch latch;
-
-    private OstisClientSync() {
+    /**
+     * Template of the protocol of connections, each connection uses its own copy of it.
+     */
+    private final Draft_6455 draft;
+    /**
+     * Interval of the keepalive pings that close dead connections,
+     * or {@link OstisClientConfiguration#NO_KEEPALIVE} if the client never closes them,
+     * because pings are disabled, the health score is not checked or reconnection is disabled.
+     */
+    private final Duration keepaliveInterval;
 
+    public OstisClientSync(URI serverUri) {
+        this(serverUri, new OstisClientConfiguration());
     }
 
-    public OstisClientSync(URI serverUri) {
+    public OstisClientSync(URI serverUri, OstisClientConfiguration configuration) {
+        super(configuration);
+        draft = configuration.isCompressionEnabled()
+                ? new Draft_6455(new PerMessageDeflate(configuration.getCompressionThreshold(), getCompressionCounters()))
+                : new Draft_6455();
+        keepaliveInterval = configuration.isReconnectEnabled() && configuration.getMinHealthScore() > 0
+                ? configuration.getPingInterval()
+                : OstisClientConfiguration.NO_KEEPALIVE;
         configure(serverUri);
     }
 
     @Override
-    public synchronized void configure(URI serverUri) {
-        webSocketClient = new OstisWebsocketClient(serverUri);
-        logger.info("ostis client is configured to the uri {}", serverUri);
+    Connection createConnection(URI serverUri) {
+        return new OstisWebsocketClient(serverUri, keepaliveInterval);
     }
 
-    @Override
-    public synchronized void open() {
-        try {
-            webSocketClient.connectBlocking();
-            logger.info("ostis client is connected to uri {}", webSocketClient.getURI());
-        } catch (InterruptedException e) {
-            logger.error("cannot connect to uri {}", webSocketClient.getURI());
-            throw new OstisClientConfigurationException("cannot connect to this uri", e);
+    private class OstisWebsocketClient extends WebSocketClient implements Connection {
+
+        /**
+         * If keepalive pings of the client close dead connections,
+         * pings of the library are disabled, so each received pong answers the ping of the client.
+         * Otherwise lost connections are detected by the library.
+         *
+         * @param keepaliveInterval - interval of the pings of the client, or {@link OstisClientConfiguration#NO_KEEPALIVE}
+         */
+        public OstisWebsocketClient(URI serverUri, Duration keepaliveInterval) {
+            super(serverUri, draft);
+            if (!keepaliveInterval.isZero()) {
+                setConnectionLostTimeout(0);
+            }
         }
-    }
 
-    @Override
-    public synchronized String sendToOstis(String jsonRequest) throws OstisConnectionException {
-        latch = new CountDownLatch(1);
-        try {
-            logger.info("try to send request: {}", jsonRequest);
-            webSocketClient.send(jsonRequest);
-            latch.await();
-        } catch (InterruptedException e) {
-            logger.error("try to send request: {}", jsonRequest);
-            throw new OstisConnectionException();
+        /**
+         * The library copies the payload into the frame before this method returns,
+         * and it marks fragments after the first one as continuation frames itself.
+         */
+        @Override
+        public void sendText(ByteBuffer fragment, boolean last) {
+            sendFragmentedFrame(Opcode.TEXT, fragment, last);
         }
-        logger.info("ostis client return response {}", responseMassage);
-        return responseMassage;
-    }
-
 
-    @Override
-    public void close() throws Exception {
-        webSocketClient.closeBlocking();
-        logger.info("ostis client closed");
-    }
-
-    private class OstisWebsocketClient extends WebSocketClient {
+        @Override
+        public void sendBinary(ByteBuffer fragment, boolean last) {
+            sendFragmentedFrame(Opcode.BINARY, fragment, last);
+        }
 
-        public OstisWebsocketClient(URI serverUri) {
-            super(serverUri);
+        @Override
+        public void abort(String reason) {
+            closeConnection(CloseFrame.ABNORMAL_CLOSE, reason);
         }
 
         @Override
         public void onOpen(ServerHandshake handshakedata) {
             logger.info("ostis client received handshake {}", handshakedata);
+            onConnectionOpened(this);
         }
 
         @Override
         public void onMessage(String message) {
-            logger.info("ostis client catch response {}" + message);
-            responseMassage = message;
-            latch.countDown();
+            completePendingRequest(OstisMessage.ofText(message));
+        }
+
+        /**
+         * The library joins fragments of the binary message before this method is called.
+         */
+        @Override
+        public void onMessage(ByteBuffer message) {
+            byte[] bytes = new byte[message.remaining()];
+            message.get(bytes);
+            completePendingRequest(OstisMessage.ofBytes(bytes));
         }
 
         @Override
         public void onClose(int code, String reason, boolean remote) {
             logger.info("ostis closed with code {} and reason {}. Is connection closed by server - {}", code, reason, remote);
+            onConnectionLost(this, "connection is closed with code " + code + " and reason " + reason);
+        }
+
+        @Override
+        public void onWebsocketPong(WebSocket conn, Framedata frame) {
+            super.onWebsocketPong(conn, frame);
+            onPong(this);
         }
 
         @Override
@@ -0,0 +1,158 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jmantic.scmemory.model.FloatContentVisitor;
+import org.jmantic.scmemory.model.IntegerContentVisitor;
+import org.jmantic.scmemory.model.TripleVisitor;
+
+import java.io.IOException;
+
+/**
+ * Reads the payload of a response token by token and passes its items to a visitor of the user,
+ * so the items are never collected.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+interface PayloadVisitor {
+
+    /**
+     * @param parser - parser at the first token of the payload, which must be consumed with all its children
+     * @return number of read items
+     */
+    int visitPayload(JsonParser parser) throws IOException;
+
+    /**
+     * Reads the payload of the search_template response.
+     * Addresses of the first three components of each construction are passed to the visitor,
+     * and others are skipped.
+     * The payload of a failed search is not an object, so nothing is visited.
+     */
+    final class Triples implements PayloadVisitor {
+        private final TripleVisitor visitor;
+
+        Triples(TripleVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public int visitPayload(JsonParser parser) throws IOException {
+            if (!parser.isExpectedStartObjectToken()) {
+                parser.skipChildren();
+                return 0;
+            }
+            int count = 0;
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                if (parser.nextToken() != JsonToken.START_ARRAY || !field.equals("addrs")) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_ARRAY) {
+                    long source = 0;
+                    long edge = 0;
+                    long target = 0;
+                    int position = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        switch (position++) {
+                            case 0 -> source = parser.getLongValue();
+                            case 1 -> edge = parser.getLongValue();
+                            case 2 -> target = parser.getLongValue();
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    if (position < 3) {
+                        throw new IOException("found construction of size " + position + " is not a triple");
+                    }
+                    visitor.visit(source, edge, target);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads the payload of the content response, which has one item for each requested link.
+     * <p>
+     * Reading does not stop at the first link without the expected content,
+     * but no link is visited after it, and its index is kept.
+     */
+    abstract class Contents implements PayloadVisitor {
+        private final long[] links;
+        private int failedIndex = -1;
+
+        private Contents(long[] links) {
+            this.links = links;
+        }
+
+        static Contents integers(long[] links, IntegerContentVisitor visitor) {
+            return new Contents(links) {
+                @Override
+                boolean visit(JsonParser parser, JsonToken token, long link) throws IOException {
+                    if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+                        return false;
+                    }
+                    visitor.visit(link, parser.getIntValue());
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Integer contents are converted to floats.
+         */
+        static Contents floats(long[] links, FloatContentVisitor visitor) {
+            return new Contents(links) {
+                @Override
+                boolean visit(JsonParser parser, JsonToken token, long link) throws IOException {
+                    if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                        return false;
+                    }
+                    visitor.visit(link, parser.getFloatValue());
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * @return false if the value is not the expected content
+         */
+        abstract boolean visit(JsonParser parser, JsonToken token, long link) throws IOException;
+
+        /**
+         * @return index of the first link without the expected content, or -1 if all links are visited
+         */
+        int getFailedIndex() {
+            return failedIndex;
+        }
+
+        @Override
+        public int visitPayload(JsonParser parser) throws IOException {
+            if (!parser.isExpectedStartArrayToken()) {
+                parser.skipChildren();
+                return 0;
+            }
+            int count = 0;
+            for (JsonToken item = parser.nextToken(); item != JsonToken.END_ARRAY; item = parser.nextToken()) {
+                boolean visited = false;
+                if (item == JsonToken.START_OBJECT) {
+                    for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                        JsonToken token = parser.nextToken();
+                        if (field.equals("value") && failedIndex < 0 && count < links.length) {
+                            visited = visit(parser, token, links[count]);
+                        }
+                        parser.skipChildren();
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+                if (!visited && failedIndex < 0 && count < links.length) {
+                    failedIndex = count;
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+}
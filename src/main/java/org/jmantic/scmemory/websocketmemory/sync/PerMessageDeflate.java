@@ -0,0 +1,204 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.exceptions.InvalidFrameException;
+import org.java_websocket.extensions.CompressionExtension;
+import org.java_websocket.extensions.ExtensionRequestData;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.framing.CloseFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Client side of the permessage-deflate extension (RFC 7692) for the Java-WebSocket library.
+ * <p>
+ * Whether a message is compressed is decided by its first frame,
+ * and all fragments of the message follow that decision.
+ * A message below the threshold is sent as it is, without the RSV1 bit,
+ * and received messages are decompressed only if their first frame has the RSV1 bit.
+ * The extension of the library cannot be used instead,
+ * because it compresses every message and rejects received messages without the RSV1 bit.
+ * <p>
+ * Both directions keep the compression context between messages,
+ * unless the server asks the client not to keep it.
+ * Frames are encoded on the thread that holds the message lock of the client,
+ * and decoded on the thread that reads the socket, so each direction has its own state.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class PerMessageDeflate extends CompressionExtension {
+    private static final String EXTENSION_NAME = "permessage-deflate";
+    private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+    /**
+     * The empty block that ends each flushed part of the deflate stream,
+     * it is removed from the end of a compressed message and appended back before decompression.
+     */
+    private static final byte[] TAIL = {0, 0, (byte) 0xFF, (byte) 0xFF};
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final int threshold;
+    private final CompressionCounters counters;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final Inflater inflater = new Inflater(true);
+    private final byte[] deflateChunk = new byte[CHUNK_SIZE];
+    private final byte[] inflateChunk = new byte[CHUNK_SIZE];
+    private boolean clientNoContextTakeover;
+    private boolean compressingMessage;
+    private boolean decompressingMessage;
+
+    /**
+     * @param threshold - size in bytes of the message below which it is not compressed
+     * @param counters  - counters of the client, that are shared by all its connections
+     */
+    PerMessageDeflate(int threshold, CompressionCounters counters) {
+        this.threshold = threshold;
+        this.counters = counters;
+    }
+
+    /**
+     * A message that is not finished by its first frame is compressed,
+     * because the first fragment is sent only when the buffer of the client is full.
+     */
+    @Override
+    public void encodeFrame(Framedata frame) {
+        if (!(frame instanceof DataFrame dataFrame)) {
+            return;
+        }
+        ByteBuffer payload = frame.getPayloadData();
+        int size = payload.remaining();
+        if (frame.getOpcode() != Opcode.CONTINUOUS) {
+            compressingMessage = !frame.isFin() || size >= threshold;
+            counters.recordSentMessage(compressingMessage);
+            dataFrame.setRSV1(compressingMessage);
+        }
+        if (!compressingMessage) {
+            counters.recordSentFrame(size, size);
+            return;
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(size / 2 + TAIL.length);
+        deflater.setInput(payload);
+        int count;
+        do {
+            count = deflater.deflate(deflateChunk, 0, deflateChunk.length, Deflater.SYNC_FLUSH);
+            compressed.write(deflateChunk, 0, count);
+        } while (count == deflateChunk.length);
+        int length = compressed.size();
+        if (frame.isFin()) {
+            length -= TAIL.length;
+            if (clientNoContextTakeover) {
+                deflater.reset();
+            }
+        }
+        dataFrame.setPayload(ByteBuffer.wrap(compressed.toByteArray(), 0, length));
+        counters.recordSentFrame(size, length);
+    }
+
+    @Override
+    public void decodeFrame(Framedata frame) throws InvalidDataException {
+        if (!(frame instanceof DataFrame dataFrame)) {
+            return;
+        }
+        ByteBuffer payload = frame.getPayloadData();
+        int wireSize = payload.remaining();
+        if (frame.getOpcode() != Opcode.CONTINUOUS) {
+            decompressingMessage = frame.isRSV1();
+            counters.recordReceivedMessage(decompressingMessage);
+        }
+        if (!decompressingMessage) {
+            counters.recordReceivedFrame(wireSize, wireSize);
+            return;
+        }
+
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream(wireSize * 4);
+        try {
+            inflate(payload, decompressed);
+            if (frame.isFin()) {
+                inflate(ByteBuffer.wrap(TAIL), decompressed);
+            }
+        } catch (DataFormatException e) {
+            throw new InvalidDataException(CloseFrame.POLICY_VALIDATION, "cannot decompress message: " + e.getMessage());
+        }
+        // other checks of the library reject data frames with the RSV1 bit
+        dataFrame.setRSV1(false);
+        dataFrame.setPayload(ByteBuffer.wrap(decompressed.toByteArray()));
+        counters.recordReceivedFrame(decompressed.size(), wireSize);
+    }
+
+    /**
+     * The server may end the deflate stream of a message with the final block,
+     * and then the next message starts a new stream.
+     */
+    private void inflate(ByteBuffer input, ByteArrayOutputStream output) throws DataFormatException {
+        inflater.setInput(input);
+        int count;
+        while ((count = inflater.inflate(inflateChunk)) > 0) {
+            output.write(inflateChunk, 0, count);
+        }
+        if (inflater.finished()) {
+            inflater.reset();
+        }
+    }
+
+    @Override
+    public void isFrameValid(Framedata frame) throws InvalidDataException {
+        if (frame.getOpcode() == Opcode.CONTINUOUS && frame.isRSV1()) {
+            throw new InvalidFrameException("RSV1 bit can be set only in the first frame of a compressed message");
+        }
+        super.isFrameValid(frame);
+    }
+
+    @Override
+    public String getProvidedExtensionAsClient() {
+        return EXTENSION_NAME;
+    }
+
+    @Override
+    public boolean acceptProvidedExtensionAsClient(String header) {
+        for (String extension : header.split(",")) {
+            ExtensionRequestData data = ExtensionRequestData.parseExtensionRequest(extension);
+            if (EXTENSION_NAME.equalsIgnoreCase(data.getExtensionName())) {
+                clientNoContextTakeover = data.getExtensionParameters().containsKey(CLIENT_NO_CONTEXT_TAKEOVER);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean acceptProvidedExtensionAsServer(String header) {
+        return false;
+    }
+
+    /**
+     * Each connection gets its own copy, which shares the counters of the client.
+     */
+    @Override
+    public IExtension copyInstance() {
+        return new PerMessageDeflate(threshold, counters);
+    }
+
+    @Override
+    public void reset() {
+        deflater.reset();
+        inflater.reset();
+        compressingMessage = false;
+        decompressingMessage = false;
+    }
+
+    @Override
+    public String toString() {
+        return "PerMessageDeflate{" +
+                "threshold=" + threshold +
+                ", clientNoContextTakeover=" + clientNoContextTakeover +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+
+import java.net.URI;
+
+/**
+ * {@link SyncOstisScMemory} that holds several websocket connections to the same sc-machine.
+ * <p>
+ * It is designed for multithreading programs.
+ * Each request is sent through the connection with the fewest requests in flight,
+ * so threads do not wait for each other on one socket.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PooledOstisScMemory extends SyncOstisScMemory {
+    private final OstisClientPool pool;
+
+    public PooledOstisScMemory(URI serverURI, int poolSize) {
+        this(serverURI, poolSize, new OstisClientConfiguration());
+    }
+
+    /**
+     * @param configuration - settings of each websocket connection in the pool
+     */
+    public PooledOstisScMemory(URI serverURI, int poolSize, OstisClientConfiguration configuration) {
+        this(new OstisClientPool(serverURI, poolSize, configuration), configuration);
+    }
+
+    private PooledOstisScMemory(OstisClientPool pool, OstisClientConfiguration configuration) {
+        super(pool, configuration);
+        this.pool = pool;
+    }
+
+    /**
+     * @return number of websocket connections in the pool
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * @return number of connections without requests in flight
+     */
+    public int getIdleConnectionsCount() {
+        return pool.getIdleConnectionsCount();
+    }
+
+    /**
+     * @return number of connections with at least one request in flight
+     */
+    public int getBusyConnectionsCount() {
+        return pool.getBusyConnectionsCount();
+    }
+}
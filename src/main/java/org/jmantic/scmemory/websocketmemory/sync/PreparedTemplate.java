@@ -0,0 +1,227 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Search template of one shape that is serialized once.
+ * <p>
+ * The bytes of the request are cut around the id and the fixed addresses,
+ * so a request of the template is written as the cut segments with the numbers between them,
+ * and no components of the template are built or serialized again.
+ * Templates are compiled on the first use of the shape and kept for all later searches,
+ * there is a limited number of them, because the shape consists of types only.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class PreparedTemplate {
+    private static final byte[] ID_PREFIX = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_NUMBER_LENGTH = 20;
+    private static final ConcurrentMap<List<Object>, PreparedTemplate> templates = new ConcurrentHashMap<>();
+
+    private final Shape shape;
+    private final int addressesCount;
+    private final byte[][] segments;
+
+    private PreparedTemplate(Shape shape, int addressesCount, byte[][] segments) {
+        this.shape = shape;
+        this.addressesCount = addressesCount;
+        this.segments = segments;
+    }
+
+    /**
+     * fixed node -> edge of the type -> node of the type
+     */
+    static PreparedTemplate nodeEdgeNode(EdgeType edgeType, NodeType nodeType) {
+        return prepare(List.of(SearchByTemplateNodeEdgeNodeRequestImpl.class, edgeType, nodeType), 1,
+                addresses -> new SearchByTemplateNodeEdgeNodeRequestImpl(addresses[0], edgeType, nodeType));
+    }
+
+    /**
+     * fixed node -> edge of the type -> link of the type
+     */
+    static PreparedTemplate nodeEdgeLink(EdgeType edgeType, LinkType linkType) {
+        return prepare(List.of(SearchByTemplateNodeEdgeLinkRequestImpl.class, edgeType, linkType), 1,
+                addresses -> new SearchByTemplateNodeEdgeLinkRequestImpl(addresses[0], edgeType, linkType));
+    }
+
+    /**
+     * fixed node -> edge of the type -> link of the type,
+     * and fixed relation -> edge of the relation type -> the first edge
+     */
+    static PreparedTemplate nodeEdgeLinkWithRelation(EdgeType edgeType, LinkType linkType, EdgeType relationEdgeType) {
+        return prepare(List.of(SearchByTemplateNodeEdgeLinkWithRelationRequestImpl.class, edgeType, linkType, relationEdgeType), 2,
+                addresses -> new SearchByTemplateNodeEdgeLinkWithRelationRequestImpl(addresses[0], edgeType, linkType, addresses[1], relationEdgeType));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the template has other number of fixed addresses
+     */
+    SearchByTemplateRequest request(long fixedAddress) {
+        return request(new long[]{fixedAddress});
+    }
+
+    /**
+     * @throws IllegalArgumentException if the template has other number of fixed addresses
+     */
+    SearchByTemplateRequest request(long fixedAddress, long relationAddress) {
+        return request(new long[]{fixedAddress, relationAddress});
+    }
+
+    private SearchByTemplateRequest request(long[] addresses) {
+        if (addresses.length != addressesCount) {
+            throw new IllegalArgumentException("template has " + addressesCount + " fixed addresses, but " + addresses.length + " are given");
+        }
+        return new Request(this, addresses);
+    }
+
+    private void writeTo(OutputStream out, long requestId, long[] addresses) throws IOException {
+        byte[] digits = new byte[MAX_NUMBER_LENGTH];
+        out.write(segments[0]);
+        writeNumber(out, requestId, digits);
+        for (int i = 0; i < addresses.length; i++) {
+            out.write(segments[i + 1]);
+            writeNumber(out, addresses[i], digits);
+        }
+        out.write(segments[addresses.length + 1]);
+    }
+
+    private static PreparedTemplate prepare(List<Object> key, int addressesCount, Shape shape) {
+        PreparedTemplate template = templates.get(key);
+        return template != null ? template : templates.computeIfAbsent(key, k -> compile(addressesCount, shape));
+    }
+
+    /**
+     * Serializes the request of the shape with placeholder addresses and cuts it around them.
+     * The placeholders are the largest longs, which are never written by the components of templates.
+     */
+    private static PreparedTemplate compile(int addressesCount, Shape shape) {
+        long[] placeholders = new long[addressesCount];
+        for (int i = 0; i < addressesCount; i++) {
+            placeholders[i] = Long.MAX_VALUE - i;
+        }
+        AbstractScRequest prototype = shape.newRequest(placeholders);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            RequestEncoder.writerOf(prototype).writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot serialize template " + prototype, e);
+        }
+        byte[] bytes = out.toByteArray();
+
+        byte[] id = Long.toString(prototype.getRequestId()).getBytes(StandardCharsets.US_ASCII);
+        int start = ID_PREFIX.length + id.length;
+        if (indexOf(bytes, ID_PREFIX, 0) != 0 || indexOf(bytes, id, ID_PREFIX.length) != ID_PREFIX.length || bytes[start] != ',') {
+            throw new IllegalStateException("request does not start with its id " + prototype);
+        }
+        byte[][] segments = new byte[addressesCount + 2][];
+        segments[0] = ID_PREFIX;
+        for (int i = 0; i < addressesCount; i++) {
+            byte[] placeholder = Long.toString(placeholders[i]).getBytes(StandardCharsets.US_ASCII);
+            int position = indexOf(bytes, placeholder, start);
+            if (position < 0 || indexOf(bytes, placeholder, position + placeholder.length) >= 0) {
+                throw new IllegalStateException("address " + i + " is not written once by template " + prototype);
+            }
+            segments[i + 1] = Arrays.copyOfRange(bytes, start, position);
+            start = position + placeholder.length;
+        }
+        segments[addressesCount + 1] = Arrays.copyOfRange(bytes, start, bytes.length);
+        return new PreparedTemplate(shape, addressesCount, segments);
+    }
+
+    /**
+     * Writes the number as json does, digits are collected from the end of the given array.
+     */
+    private static void writeNumber(OutputStream out, long value, byte[] digits) throws IOException {
+        int position = digits.length;
+        long rest = value < 0 ? value : -value;
+        do {
+            digits[--position] = (byte) ('0' - rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            digits[--position] = '-';
+        }
+        out.write(digits, position, digits.length - position);
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part, int from) {
+        for (int i = from; i <= bytes.length - part.length; i++) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates the usual request of the template for the given fixed addresses.
+     *
+     * @author artrayme
+     * @since 0.4.0
+     */
+    @FunctionalInterface
+    interface Shape {
+        AbstractScRequest newRequest(long[] addresses);
+    }
+
+    /**
+     * Search request of the prepared template.
+     *
+     * @author artrayme
+     * @since 0.4.0
+     */
+    static final class Request extends AbstractScRequest implements SearchByTemplateRequest {
+        private final PreparedTemplate template;
+        private final long[] addresses;
+
+        private Request(PreparedTemplate template, long[] addresses) {
+            super(RequestType.SEARCH_TEMPLATE);
+            this.template = template;
+            this.addresses = addresses;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        /**
+         * Writes the whole request from the segments of the template.
+         */
+        void writeTo(OutputStream out) throws IOException {
+            template.writeTo(out, getRequestId(), addresses);
+        }
+
+        /**
+         * Writes the payload by the usual request of the template,
+         * it is used only when the request is encoded into a string.
+         */
+        @Override
+        void writePayload(JsonGenerator generator) throws IOException {
+            template.shape.newRequest(addresses).writePayload(generator);
+        }
+
+        @Override
+        public String toString() {
+            return "PreparedTemplate.Request{" +
+                    "id=" + getRequestId() +
+                    ", addresses=" + Arrays.toString(addresses) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.BackpressurePolicy;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Window of requests in flight of one connection.
+ * A credit is acquired before a request is written to the socket
+ * and released when the request is completed.
+ * Only the caller that waits for the response itself can wait for a credit,
+ * asynchronous requests always fail fast.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class RequestCredits {
+    private final int maxCredits;
+    private final BackpressurePolicy policy;
+    private final Semaphore credits;
+
+    public RequestCredits(int maxCredits, BackpressurePolicy policy) {
+        this.maxCredits = maxCredits;
+        this.policy = policy;
+        credits = maxCredits == OstisClientConfiguration.UNLIMITED_IN_FLIGHT_REQUESTS ? null : new Semaphore(maxCredits);
+    }
+
+    /**
+     * Takes a credit as the policy says.
+     */
+    public void acquire() throws OstisConnectionException {
+        if (credits == null) {
+            return;
+        }
+        switch (policy) {
+            case FAIL_FAST -> tryAcquire();
+            case BLOCK -> {
+                try {
+                    credits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new OstisConnectionException("interrupted while waiting for a free place in the window of requests in flight", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a credit without waiting, whatever the policy is.
+     *
+     * @throws OstisBackpressureException if all credits are taken
+     */
+    public void tryAcquire() throws OstisBackpressureException {
+        if (credits != null && !credits.tryAcquire()) {
+            throw new OstisBackpressureException("all " + maxCredits + " requests in flight are busy");
+        }
+    }
+
+    public void release() {
+        if (credits != null) {
+            credits.release();
+        }
+    }
+
+    /**
+     * @return number of requests that can be sent without waiting, or {@link Integer#MAX_VALUE} if the window is unlimited
+     */
+    public int getAvailableCredits() {
+        return credits == null ? Integer.MAX_VALUE : credits.availablePermits();
+    }
+}
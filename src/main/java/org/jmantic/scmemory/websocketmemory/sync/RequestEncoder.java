@@ -0,0 +1,51 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+
+/**
+ * Encodes requests with the hand-written writers of the requests.
+ * <p>
+ * Requests are sent through {@link #writerOf(ScRequest, WireCodec)}, which writes them straight into the buffers of the connection
+ * in the format of the codec.
+ * Json requests of {@link PreparedTemplate} are written from their serialized segments without the generator.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class RequestEncoder {
+    private RequestEncoder() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request is not created by this implementation
+     */
+    static RequestWriter writerOf(ScRequest request) {
+        return writerOf(request, JacksonWireCodec.JSON);
+    }
+
+    /**
+     * @return writer of the request in the format of the codec
+     * @throws IllegalArgumentException if the request is not created by this implementation
+     */
+    static RequestWriter writerOf(ScRequest request, WireCodec codec) {
+        AbstractScRequest scRequest = checkImplementation(request);
+        if (scRequest instanceof PreparedTemplate.Request prepared && codec.getFormat() == WireFormat.JSON) {
+            return prepared::writeTo;
+        }
+        return out -> {
+            try (JsonGenerator generator = codec.createGenerator(out)) {
+                scRequest.writeTo(generator);
+            }
+        };
+    }
+
+    private static AbstractScRequest checkImplementation(ScRequest request) {
+        if (!(request instanceof AbstractScRequest scRequest)) {
+            throw new IllegalArgumentException("cannot encode request of unknown implementation " + request);
+        }
+        return scRequest;
+    }
+}
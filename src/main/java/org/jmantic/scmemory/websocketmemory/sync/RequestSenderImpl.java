@@ -1,37 +1,89 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.model.exception.ScMemoryRetryableException;
+import org.jmantic.scmemory.model.exception.ScMemoryTimeoutException;
 import org.jmantic.scmemory.websocketmemory.core.OstisClient;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
 import org.jmantic.scmemory.websocketmemory.message.request.*;
 import org.jmantic.scmemory.websocketmemory.message.response.CreateScElResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.DeleteScElResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.GetLinkContentResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.SetLinkContentResponse;
+import org.jmantic.scmemory.websocketmemory.sender.AsyncRequestSender;
 import org.jmantic.scmemory.websocketmemory.sender.RequestSender;
 import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionLostException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * @author Michael
  * @since 0.0.1
  */
-class RequestSenderImpl implements RequestSender {
+class RequestSenderImpl implements RequestSender, AsyncRequestSender {
     private final static Logger logger = LoggerFactory.getLogger(RequestSenderImpl.class);
     private final OstisClient client;
-    private final ObjectMapper mapper;
-    private final ObjectWriter writer;
+    private final WireCodec codec;
+    private final Duration requestTimeout;
+    private final WireTap wireTap;
+
+    /**
+     * @param requestTimeout - deadline of each request, or zero duration to wait without deadline
+     */
+    public RequestSenderImpl(OstisClient client, Duration requestTimeout) {
+        this(client, JacksonWireCodec.JSON, requestTimeout);
+    }
 
-    public RequestSenderImpl(OstisClient client) {
+    /**
+     * @param codec - codec of the wire format that the client is configured with
+     * @since 0.4.0
+     */
+    public RequestSenderImpl(OstisClient client, WireCodec codec, Duration requestTimeout) {
+        this(client, codec, requestTimeout, WireTap.DISABLED);
+    }
+
+    /**
+     * @param wireTap - wire tap that requests and their responses are recorded to
+     * @since 0.4.0
+     */
+    RequestSenderImpl(OstisClient client, WireCodec codec, Duration requestTimeout, WireTap wireTap) {
         this.client = client;
-        mapper = new ObjectMapper();
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        writer = mapper.writer();
+        this.codec = codec;
+        this.requestTimeout = requestTimeout;
+        this.wireTap = wireTap;
+    }
+
+    /**
+     * @return sender that uses the same client with another deadline of each request
+     * @since 0.4.0
+     */
+    public RequestSenderImpl withTimeout(Duration requestTimeout) {
+        return new RequestSenderImpl(client, codec, requestTimeout, wireTap);
+    }
+
+    /**
+     * @return sender that sends the requests through another client with the same settings
+     * @since 0.4.0
+     */
+    RequestSenderImpl withClient(OstisClient client) {
+        return new RequestSenderImpl(client, codec, requestTimeout, wireTap);
+    }
+
+    /**
+     * @return wire tap that requests and their responses are recorded to
+     * @since 0.4.0
+     */
+    WireTap getWireTap() {
+        return wireTap;
     }
 
     @Override
@@ -59,17 +111,131 @@ class RequestSenderImpl implements RequestSender {
         return send(request, GetLinkContentResponseImpl.class);
     }
 
-    private <T1, T2> T2 send(T1 request, Class<T2> responseClassType) throws ScMemoryException {
+    @Override
+    public CompletableFuture<CreateScElResponse> sendCreateElRequestAsync(CreateScElRequest request) {
+        return sendAsync(request, CreateScElResponseImpl.class);
+    }
+
+    @Override
+    public CompletableFuture<DeleteScElResponse> sendDeleteElRequestAsync(DeleteScElRequest request) {
+        return sendAsync(request, DeleteScElResponseImpl.class);
+    }
+
+    @Override
+    public CompletableFuture<SearchByTemplateResponse> sendSearchByTemplateRequestAsync(SearchByTemplateRequest request) {
+        return sendAsync(request, SearchByTemplateResponseImpl.class);
+    }
+
+    @Override
+    public CompletableFuture<SetLinkContentResponse> sendSetLinkContentRequestAsync(SetLinkContentRequest request) {
+        return sendAsync(request, SetLinkContentResponseImpl.class);
+    }
+
+    @Override
+    public CompletableFuture<GetLinkContentResponse> sendGetLinkContentRequestAsync(GetLinkContentRequest request) {
+        return sendAsync(request, GetLinkContentResponseImpl.class);
+    }
+
+    /**
+     * Sends a request that has no method in {@link RequestSender},
+     * such as requests built from arrays.
+     *
+     * @since 0.4.0
+     */
+    <T1 extends ScRequest, T2> T2 send(T1 request, Class<T2> responseClassType) throws ScMemoryException {
+        return exchange(request, msg -> codec.read(msg, responseClassType));
+    }
+
+    /**
+     * Passes the payload of the response to the visitor while the response is read,
+     * exceptions of the visitor are thrown as they are.
+     *
+     * @since 0.4.0
+     */
+    VisitedResponse send(ScRequest request, PayloadVisitor visitor) throws ScMemoryException {
+        return exchange(request, msg -> VisitedResponse.read(codec, msg, visitor));
+    }
+
+    private <T> T exchange(ScRequest request, ResponseReader<T> reader) throws ScMemoryException {
+        RequestWriter writer = writerOf(request);
+        boolean tapped = wireTap.isTapped(request);
+        if (tapped) {
+            wireTap.recordSent(request, writer, codec.isBinary());
+        }
         try {
-            String jsonRequest = writer.writeValueAsString(request);
-            String msg = client.sendToOstis(jsonRequest);
-            return mapper.readValue(msg, responseClassType);
-        } catch (JsonProcessingException e) {
-            String msg = "cant parse request/response - " + request;
+            OstisMessage msg = client.sendToOstis(request.getRequestId(), writer, request.isIdempotent(), requestTimeout);
+            if (tapped) {
+                wireTap.recordReceived(request, msg);
+            }
+            return reader.read(msg);
+        } catch (IOException e) {
+            String msg = "cant parse response - " + request;
             logger.error(msg, e);
             throw new ScMemoryException(msg, e);
         } catch (OstisConnectionException e) {
-            throw new ScMemoryException(e);
+            throw toScMemoryException(e);
         }
     }
+
+    /**
+     * The response is deserialized by the thread that completes the future of the client,
+     * so no thread is blocked while the request is in flight.
+     */
+    private <T> CompletableFuture<T> sendAsync(ScRequest request, Class<? extends T> responseClassType) {
+        RequestWriter writer;
+        try {
+            writer = writerOf(request);
+        } catch (ScMemoryException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        boolean tapped = wireTap.isTapped(request);
+        if (tapped) {
+            wireTap.recordSent(request, writer, codec.isBinary());
+        }
+        return client.sendToOstisAsync(request.getRequestId(), writer, request.isIdempotent(), requestTimeout)
+                .handle((msg, cause) -> {
+                    if (cause != null) {
+                        throw new CompletionException(toScMemoryException(unwrap(cause)));
+                    }
+                    if (tapped) {
+                        wireTap.recordReceived(request, msg);
+                    }
+                    try {
+                        return codec.read(msg, responseClassType);
+                    } catch (IOException e) {
+                        String errorMsg = "cant parse response - " + request;
+                        logger.error(errorMsg, e);
+                        throw new CompletionException(new ScMemoryException(errorMsg, e));
+                    }
+                });
+    }
+
+    private RequestWriter writerOf(ScRequest request) throws ScMemoryException {
+        try {
+            return RequestEncoder.writerOf(request, codec);
+        } catch (IllegalArgumentException e) {
+            String msg = "cant parse request - " + request;
+            logger.error(msg, e);
+            throw new ScMemoryException(msg, e);
+        }
+    }
+
+    private static ScMemoryException toScMemoryException(Throwable cause) {
+        if (cause instanceof OstisTimeoutException) {
+            return new ScMemoryTimeoutException(cause.getMessage(), cause);
+        }
+        if (cause instanceof OstisConnectionLostException) {
+            return new ScMemoryRetryableException(cause.getMessage(), cause);
+        }
+        return new ScMemoryException(cause);
+    }
+
+    private static Throwable unwrap(Throwable cause) {
+        return cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(OstisMessage message) throws IOException;
+    }
 }
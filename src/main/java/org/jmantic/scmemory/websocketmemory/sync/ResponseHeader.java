@@ -0,0 +1,68 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+
+import java.io.IOException;
+
+/**
+ * Id and event flag of a message received from the sc-machine.
+ * <p>
+ * Only top-level fields are read, and reading stops as soon as both fields are known,
+ * so the payload of a response is not deserialized here.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class ResponseHeader {
+    private final long id;
+    private final boolean event;
+
+    private ResponseHeader(long id, boolean event) {
+        this.id = id;
+        this.event = event;
+    }
+
+    public static ResponseHeader read(WireCodec codec, OstisMessage message) throws IOException {
+        try (JsonParser parser = codec.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("message is not an object");
+            }
+            Long id = null;
+            Boolean event = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getLongValue();
+                    case "event" -> event = value == JsonToken.VALUE_TRUE;
+                    default -> parser.skipChildren();
+                }
+                if (id != null && event != null) {
+                    break;
+                }
+            }
+            if (id == null) {
+                throw new IOException("message has no id");
+            }
+            return new ResponseHeader(id, event != null && event);
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isEvent() {
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseHeader{" +
+                "id=" + id +
+                ", event=" + event +
+                '}';
+    }
+}
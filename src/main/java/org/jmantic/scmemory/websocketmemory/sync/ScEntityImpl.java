@@ -1,9 +1,6 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jmantic.scmemory.model.element.ScElement;
 import org.jmantic.scmemory.model.element.edge.EdgeType;
 import org.jmantic.scmemory.model.element.edge.ScEdge;
@@ -14,18 +11,16 @@ import org.jmantic.scmemory.model.element.link.ScLinkString;
 import org.jmantic.scmemory.model.element.node.NodeType;
 import org.jmantic.scmemory.model.element.node.ScNode;
 
+import java.io.IOException;
 import java.util.Objects;
 
 /**
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 abstract class ScEntity implements ScElement{
-    @JsonProperty("el")
     private final String element;
 
-    @JsonIgnore
     private long address;
 
     public ScEntity(String element){
@@ -37,30 +32,32 @@ abstract class ScEntity implements ScElement{
         this.address = address;
     }
 
-    @JsonIgnore
     public String getElement() {
         return element;
     }
 
-    @JsonIgnore
     public void setAddress(long address) {
         this.address = address;
     }
 
-    @JsonIgnore
     @Override
     public Long getAddress() {
         return address;
     }
+
+    /**
+     * Writes the element as it is described in the create_elements request.
+     *
+     * @since 0.4.0
+     */
+    abstract void writeTo(JsonGenerator generator) throws IOException;
 }
 
 /**
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class ScNodeImpl extends ScEntity implements ScNode {
-    @JsonProperty("type")
     private final NodeType nodeType;
 
     public ScNodeImpl(NodeType nodeType) {
@@ -68,18 +65,33 @@ class ScNodeImpl extends ScEntity implements ScNode {
         this.nodeType = nodeType;
     }
 
-    public ScNodeImpl(NodeType nodeType, Long address) {
+    public ScNodeImpl(NodeType nodeType, long address) {
         super("node", address);
         this.nodeType = nodeType;
     }
 
-    @JsonIgnore
     @Override
     public NodeType getType() {
         return nodeType;
     }
 
-    @JsonIgnore
+    @Override
+    void writeTo(JsonGenerator generator) throws IOException {
+        write(generator, nodeType);
+    }
+
+    /**
+     * Writes the node without creating it, for requests built from arrays of types.
+     *
+     * @since 0.4.0
+     */
+    static void write(JsonGenerator generator, NodeType nodeType) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("el", "node");
+        generator.writeNumberField("type", WireCodes.of(nodeType));
+        generator.writeEndObject();
+    }
+
     @Override
     public String toString() {
         return "ScNodeImpl{" +
@@ -89,7 +101,6 @@ class ScNodeImpl extends ScEntity implements ScNode {
                 '}';
     }
 
-    @JsonIgnore
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -100,7 +111,6 @@ class ScNodeImpl extends ScEntity implements ScNode {
         return Objects.equals(getAddress(), scNode.getAddress());
     }
 
-    @JsonIgnore
     @Override
     public int hashCode() {
         return Objects.hash(getAddress());
@@ -111,15 +121,11 @@ class ScNodeImpl extends ScEntity implements ScNode {
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class ScLinkFloatImpl extends ScEntity implements ScLinkFloat {
-    @JsonProperty("type")
     private final LinkType linkType;
 
-    @JsonProperty("content")
     private float content;
 
-    @JsonProperty("content_type")
     private final String contentType = "float";
 
     public ScLinkFloatImpl(LinkType linkType) {
@@ -127,29 +133,45 @@ class ScLinkFloatImpl extends ScEntity implements ScLinkFloat {
         this.linkType = linkType;
     }
 
-    public ScLinkFloatImpl(LinkType linkType, Long address) {
+    public ScLinkFloatImpl(LinkType linkType, long address) {
         super("link", address);
         this.linkType = linkType;
     }
 
-    @JsonIgnore
     public void setContent(float content) {
         this.content = content;
     }
 
-    @JsonIgnore
     @Override
     public LinkType getType() {
         return linkType;
     }
 
-    @JsonIgnore
+    @Override
+    void writeTo(JsonGenerator generator) throws IOException {
+        write(generator, linkType, content);
+    }
+
+    /**
+     * Writes the link without creating it, for requests built from arrays of types and contents.
+     *
+     * @since 0.4.0
+     */
+    static void write(JsonGenerator generator, LinkType linkType, float content) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("el", "link");
+        generator.writeNumberField("type", WireCodes.of(linkType));
+        generator.writeFieldName("content");
+        generator.writeNumber(content);
+        generator.writeStringField("content_type", "float");
+        generator.writeEndObject();
+    }
+
     @Override
     public float getContent() {
         return content;
     }
 
-    @JsonIgnore
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -160,13 +182,11 @@ class ScLinkFloatImpl extends ScEntity implements ScLinkFloat {
         return Objects.equals(getAddress(), that.getAddress());
     }
 
-    @JsonIgnore
     @Override
     public int hashCode() {
         return Objects.hash(getAddress());
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "ScLinkFloatImpl{" +
@@ -184,15 +204,11 @@ class ScLinkFloatImpl extends ScEntity implements ScLinkFloat {
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class ScLinkIntegerImpl extends ScEntity implements ScLinkInteger {
-    @JsonProperty("type")
     private final LinkType linkType;
 
-    @JsonProperty("content")
     private int content;
 
-    @JsonProperty("content_type")
     private final String contentType = "int";
 
     public ScLinkIntegerImpl(LinkType linkType) {
@@ -200,29 +216,45 @@ class ScLinkIntegerImpl extends ScEntity implements ScLinkInteger {
         this.linkType = linkType;
     }
 
-    public ScLinkIntegerImpl(LinkType linkType, Long address) {
+    public ScLinkIntegerImpl(LinkType linkType, long address) {
         super("link", address);
         this.linkType = linkType;
     }
 
-    @JsonIgnore
     public void setContent(int content) {
         this.content = content;
     }
 
-    @JsonIgnore
     @Override
     public LinkType getType() {
         return linkType;
     }
 
-    @JsonIgnore
+    @Override
+    void writeTo(JsonGenerator generator) throws IOException {
+        write(generator, linkType, content);
+    }
+
+    /**
+     * Writes the link without creating it, for requests built from arrays of types and contents.
+     *
+     * @since 0.4.0
+     */
+    static void write(JsonGenerator generator, LinkType linkType, int content) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("el", "link");
+        generator.writeNumberField("type", WireCodes.of(linkType));
+        generator.writeFieldName("content");
+        generator.writeNumber(content);
+        generator.writeStringField("content_type", "int");
+        generator.writeEndObject();
+    }
+
     @Override
     public int getContent() {
         return content;
     }
 
-    @JsonIgnore
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -233,13 +265,11 @@ class ScLinkIntegerImpl extends ScEntity implements ScLinkInteger {
         return Objects.equals(getAddress(), that.getAddress());
     }
 
-    @JsonIgnore
     @Override
     public int hashCode() {
         return Objects.hash(getAddress());
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "ScLinkIntegerImpl{" +
@@ -256,15 +286,11 @@ class ScLinkIntegerImpl extends ScEntity implements ScLinkInteger {
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class ScLinkStringImpl extends ScEntity implements ScLinkString {
-    @JsonProperty("type")
     private final LinkType linkType;
 
-    @JsonProperty("content")
     private String content;
 
-    @JsonProperty("content_type")
     private final String contentType = "string";
 
     public ScLinkStringImpl(LinkType linkType) {
@@ -272,29 +298,36 @@ class ScLinkStringImpl extends ScEntity implements ScLinkString {
         this.linkType = linkType;
     }
 
-    public ScLinkStringImpl(LinkType linkType, Long address) {
+    public ScLinkStringImpl(LinkType linkType, long address) {
         super("link", address);
         this.linkType = linkType;
     }
 
-    @JsonIgnore
     public void setContent(String content) {
         this.content = content;
     }
 
-    @JsonIgnore
     @Override
     public LinkType getType() {
         return linkType;
     }
 
-    @JsonIgnore
+    @Override
+    void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("el", getElement());
+        generator.writeNumberField("type", WireCodes.of(linkType));
+        generator.writeFieldName("content");
+        generator.writeString(content);
+        generator.writeStringField("content_type", contentType);
+        generator.writeEndObject();
+    }
+
     @Override
     public String getContent() {
         return content;
     }
 
-    @JsonIgnore
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -305,13 +338,11 @@ class ScLinkStringImpl extends ScEntity implements ScLinkString {
         return Objects.equals(getAddress(), that.getAddress());
     }
 
-    @JsonIgnore
     @Override
     public int hashCode() {
         return Objects.hash(getAddress());
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "ScLinkStringImpl{" +
@@ -328,17 +359,13 @@ class ScLinkStringImpl extends ScEntity implements ScLinkString {
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class ScEdgeImpl extends ScEntity implements ScEdge {
-    @JsonProperty("src")
-    private final EdgeSourceStruct source;
-    @JsonIgnore
+    private final EdgeEndpointType sourceType;
+    private final long source;
     private final ScElement sourceElement;
-    @JsonProperty("trg")
-    private final EdgeSourceStruct target;
-    @JsonIgnore
+    private final EdgeEndpointType targetType;
+    private final long target;
     private final ScElement targetElement;
-    @JsonProperty("type")
     private final EdgeType edgeType;
 
     public ScEdgeImpl(EdgeType edgeType, ScElement sourceElement, ScElement targetElement) {
@@ -346,11 +373,13 @@ class ScEdgeImpl extends ScEntity implements ScEdge {
         this.edgeType = edgeType;
         this.sourceElement = sourceElement;
         this.targetElement = targetElement;
-        source = new EdgeSourceStruct(EdgeEndpointType.ADDR, sourceElement.getAddress());
-        target = new EdgeSourceStruct(EdgeEndpointType.ADDR, targetElement.getAddress());
+        sourceType = EdgeEndpointType.ADDR;
+        source = sourceElement.getAddress();
+        targetType = EdgeEndpointType.ADDR;
+        target = targetElement.getAddress();
     }
 
-    public ScEdgeImpl(EdgeType edgeType, ScElement sourceElement, ScElement targetElement, Long address) {
+    public ScEdgeImpl(EdgeType edgeType, ScElement sourceElement, ScElement targetElement, long address) {
         this(edgeType, sourceElement, targetElement);
         setAddress(address);
     }
@@ -360,8 +389,10 @@ class ScEdgeImpl extends ScEntity implements ScEdge {
         this.edgeType = edgeType;
         this.sourceElement = null;
         this.targetElement = targetElement;
-        source = new EdgeSourceStruct(EdgeEndpointType.REF, sourceRef);
-        target = new EdgeSourceStruct(EdgeEndpointType.ADDR, targetElement.getAddress());
+        sourceType = EdgeEndpointType.REF;
+        source = sourceRef;
+        targetType = EdgeEndpointType.ADDR;
+        target = targetElement.getAddress();
     }
 
     public ScEdgeImpl(EdgeType edgeType, ScElement sourceElement, long targetRef) {
@@ -369,35 +400,66 @@ class ScEdgeImpl extends ScEntity implements ScEdge {
         this.edgeType = edgeType;
         this.sourceElement = sourceElement;
         this.targetElement = null;
-        source = new EdgeSourceStruct(EdgeEndpointType.ADDR, sourceElement.getAddress());
-        target = new EdgeSourceStruct(EdgeEndpointType.REF, targetRef);
+        sourceType = EdgeEndpointType.ADDR;
+        source = sourceElement.getAddress();
+        targetType = EdgeEndpointType.REF;
+        target = targetRef;
     }
 
-    @JsonIgnore
     @Override
     public EdgeType getType() {
         return edgeType;
     }
 
-    @JsonIgnore
     @Override
     public ScElement getSource() {
         return sourceElement;
     }
 
-    @JsonIgnore
     @Override
     public ScElement getTarget() {
         return targetElement;
     }
 
-    @JsonIgnore
+    @Override
+    void writeTo(JsonGenerator generator) throws IOException {
+        write(generator, edgeType, sourceType, source, targetType, target);
+    }
+
+    /**
+     * Writes the edge without creating it, for requests built from arrays of types and addresses.
+     *
+     * @since 0.4.0
+     */
+    static void write(JsonGenerator generator,
+                      EdgeType edgeType,
+                      EdgeEndpointType sourceType,
+                      long source,
+                      EdgeEndpointType targetType,
+                      long target) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("el", "edge");
+        writeEndpoint(generator, "src", sourceType, source);
+        writeEndpoint(generator, "trg", targetType, target);
+        generator.writeNumberField("type", WireCodes.of(edgeType));
+        generator.writeEndObject();
+    }
+
+    private static void writeEndpoint(JsonGenerator generator,
+                                      String name,
+                                      EdgeEndpointType type,
+                                      long value) throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeStringField("type", type.getType());
+        generator.writeNumberField("value", value);
+        generator.writeEndObject();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(getAddress());
     }
 
-    @JsonIgnore
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -408,7 +470,6 @@ class ScEdgeImpl extends ScEntity implements ScEdge {
         return Objects.equals(getAddress(), scEdge.getAddress());
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "ScEdgeImpl{" +
@@ -425,56 +486,17 @@ class ScEdgeImpl extends ScEntity implements ScEdge {
  * @author artrayme
  * @since 0.2.0
  */
-
 enum EdgeEndpointType {
     ADDR("addr"),
     REF("ref");
 
-    @JsonValue
     private final String type;
 
     EdgeEndpointType(String type) {
         this.type = type;
     }
-}
-
-/**
- * @author artrayme
- * @since 0.2.0
- */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-class EdgeSourceStruct {
-    @JsonProperty("type")
-    private final EdgeEndpointType type;
-    @JsonProperty("value")
-    private final Long value;
-
-    public EdgeSourceStruct(EdgeEndpointType type, Long value) {
-        this.type = type;
-        this.value = value;
-    }
-
-    @Override
-    public int hashCode() {
-        return Objects.hash(type, value);
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o)
-            return true;
-        if (o == null || getClass() != o.getClass())
-            return false;
-        EdgeSourceStruct that = (EdgeSourceStruct) o;
-        return type == that.type && Objects.equals(value, that.value);
-    }
 
-    @Override
-    public String toString() {
-        return "EdgeSourceStruct{" +
-                "type=" + type +
-                ", value=" + value +
-                '}';
+    public String getType() {
+        return type;
     }
-
-}
\ No newline at end of file
+}
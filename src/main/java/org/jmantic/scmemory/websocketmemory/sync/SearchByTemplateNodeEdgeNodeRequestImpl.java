@@ -1,127 +1,58 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jmantic.scmemory.model.element.ScElement;
 import org.jmantic.scmemory.model.element.edge.EdgeType;
 import org.jmantic.scmemory.model.element.node.NodeType;
 import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
 import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.io.IOException;
 
 /**
  * @author artrayme
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class SearchByTemplateNodeEdgeNodeRequestImpl extends AbstractScRequest implements SearchByTemplateRequest {
-    @JsonProperty("payload")
-    private List<NodeEdgeNodeStruct> struct = new ArrayList<>();
+    private final long fixedAddress;
+    private final EdgeType edgeType;
+    private final NodeType nodeType;
 
     public SearchByTemplateNodeEdgeNodeRequestImpl(ScElement fixed, EdgeType edgeType, NodeType nodeType) {
-        super(1, RequestType.SEARCH_TEMPLATE);
-        struct.add(new NodeEdgeNodeStruct(fixed, edgeType, nodeType));
+        this(fixed.getAddress(), edgeType, nodeType);
+    }
+
+    SearchByTemplateNodeEdgeNodeRequestImpl(long fixedAddress, EdgeType edgeType, NodeType nodeType) {
+        super(RequestType.SEARCH_TEMPLATE);
+        this.fixedAddress = fixedAddress;
+        this.edgeType = edgeType;
+        this.nodeType = nodeType;
     }
 
-    @JsonIgnore
     @Override
     public boolean isEmpty() {
         return false;
     }
 
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        generator.writeStartArray();
+        TemplateComponents.writeAddress(generator, fixedAddress);
+        TemplateComponents.writeType(generator, WireCodes.of(edgeType));
+        TemplateComponents.writeType(generator, WireCodes.of(nodeType));
+        generator.writeEndArray();
+        generator.writeEndArray();
+    }
+
     @Override
     public String toString() {
         return "SearchByTemplateNodeEdgeNodeRequestImpl{" +
                 "id=" + getRequestId() +
                 ", searchTemplate=" + getRequestType() +
-                ", struct=" + struct +
+                ", fixedAddress=" + fixedAddress +
+                ", edgeType=" + edgeType +
+                ", nodeType=" + nodeType +
                 '}';
     }
-
-    /**
-     * @author artrayme
-     * @since 0.0.1
-     */
-    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
-    static
-    class NodeEdgeNodeStruct {
-
-        @JsonValue
-        private final Object[] components = new Object[3];
-
-        public NodeEdgeNodeStruct(ScElement fixedNode, EdgeType edgeType, NodeType nodeType) {
-            components[0] = new FixedComponent(fixedNode.getAddress());
-            components[1] = new EdgeComponent(edgeType);
-            components[2] = new NodeComponent(nodeType);
-        }
-
-        private static class FixedComponent {
-            @JsonProperty("type")
-            private final String type = "addr";
-            @JsonProperty("value")
-            private final Long fixedNode;
-
-            private FixedComponent(Long fixedNode) {
-                this.fixedNode = fixedNode;
-            }
-
-            @Override
-            public String toString() {
-                return "FixedComponent{" +
-                        "type='" + type + '\'' +
-                        ", fixedNode=" + fixedNode +
-                        '}';
-            }
-        }
-
-        private static class EdgeComponent {
-            @JsonProperty("type")
-            private final String type = "type";
-            @JsonProperty("value")
-            private final EdgeType edgeType;
-
-            private EdgeComponent(EdgeType edgeType) {
-                this.edgeType = edgeType;
-            }
-
-            @Override
-            public String toString() {
-                return "EdgeComponent{" +
-                        "type='" + type + '\'' +
-                        ", edgeType=" + edgeType +
-                        '}';
-            }
-        }
-
-        private static class NodeComponent {
-            @JsonProperty("type")
-            private final String type = "type";
-            @JsonProperty("value")
-            private final NodeType nodeType;
-
-            private NodeComponent(NodeType nodeType) {
-                this.nodeType = nodeType;
-            }
-
-            @Override
-            public String toString() {
-                return "NodeComponent{" +
-                        "type='" + type + '\'' +
-                        ", nodeType=" + nodeType +
-                        '}';
-            }
-        }
-
-        @Override
-        public String toString() {
-            return "NodeEdgeNodeStruct{" +
-                    "components=" + Arrays.toString(components) +
-                    '}';
-        }
-    }
 }
@@ -2,9 +2,11 @@ package org.jmantic.scmemory.websocketmemory.sync;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
 
-import java.util.Collection;
+import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -14,11 +16,34 @@ import java.util.stream.Stream;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class SearchByTemplateResponseImpl extends AbstractScResponse implements SearchByTemplateResponse {
     @JsonProperty("payload")
-    private PayloadFoundByTemplateStruct payloadFoundByTemplateStruct;
+    @JsonDeserialize(using = FoundAddresses.Deserializer.class)
+    private FoundAddresses foundAddresses = FoundAddresses.EMPTY;
 
     @Override
     public Stream<Stream<Long>> getFoundAddresses() {
-        return payloadFoundByTemplateStruct.getFoundAddresses().stream().map(Collection::stream);
+        return IntStream.range(0, foundAddresses.getConstructionsCount())
+                .mapToObj(construction -> IntStream.range(0, foundAddresses.getConstructionSize())
+                        .mapToObj(position -> foundAddresses.getAddress(construction, position)));
+    }
+
+    @Override
+    public int getFoundConstructionsCount() {
+        return foundAddresses.getConstructionsCount();
+    }
+
+    @Override
+    public int getFoundConstructionSize() {
+        return foundAddresses.getConstructionSize();
+    }
+
+    @Override
+    public long getFoundAddress(int construction, int position) {
+        return foundAddresses.getAddress(construction, position);
+    }
+
+    @Override
+    public Map<String, Integer> getAliases() {
+        return foundAddresses.getAliases();
     }
 
     @Override
@@ -27,7 +52,7 @@ class SearchByTemplateResponseImpl extends AbstractScResponse implements SearchB
                 "responseId=" + getResponseId() +
                 ", event=" + getEvent() +
                 ", status=" + getResponseStatus() +
-                ", payloadFoundByTemplateStruct=" + payloadFoundByTemplateStruct +
+                ", foundAddresses=" + foundAddresses +
                 '}';
     }
 }
@@ -1,13 +1,12 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.jmantic.scmemory.model.element.link.LinkContentType;
 import org.jmantic.scmemory.model.element.link.ScLink;
 import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
 import org.jmantic.scmemory.websocketmemory.message.request.SetLinkContentRequest;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,70 +14,102 @@ import java.util.List;
  * @author Michael
  * @since 0.0.1
  */
-@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class SetLinkContentRequestImpl extends AbstractScRequest implements SetLinkContentRequest {
-    @JsonProperty("payload")
-    private List<SetContentStruct> contentStructs;
-
-    private static class SetContentStruct {
-        @JsonProperty("command")
-        String command = "set";
-        @JsonProperty("type")
-        LinkContentType contentType;
-        @JsonProperty("data")
-        Object content;
-        @JsonProperty("addr")
-        long address;
-
-        public SetContentStruct(LinkContentType contentType, Object content, long address) {
-            this.contentType = contentType;
-            this.content = content;
-            this.address = address;
-        }
-
-        @JsonIgnore
-        @Override
-        public String toString() {
-            return "SetContentStruct{" +
-                    "command='" + command + '\'' +
-                    ", contentType=" + contentType +
-                    ", content=" + content +
-                    ", address=" + address +
-                    '}';
-        }
-    }
+    private final List<ScLink> links;
+    private final List<Object> contents;
 
     public SetLinkContentRequestImpl() {
-        super(1, RequestType.CONTENT);
-        contentStructs = new ArrayList<>();
+        super(RequestType.CONTENT);
+        links = new ArrayList<>();
+        contents = new ArrayList<>();
     }
 
-    @JsonIgnore
     @Override
     public boolean isEmpty() {
-        return contentStructs.isEmpty();
+        return links.isEmpty();
     }
 
-    @JsonIgnore
     @Override
     public void addToRequest(ScLink link, Object data) {
-        SetContentStruct struct = new SetContentStruct(link.getContentType(), data, link.getAddress());
-        contentStructs.add(struct);
+        links.add(link);
+        contents.add(data);
     }
 
-    @JsonIgnore
     @Override
     public void resetRequest() {
-        contentStructs.clear();
+        links.clear();
+        contents.clear();
+    }
+
+    @Override
+    void writePayload(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < links.size(); i++) {
+            ScLink link = links.get(i);
+            writeCommandStart(generator, link.getContentType());
+            writeContent(generator, contents.get(i));
+            writeCommandEnd(generator, link.getAddress());
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes the set command for an integer content without boxing it.
+     *
+     * @since 0.4.0
+     */
+    static void writeCommand(JsonGenerator generator, long address, int content) throws IOException {
+        writeCommandStart(generator, LinkContentType.INTEGER);
+        generator.writeNumber(content);
+        writeCommandEnd(generator, address);
+    }
+
+    /**
+     * Writes the set command for a float content without boxing it.
+     *
+     * @since 0.4.0
+     */
+    static void writeCommand(JsonGenerator generator, long address, float content) throws IOException {
+        writeCommandStart(generator, LinkContentType.FLOAT);
+        generator.writeNumber(content);
+        writeCommandEnd(generator, address);
+    }
+
+    private static void writeCommandStart(JsonGenerator generator, LinkContentType contentType) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("command", "set");
+        generator.writeStringField("type", WireCodes.of(contentType));
+        generator.writeFieldName("data");
+    }
+
+    private static void writeCommandEnd(JsonGenerator generator, long address) throws IOException {
+        generator.writeNumberField("addr", address);
+        generator.writeEndObject();
+    }
+
+    private static void writeContent(JsonGenerator generator, Object content) throws IOException {
+        if (content instanceof Integer value) {
+            generator.writeNumber(value);
+        } else if (content instanceof Float value) {
+            generator.writeNumber(value);
+        } else if (content instanceof String value) {
+            generator.writeString(value);
+        } else if (content instanceof Long value) {
+            generator.writeNumber(value);
+        } else if (content instanceof Double value) {
+            generator.writeNumber(value);
+        } else {
+            throw new IllegalArgumentException("unsupported link content " + content);
+        }
     }
 
-    @JsonIgnore
     @Override
     public String toString() {
         return "SetLinkContentRequestImpl{" +
                 "requestId=" + getRequestId() +
                 ", requestType=" + getRequestType() +
-                ", contentStructs=" + contentStructs +
+                ", links=" + links +
+                ", contents=" + contents +
                 '}';
     }
 }
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jmantic.scmemory.websocketmemory.message.response.SetLinkContentResponse;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -14,10 +16,22 @@ import java.util.List;
 @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
 class SetLinkContentResponseImpl extends AbstractScResponse implements SetLinkContentResponse {
     @JsonProperty("payload")
-    private List<Boolean> statusOfOperations;
+    private boolean[] statusOfOperations = new boolean[0];
 
     @Override
     public List<Boolean> getOperationStatus() {
+        List<Boolean> result = new ArrayList<>(statusOfOperations.length);
+        for (boolean status : statusOfOperations) {
+            result.add(status);
+        }
+        return result;
+    }
+
+    /**
+     * @return status of each set command in the order of the request, the array is not copied
+     * @since 0.4.0
+     */
+    boolean[] getOperationStatusArray() {
         return statusOfOperations;
     }
 
@@ -28,7 +42,7 @@ class SetLinkContentResponseImpl extends AbstractScResponse implements SetLinkCo
                 "responseId=" + getResponseId() +
                 ", status=" + getResponseStatus() +
                 ", event=" + getEvent() +
-                ", statusOfOperations=" + statusOfOperations +
+                ", statusOfOperations=" + Arrays.toString(statusOfOperations) +
                 '}';
     }
 }
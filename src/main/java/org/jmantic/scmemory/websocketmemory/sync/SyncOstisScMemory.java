@@ -1,6 +1,13 @@
 package org.jmantic.scmemory.websocketmemory.sync;
 
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.FloatContentVisitor;
+import org.jmantic.scmemory.model.IntegerContentVisitor;
+import org.jmantic.scmemory.model.KeynodeResolver;
+import org.jmantic.scmemory.model.PrimitiveScMemory;
 import org.jmantic.scmemory.model.ScMemory;
+import org.jmantic.scmemory.model.TripleBatch;
+import org.jmantic.scmemory.model.TripleVisitor;
 import org.jmantic.scmemory.model.element.ScElement;
 import org.jmantic.scmemory.model.element.edge.EdgeType;
 import org.jmantic.scmemory.model.element.edge.ScEdge;
@@ -13,36 +20,99 @@ import org.jmantic.scmemory.model.element.link.ScLinkString;
 import org.jmantic.scmemory.model.element.node.NodeType;
 import org.jmantic.scmemory.model.element.node.ScNode;
 import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.model.keynode.KeynodeSet;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.jmantic.scmemory.websocketmemory.core.ContentCacheStats;
 import org.jmantic.scmemory.websocketmemory.core.OstisClient;
+import org.jmantic.scmemory.websocketmemory.core.WireFrame;
 import org.jmantic.scmemory.websocketmemory.message.request.CreateScElRequest;
 import org.jmantic.scmemory.websocketmemory.message.request.DeleteScElRequest;
-import org.jmantic.scmemory.websocketmemory.message.request.GetLinkContentRequest;
 import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
 import org.jmantic.scmemory.websocketmemory.message.response.CreateScElResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.DeleteScElResponse;
-import org.jmantic.scmemory.websocketmemory.message.response.GetLinkContentResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
 import org.jmantic.scmemory.websocketmemory.message.response.SetLinkContentResponse;
-import org.jmantic.scmemory.websocketmemory.sender.RequestSender;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ServiceLoader;
 import java.util.stream.Stream;
 
 
 /**
+ * Besides {@link ScMemory}, it implements {@link PrimitiveScMemory},
+ * which sends the same requests built straight from arrays of addresses.
+ *
  * @author Michael
  * @since 0.0.1
  */
-public class SyncOstisScMemory implements ScMemory {
-    private final RequestSender requestSender;
+public class SyncOstisScMemory implements ScMemory, PrimitiveScMemory {
+    private final RequestSenderImpl requestSender;
     private final OstisClient ostisClient;
+    private final LinkContentCache contentCache;
+    private final CacheInvalidator cacheInvalidator;
+    private final KeynodeResolverImpl keynodeResolver;
 
     public SyncOstisScMemory(URI serverURI) {
-        ostisClient = new OstisClientSync(serverURI);
-        requestSender = new RequestSenderImpl(ostisClient);
+        this(serverURI, new OstisClientConfiguration());
+    }
+
+    /**
+     * @param configuration - settings of the websocket connection
+     * @since 0.4.0
+     */
+    public SyncOstisScMemory(URI serverURI, OstisClientConfiguration configuration) {
+        this(AbstractOstisClient.create(serverURI, configuration), configuration);
+    }
+
+    /**
+     * @param configuration - settings that the client is created with
+     */
+    SyncOstisScMemory(OstisClient ostisClient, OstisClientConfiguration configuration) {
+        this(ostisClient, new RequestSenderImpl(ostisClient,
+                WireCodec.of(configuration.getWireFormat()),
+                configuration.getRequestTimeout(),
+                WireTap.of(configuration)),
+                LinkContentCache.of(configuration),
+                configuration.isContentCacheInvalidationEnabled(),
+                KeynodeCacheFile.of(configuration));
+    }
+
+    private SyncOstisScMemory(OstisClient ostisClient,
+                              RequestSenderImpl requestSender,
+                              LinkContentCache contentCache,
+                              boolean invalidated,
+                              KeynodeCacheFile keynodeCacheFile) {
+        this(ostisClient, requestSender, contentCache, invalidated && contentCache.isEnabled()
+                ? CacheInvalidator.forContents(requestSender.withClient(ostisClient.getEventsClient()), contentCache)
+                : CacheInvalidator.DISABLED,
+                new KeynodeResolverImpl(requestSender, keynodeCacheFile));
+        if (cacheInvalidator.isEnabled()) {
+            ostisClient.getEventsClient().setEventListener(cacheInvalidator);
+        }
+    }
+
+    private SyncOstisScMemory(OstisClient ostisClient,
+                              RequestSenderImpl requestSender,
+                              LinkContentCache contentCache,
+                              CacheInvalidator cacheInvalidator,
+                              KeynodeResolverImpl keynodeResolver) {
+        this.ostisClient = ostisClient;
+        this.requestSender = requestSender;
+        this.contentCache = contentCache;
+        this.cacheInvalidator = cacheInvalidator;
+        this.keynodeResolver = keynodeResolver;
+    }
+
+    /**
+     * The returned sc-memory shares the link content cache and the keynodes with this one.
+     */
+    @Override
+    public SyncOstisScMemory withTimeout(Duration timeout) {
+        return new SyncOstisScMemory(ostisClient, requestSender.withTimeout(timeout), contentCache, cacheInvalidator, keynodeResolver);
     }
 
     @Override
@@ -114,10 +184,14 @@ public class SyncOstisScMemory implements ScMemory {
     @Override
     public boolean deleteElements(Stream<? extends ScElement> elements) throws ScMemoryException {
         DeleteScElRequest request = new DeleteScElRequestImpl();
-        elements.forEach(el -> request.addAddressToRequest(el.getAddress()));
+        long[] addresses = elements.mapToLong(ScElement::getAddress).toArray();
+        for (long address : addresses) {
+            request.addAddressToRequest(address);
+        }
 
         DeleteScElResponse response = requestSender.sendDeleteElRequest(request);
 
+        contentCache.invalidateAll(addresses);
         return response.getResponseStatus();
     }
 
@@ -125,17 +199,7 @@ public class SyncOstisScMemory implements ScMemory {
     public Stream<? extends ScEdge> findByTemplateNodeEdgeNode(ScNode fixedNode,
                                                                EdgeType edgeType,
                                                                NodeType nodeType) throws ScMemoryException {
-        SearchByTemplateRequest request = new SearchByTemplateNodeEdgeNodeRequestImpl(fixedNode, edgeType, nodeType);
-
-        SearchByTemplateResponse response = requestSender.sendSearchByTemplateRequest(request);
-
-        List<ScEdge> result = new ArrayList<>();
-        response.getFoundAddresses().forEach(e -> {
-            var currentTriple = e.toList();
-            var targetNode = new ScNodeImpl(nodeType, currentTriple.get(2));
-            result.add(new ScEdgeImpl(edgeType, fixedNode, targetNode, currentTriple.get(1)));
-        });
-        return result.stream();
+        return findNodeTriples(fixedNode, edgeType, nodeType).toScEdges();
     }
 
     @Override
@@ -143,9 +207,9 @@ public class SyncOstisScMemory implements ScMemory {
                                                                EdgeType edgeType,
                                                                LinkType linkType,
                                                                LinkContentType contentType) throws ScMemoryException {
-        SearchByTemplateRequest request = new SearchByTemplateNodeEdgeLinkRequestImpl(fixedNode, edgeType, linkType);
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLink(edgeType, linkType).request(fixedNode.getAddress());
 
-        return getScEdgesFromSearchingTemplate(fixedNode, edgeType, linkType, contentType, request);
+        return findLinkTriples(request, fixedNode, edgeType, linkType, contentType).toScEdges();
     }
 
     @Override
@@ -156,9 +220,10 @@ public class SyncOstisScMemory implements ScMemory {
                                                                            ScNode fixedRelationNode,
                                                                            EdgeType relationEdgeType) throws ScMemoryException {
 
-        SearchByTemplateRequest request = new SearchByTemplateNodeEdgeLinkWithRelationRequestImpl(fixedNode, edgeType, linkType, fixedRelationNode, relationEdgeType);
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLinkWithRelation(edgeType, linkType, relationEdgeType)
+                .request(fixedNode.getAddress(), fixedRelationNode.getAddress());
 
-        return getScEdgesFromSearchingTemplate(fixedNode, edgeType, linkType, contentType, request);
+        return findLinkTriples(request, fixedNode, edgeType, linkType, contentType).toScEdges();
     }
 
     @Override
@@ -195,8 +260,221 @@ public class SyncOstisScMemory implements ScMemory {
     }
 
     @Override
-    public void open() {
+    public long[] createNodes(NodeType[] types) throws ScMemoryException {
+        return createElements(ArrayRequest.createNodes(types), types.length);
+    }
+
+    @Override
+    public long[] createEdges(EdgeType[] types, long[] sources, long[] targets) throws ScMemoryException {
+        checkSameLength(types.length, sources.length);
+        checkSameLength(types.length, targets.length);
+        return createElements(ArrayRequest.createEdges(types, sources, targets), types.length);
+    }
+
+    @Override
+    public long[] createIntegerLinks(LinkType[] types, int[] content) throws ScMemoryException {
+        checkSameLength(types.length, content.length);
+        long[] links = createElements(ArrayRequest.createIntegerLinks(types, content), types.length);
+        for (int i = 0; i < links.length; i++) {
+            cacheWritten(links[i], content[i]);
+        }
+        return links;
+    }
+
+    @Override
+    public long[] createFloatLinks(LinkType[] types, float[] content) throws ScMemoryException {
+        checkSameLength(types.length, content.length);
+        long[] links = createElements(ArrayRequest.createFloatLinks(types, content), types.length);
+        for (int i = 0; i < links.length; i++) {
+            cacheWritten(links[i], (double) content[i]);
+        }
+        return links;
+    }
+
+    @Override
+    public boolean deleteElements(long[] addresses) throws ScMemoryException {
+        if (addresses.length == 0) {
+            return true;
+        }
+        DeleteScElResponse response = requestSender.send(ArrayRequest.deleteElements(addresses), DeleteScElResponseImpl.class);
+
+        contentCache.invalidateAll(addresses);
+        return response.getResponseStatus();
+    }
+
+    @Override
+    public boolean[] setIntegerLinkContent(long[] links, int[] content) throws ScMemoryException {
+        checkSameLength(links.length, content.length);
+        boolean[] statuses = setLinkContent(ArrayRequest.setIntegerLinkContent(links, content), links.length);
+        for (int i = 0; i < statuses.length; i++) {
+            putWritten(links[i], statuses[i], content[i]);
+        }
+        return statuses;
+    }
+
+    @Override
+    public boolean[] setFloatLinkContent(long[] links, float[] content) throws ScMemoryException {
+        checkSameLength(links.length, content.length);
+        boolean[] statuses = setLinkContent(ArrayRequest.setFloatLinkContent(links, content), links.length);
+        for (int i = 0; i < statuses.length; i++) {
+            putWritten(links[i], statuses[i], (double) content[i]);
+        }
+        return statuses;
+    }
+
+    @Override
+    public int[] getIntegerLinkContent(long[] links) throws ScMemoryException {
+        LinkContents contents = getLinkContent(links);
+        int[] result = new int[links.length];
+        for (int i = 0; i < links.length; i++) {
+            if (!contents.isInteger(i)) {
+                throw new ScMemoryException("link " + links[i] + " has no integer content");
+            }
+            result[i] = contents.getInteger(i);
+        }
+        return result;
+    }
+
+    @Override
+    public float[] getFloatLinkContent(long[] links) throws ScMemoryException {
+        LinkContents contents = getLinkContent(links);
+        float[] result = new float[links.length];
+        for (int i = 0; i < links.length; i++) {
+            if (!contents.isNumber(i)) {
+                throw new ScMemoryException("link " + links[i] + " has no numeric content");
+            }
+            result[i] = (float) contents.getDouble(i);
+        }
+        return result;
+    }
+
+    @Override
+    public TripleBatch<NodeType> findByTemplateNodeEdgeNode(long fixedNode,
+                                                            EdgeType edgeType,
+                                                            NodeType nodeType) throws ScMemoryException {
+        return findNodeTriples(new ScNodeImpl(NodeType.NODE, fixedNode), edgeType, nodeType);
+    }
+
+    @Override
+    public TripleBatch<LinkType> findByTemplateNodeEdgeLink(long fixedNode,
+                                                            EdgeType edgeType,
+                                                            LinkType linkType,
+                                                            LinkContentType contentType) throws ScMemoryException {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLink(edgeType, linkType).request(fixedNode);
+
+        return findLinkTriples(request, new ScNodeImpl(NodeType.NODE, fixedNode), edgeType, linkType, contentType);
+    }
+
+    @Override
+    public TripleBatch<LinkType> findByTemplateNodeEdgeLinkWithRelation(long fixedNode,
+                                                                        EdgeType edgeType,
+                                                                        LinkType linkType,
+                                                                        LinkContentType contentType,
+                                                                        long fixedRelationNode,
+                                                                        EdgeType relationEdgeType) throws ScMemoryException {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLinkWithRelation(edgeType, linkType, relationEdgeType)
+                .request(fixedNode, fixedRelationNode);
+
+        return findLinkTriples(request, new ScNodeImpl(NodeType.NODE, fixedNode), edgeType, linkType, contentType);
+    }
+
+    @Override
+    public int findByTemplateNodeEdgeNode(long fixedNode,
+                                          EdgeType edgeType,
+                                          NodeType nodeType,
+                                          TripleVisitor visitor) throws ScMemoryException {
+        return visitTriples(PreparedTemplate.nodeEdgeNode(edgeType, nodeType).request(fixedNode), visitor);
+    }
+
+    @Override
+    public int findByTemplateNodeEdgeLink(long fixedNode,
+                                          EdgeType edgeType,
+                                          LinkType linkType,
+                                          TripleVisitor visitor) throws ScMemoryException {
+        return visitTriples(PreparedTemplate.nodeEdgeLink(edgeType, linkType).request(fixedNode), visitor);
+    }
+
+    @Override
+    public int findByTemplateNodeEdgeLinkWithRelation(long fixedNode,
+                                                      EdgeType edgeType,
+                                                      LinkType linkType,
+                                                      long fixedRelationNode,
+                                                      EdgeType relationEdgeType,
+                                                      TripleVisitor visitor) throws ScMemoryException {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLinkWithRelation(edgeType, linkType, relationEdgeType)
+                .request(fixedNode, fixedRelationNode);
+
+        return visitTriples(request, visitor);
+    }
+
+    @Override
+    public void getIntegerLinkContent(long[] links, IntegerContentVisitor visitor) throws ScMemoryException {
+        if (contentCache.isEnabled()) {
+            int[] contents = getIntegerLinkContent(links);
+            for (int i = 0; i < links.length; i++) {
+                visitor.visit(links[i], contents[i]);
+            }
+            return;
+        }
+        visitLinkContent(links, PayloadVisitor.Contents.integers(links, visitor), "integer");
+    }
+
+    @Override
+    public void getFloatLinkContent(long[] links, FloatContentVisitor visitor) throws ScMemoryException {
+        if (contentCache.isEnabled()) {
+            float[] contents = getFloatLinkContent(links);
+            for (int i = 0; i < links.length; i++) {
+                visitor.visit(links[i], contents[i]);
+            }
+            return;
+        }
+        visitLinkContent(links, PayloadVisitor.Contents.floats(links, visitor), "numeric");
+    }
+
+    /**
+     * @return counters of the permessage-deflate compression of the websocket connections
+     * @since 0.4.0
+     */
+    public CompressionStats getCompressionStats() {
+        return ostisClient.getCompressionStats();
+    }
+
+    /**
+     * @return resolver of the keynodes, which is shared with the sc-memories returned by {@link #withTimeout(Duration)}
+     * @since 0.4.0
+     */
+    public KeynodeResolver getKeynodeResolver() {
+        return keynodeResolver;
+    }
+
+    /**
+     * @return counters of the link content cache, which is shared with the sc-memories returned by {@link #withTimeout(Duration)}
+     * @since 0.4.0
+     */
+    public ContentCacheStats getContentCacheStats() {
+        return contentCache.getStats();
+    }
+
+    /**
+     * @return recent requests and responses from the oldest to the newest,
+     * or empty list if the wire tap is not enabled in the configuration
+     * @since 0.4.0
+     */
+    public List<WireFrame> dumpWireTap() {
+        return requestSender.getWireTap().dump();
+    }
+
+    /**
+     * Opens the connection and looks up the keynodes of all the {@link KeynodeSet}s
+     * found by {@link ServiceLoader} with one request.
+     * Keynodes that are kept in the keynode cache file are found by one request before,
+     * so they are not looked up again.
+     */
+    @Override
+    public void open() throws ScMemoryException {
         ostisClient.open();
+        keynodeResolver.restore();
+        keynodeResolver.preload(ServiceLoader.load(KeynodeSet.class));
     }
 
     @Override
@@ -206,74 +484,188 @@ public class SyncOstisScMemory implements ScMemory {
         } catch (Exception e) {
             e.printStackTrace();
         }
+        keynodeResolver.close();
     }
 
-    private Stream<? extends ScEdge> getScEdgesFromSearchingTemplate(ScNode fixedNode, EdgeType edgeType, LinkType linkType, LinkContentType contentType, SearchByTemplateRequest request) throws ScMemoryException {
+    private TripleBatchImpl<NodeType> findNodeTriples(ScElement fixedNode, EdgeType edgeType, NodeType nodeType) throws ScMemoryException {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeNode(edgeType, nodeType).request(fixedNode.getAddress());
+
         SearchByTemplateResponse response = requestSender.sendSearchByTemplateRequest(request);
 
-        List<ScEdge> result = new ArrayList<>();
-        response.getFoundAddresses().forEach(e -> {
-            var currentTriple = e.toList();
-            ScLink targetLink = null;
-            try {
-                targetLink = createLinkByContentType(linkType, currentTriple.get(2), contentType);
-            } catch (ScMemoryException ex) {
-                ex.printStackTrace();
-            }
-            result.add(new ScEdgeImpl(edgeType, fixedNode, targetLink, currentTriple.get(1)));
-        });
-        return result.stream();
+        return TripleBatchImpl.nodes(response, fixedNode, edgeType, nodeType);
     }
 
-    private ScLink createLinkByContentType(LinkType linkType, Long address, LinkContentType contentType) throws ScMemoryException {
-        return switch (contentType) {
-            case INTEGER -> {
-                var result = new ScLinkIntegerImpl(linkType, address);
-                result.setContent(getIntegerLinkContent(Stream.of(result)).findFirst().get());
-                yield result;
-            }
-            case FLOAT -> {
-                var result = new ScLinkFloatImpl(linkType, address);
-                result.setContent(getFloatLinkContent(Stream.of(result)).findFirst().get());
-                yield result;
-            }
-            case STRING -> {
-                var result =  new ScLinkStringImpl(linkType, address);
-                result.setContent(getStringLinkContent(Stream.of(result)).findFirst().get());
-                yield result;
+    private TripleBatchImpl<LinkType> findLinkTriples(SearchByTemplateRequest request,
+                                                      ScElement fixedNode,
+                                                      EdgeType edgeType,
+                                                      LinkType linkType,
+                                                      LinkContentType contentType) throws ScMemoryException {
+        SearchByTemplateResponse response = requestSender.sendSearchByTemplateRequest(request);
+
+        return TripleBatchImpl.links(response, fixedNode, edgeType, linkType, contentType, this::getLinkContent);
+    }
+
+    private long[] createElements(ArrayRequest request, int size) throws ScMemoryException {
+        if (size == 0) {
+            return new long[0];
+        }
+        CreateScElResponseImpl response = requestSender.send(request, CreateScElResponseImpl.class);
+
+        if (!response.getResponseStatus()) {
+            throw new ScMemoryException("the response status is FALSE");
+        }
+        long[] addresses = response.getAddressArray();
+        if (addresses.length != size) {
+            throw new ScMemoryException("expected " + size + " created elements, but the response has " + addresses.length);
+        }
+        return addresses;
+    }
+
+    private boolean[] setLinkContent(ArrayRequest request, int size) throws ScMemoryException {
+        if (size == 0) {
+            return new boolean[0];
+        }
+        SetLinkContentResponseImpl response = requestSender.send(request, SetLinkContentResponseImpl.class);
+
+        if (!response.getResponseStatus()) {
+            throw new ScMemoryException("the response status is FALSE");
+        }
+        return response.getOperationStatusArray();
+    }
+
+    /**
+     * Only the contents that are not cached are requested,
+     * and the received contents are put into the cache.
+     */
+    private LinkContents getLinkContent(long[] links) throws ScMemoryException {
+        if (!contentCache.isEnabled()) {
+            return requestLinkContent(links);
+        }
+        Object[] values = new Object[links.length];
+        int[] missed = contentCache.lookup(links, values);
+        if (missed.length == 0) {
+            return LinkContents.of(values);
+        }
+        long[] missedLinks = new long[missed.length];
+        for (int i = 0; i < missed.length; i++) {
+            missedLinks[i] = links[missed[i]];
+        }
+        cacheInvalidator.watch(missedLinks);
+        try {
+            long generation = contentCache.getGeneration();
+            LinkContents loaded = requestLinkContent(missedLinks);
+            for (int i = 0; i < missed.length; i++) {
+                Object value = loaded.getValue(i);
+                values[missed[i]] = value;
+                contentCache.putLoaded(generation, missedLinks[i], value);
             }
-            case BINARY -> throw new UnsupportedOperationException("Binary type is not implemented yet");
-        };
+        } finally {
+            cacheInvalidator.release(missedLinks);
+        }
+        return LinkContents.of(values);
+    }
+
+    private LinkContents requestLinkContent(long[] links) throws ScMemoryException {
+        if (links.length == 0) {
+            return LinkContents.EMPTY;
+        }
+        GetLinkContentRequestImpl request = new GetLinkContentRequestImpl();
+        for (long link : links) {
+            request.addAddressToRequest(link);
+        }
+
+        GetLinkContentResponseImpl response = requestSender.send(request, GetLinkContentResponseImpl.class);
+
+        LinkContents contents = response.getLinkContents();
+        if (contents.size() != links.length) {
+            throw new ScMemoryException("expected content of " + links.length + " links, but the response has " + contents.size());
+        }
+        return contents;
+    }
+
+    private int visitTriples(SearchByTemplateRequest request, TripleVisitor visitor) throws ScMemoryException {
+        return requestSender.send(request, new PayloadVisitor.Triples(visitor)).getVisited();
+    }
+
+    private void visitLinkContent(long[] links, PayloadVisitor.Contents visitor, String contentName) throws ScMemoryException {
+        if (links.length == 0) {
+            return;
+        }
+        GetLinkContentRequestImpl request = new GetLinkContentRequestImpl();
+        for (long link : links) {
+            request.addAddressToRequest(link);
+        }
+
+        VisitedResponse response = requestSender.send(request, visitor);
+
+        if (visitor.getFailedIndex() >= 0) {
+            throw new ScMemoryException("link " + links[visitor.getFailedIndex()] + " has no " + contentName + " content");
+        }
+        if (response.getVisited() != links.length) {
+            throw new ScMemoryException("expected content of " + links.length + " links, but the response has " + response.getVisited());
+        }
+    }
+
+    /**
+     * The content of the link that is not changed is not known, so it is removed from the cache.
+     */
+    private void putWritten(long link, boolean written, Object content) {
+        if (written) {
+            cacheWritten(link, content);
+        } else {
+            contentCache.invalidate(link);
+        }
+    }
+
+    /**
+     * If the cache is invalidated by events, the written content is not cached,
+     * because the link must be subscribed to before its content is cached.
+     */
+    private void cacheWritten(long link, Object content) {
+        if (cacheInvalidator.isEnabled()) {
+            contentCache.invalidate(link);
+        } else {
+            contentCache.put(link, content);
+        }
+    }
+
+    private static void checkSameLength(int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalArgumentException("All passed arrays must have same length");
+        }
     }
 
     private <C> Stream<? extends ScEntity> createLink(Stream<LinkType> elements, Stream<C> content
             , LinkContentType contentType) throws ScMemoryException {
         CreateScElRequest request = new CreateScElRequestImpl();
         List<ScEntity> result = new ArrayList<>();
+        List<C> contents = new ArrayList<>();
         Iterator<LinkType> linkTypeIter = elements.iterator();
         Iterator<C> linkContentIter = content.iterator();
         while (linkTypeIter.hasNext() && linkContentIter.hasNext()) {
             ScEntity link;
             LinkType type = linkTypeIter.next();
+            C data = linkContentIter.next();
             switch (contentType) {
                 case FLOAT -> {
                     ScLinkFloatImpl l = new ScLinkFloatImpl(type);
-                    l.setContent((float) linkContentIter.next());
+                    l.setContent((float) data);
                     link = l;
                 }
                 case STRING -> {
                     ScLinkStringImpl l = new ScLinkStringImpl(type);
-                    l.setContent((String) linkContentIter.next());
+                    l.setContent((String) data);
                     link = l;
                 }
                 case INTEGER -> {
                     ScLinkIntegerImpl l = new ScLinkIntegerImpl(type);
-                    l.setContent((Integer) linkContentIter.next());
+                    l.setContent((Integer) data);
                     link = l;
                 }
                 default -> throw new IllegalArgumentException("unknown type of content");
             }
             result.add(link);
+            contents.add(data);
             request.addElementToRequest(link);
         }
 
@@ -287,6 +679,7 @@ public class SyncOstisScMemory implements ScMemory {
             long address = addresses.get(i);
             ScEntity link = result.get(i);
             link.setAddress(address);
+            cacheWritten(address, cachedValue(contents.get(i)));
         }
         return result.stream();
     }
@@ -316,6 +709,7 @@ public class SyncOstisScMemory implements ScMemory {
         List<Boolean> statusOfOperation = response.getOperationStatus();
         for (int i = 0; i < statusOfOperation.size(); i++) {
             boolean status = statusOfOperation.get(i);
+            putWritten(linksWithoutContent.get(i).getAddress(), status, cachedValue(contentWithoutLink.get(i)));
             if (status) {
                 ScLink link = linksWithoutContent.get(i);
                 C data = contentWithoutLink.get(i);
@@ -330,12 +724,10 @@ public class SyncOstisScMemory implements ScMemory {
     }
 
     private Stream<?> getLinkContent(Stream<? extends ScLink> elements) throws ScMemoryException {
-        GetLinkContentRequest request = new GetLinkContentRequestImpl();
-        List<? extends ScLink> links = elements.peek(l -> request.addAddressToRequest(l.getAddress())).toList();
-
-        GetLinkContentResponse response = requestSender.sendGetLinkContentRequest(request);
+        List<? extends ScLink> links = elements.toList();
+        long[] addresses = links.stream().mapToLong(ScLink::getAddress).toArray();
 
-        List<Object> values = response.getContent();
+        List<Object> values = getLinkContent(addresses).asList();
         List<Object> result = new ArrayList<>();
         for (int i = 0; i < links.size(); i++) {
             Object value = values.get(i);
@@ -364,4 +756,11 @@ public class SyncOstisScMemory implements ScMemory {
 
         return result.stream();
     }
+
+    /**
+     * Float contents are cached as doubles, the same as they are read from the content response.
+     */
+    private static Object cachedValue(Object content) {
+        return content instanceof Float value ? (Object) value.doubleValue() : content;
+    }
 }
@@ -0,0 +1,46 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Writes the components of the triples of the search_template request.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class TemplateComponents {
+
+    private TemplateComponents() {
+    }
+
+    static void writeAddress(JsonGenerator generator, long address) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "addr");
+        generator.writeNumberField("value", address);
+        generator.writeEndObject();
+    }
+
+    static void writeType(JsonGenerator generator, int typeCode) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "type");
+        generator.writeNumberField("value", typeCode);
+        generator.writeEndObject();
+    }
+
+    static void writeType(JsonGenerator generator, int typeCode, String alias) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "type");
+        generator.writeNumberField("value", typeCode);
+        generator.writeStringField("alias", alias);
+        generator.writeEndObject();
+    }
+
+    static void writeAlias(JsonGenerator generator, String alias) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "alias");
+        generator.writeStringField("value", alias);
+        generator.writeEndObject();
+    }
+}
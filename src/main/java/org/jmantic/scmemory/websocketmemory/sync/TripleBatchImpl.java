@@ -0,0 +1,202 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.model.TripleBatch;
+import org.jmantic.scmemory.model.element.ScElement;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLink;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Columns are copied out of the search response once,
+ * and the response is not kept.
+ * <p>
+ * The source of every found construction is the fixed element of the template,
+ * so edge objects share one source object.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class TripleBatchImpl<T> implements TripleBatch<T> {
+    private static final int SOURCE = 0;
+    private static final int EDGE = 1;
+    private static final int TARGET = 2;
+
+    private final long[] sources;
+    private final long[] edges;
+    private final long[] targets;
+    private final EdgeType edgeType;
+    private final T targetType;
+    private final EdgeFactory<T> edgeFactory;
+
+    private TripleBatchImpl(SearchByTemplateResponse response, EdgeType edgeType, T targetType, EdgeFactory<T> edgeFactory) {
+        int size = response.getFoundConstructionsCount();
+        sources = new long[size];
+        edges = new long[size];
+        targets = new long[size];
+        for (int i = 0; i < size; i++) {
+            sources[i] = response.getFoundAddress(i, SOURCE);
+            edges[i] = response.getFoundAddress(i, EDGE);
+            targets[i] = response.getFoundAddress(i, TARGET);
+        }
+        this.edgeType = edgeType;
+        this.targetType = targetType;
+        this.edgeFactory = edgeFactory;
+    }
+
+    /**
+     * @param source - fixed element of the template, which becomes the source of each edge
+     */
+    static TripleBatchImpl<NodeType> nodes(SearchByTemplateResponse response,
+                                           ScElement source,
+                                           EdgeType edgeType,
+                                           NodeType nodeType) {
+        return new TripleBatchImpl<>(response, edgeType, nodeType, batch -> IntStream.range(0, batch.size())
+                .mapToObj(i -> new ScEdgeImpl(edgeType,
+                        source,
+                        new ScNodeImpl(nodeType, batch.targets[i]),
+                        batch.edges[i])));
+    }
+
+    /**
+     * @param source        - fixed element of the template, which becomes the source of each edge
+     * @param contentLoader - reads the content of the target links when edges are created
+     */
+    static TripleBatchImpl<LinkType> links(SearchByTemplateResponse response,
+                                           ScElement source,
+                                           EdgeType edgeType,
+                                           LinkType linkType,
+                                           LinkContentType contentType,
+                                           ContentLoader contentLoader) {
+        return new TripleBatchImpl<>(response, edgeType, linkType, batch -> {
+            if (contentType == LinkContentType.BINARY) {
+                throw new UnsupportedOperationException("Binary type is not implemented yet");
+            }
+            LinkContents contents = contentLoader.load(batch.targets);
+            ScEdge[] result = new ScEdge[batch.size()];
+            for (int i = 0; i < result.length; i++) {
+                ScLink link = createLink(linkType, contentType, batch.targets[i], contents, i);
+                result[i] = new ScEdgeImpl(edgeType, source, link, batch.edges[i]);
+            }
+            return Arrays.stream(result);
+        });
+    }
+
+    private static ScLink createLink(LinkType linkType,
+                                     LinkContentType contentType,
+                                     long address,
+                                     LinkContents contents,
+                                     int index) throws ScMemoryException {
+        switch (contentType) {
+            case INTEGER -> {
+                if (contents.isInteger(index)) {
+                    var link = new ScLinkIntegerImpl(linkType, address);
+                    link.setContent(contents.getInteger(index));
+                    return link;
+                }
+            }
+            case FLOAT -> {
+                if (contents.isNumber(index)) {
+                    var link = new ScLinkFloatImpl(linkType, address);
+                    link.setContent((float) contents.getDouble(index));
+                    return link;
+                }
+            }
+            case STRING -> {
+                if (contents.getValue(index) instanceof String content) {
+                    var link = new ScLinkStringImpl(linkType, address);
+                    link.setContent(content);
+                    return link;
+                }
+            }
+        }
+        throw new ScMemoryException("link " + address + " has no " + contentType + " content");
+    }
+
+    @Override
+    public int size() {
+        return edges.length;
+    }
+
+    @Override
+    public long getSource(int row) {
+        return sources[checkRow(row)];
+    }
+
+    @Override
+    public long getEdge(int row) {
+        return edges[checkRow(row)];
+    }
+
+    @Override
+    public long getTarget(int row) {
+        return targets[checkRow(row)];
+    }
+
+    @Override
+    public long[] getSources() {
+        return sources.clone();
+    }
+
+    @Override
+    public long[] getEdges() {
+        return edges.clone();
+    }
+
+    @Override
+    public long[] getTargets() {
+        return targets.clone();
+    }
+
+    @Override
+    public EdgeType getEdgeType() {
+        return edgeType;
+    }
+
+    @Override
+    public T getTargetType() {
+        return targetType;
+    }
+
+    @Override
+    public Stream<? extends ScEdge> toScEdges() throws ScMemoryException {
+        return edgeFactory.create(this);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= edges.length) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + edges.length);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "TripleBatchImpl{" +
+                "size=" + edges.length +
+                ", edgeType=" + edgeType +
+                ", targetType=" + targetType +
+                '}';
+    }
+
+    /**
+     * Reads the content of links by one request.
+     */
+    @FunctionalInterface
+    interface ContentLoader {
+        LinkContents load(long[] links) throws ScMemoryException;
+    }
+
+    @FunctionalInterface
+    private interface EdgeFactory<T> {
+        Stream<? extends ScEdge> create(TripleBatchImpl<T> batch) throws ScMemoryException;
+    }
+}
@@ -0,0 +1,62 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+
+import java.io.IOException;
+
+/**
+ * Response whose payload is passed to a {@link PayloadVisitor} while the message is read,
+ * so only the status and the number of visited items are kept.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class VisitedResponse {
+    private final boolean status;
+    private final int visited;
+
+    private VisitedResponse(boolean status, int visited) {
+        this.status = status;
+        this.visited = visited;
+    }
+
+    static VisitedResponse read(WireCodec codec, OstisMessage message, PayloadVisitor visitor) throws IOException {
+        try (JsonParser parser = codec.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("message is not an object");
+            }
+            boolean status = false;
+            int visited = 0;
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "status" -> status = value == JsonToken.VALUE_TRUE;
+                    case "payload" -> visited = visitor.visitPayload(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new VisitedResponse(status, visited);
+        }
+    }
+
+    boolean getResponseStatus() {
+        return status;
+    }
+
+    /**
+     * @return number of items in the payload
+     */
+    int getVisited() {
+        return visited;
+    }
+
+    @Override
+    public String toString() {
+        return "VisitedResponse{" +
+                "status=" + status +
+                ", visited=" + visited +
+                '}';
+    }
+}
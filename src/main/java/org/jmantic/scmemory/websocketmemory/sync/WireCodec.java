@@ -0,0 +1,52 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encoding of requests and decoding of responses in one wire format.
+ * <p>
+ * Requests write themselves into the generator of the codec, and responses are read by the parser of the codec,
+ * so the same writers and deserializers work with any format that has the json data model.
+ * Implementation must be thread-safe, because one codec is shared by all connections of the sc-memory.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+interface WireCodec {
+
+    /**
+     * @return codec of the format, which is the default json codec for {@link WireFormat#JSON}
+     */
+    static WireCodec of(WireFormat format) {
+        return switch (format) {
+            case JSON -> JacksonWireCodec.JSON;
+            case SMILE -> JacksonWireCodec.smile();
+            case CBOR -> JacksonWireCodec.cbor();
+        };
+    }
+
+    WireFormat getFormat();
+
+    /**
+     * @return whether messages of the format are sent in binary frames instead of text frames
+     */
+    boolean isBinary();
+
+    /**
+     * Creates a generator that does not close the stream when the generator is closed.
+     */
+    JsonGenerator createGenerator(OutputStream out) throws IOException;
+
+    /**
+     * @throws IOException if the message is in a frame of another kind than the format uses
+     */
+    JsonParser createParser(OstisMessage message) throws IOException;
+
+    <T> T read(OstisMessage message, Class<T> type) throws IOException;
+}
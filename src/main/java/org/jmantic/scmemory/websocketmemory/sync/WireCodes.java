@@ -0,0 +1,75 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.event.EventType;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Values that the sc-machine expects for the types of the model.
+ * <p>
+ * The codes of the public enums are only for internal use,
+ * so they are read once from their json representation instead of being exposed by getters.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class WireCodes {
+    private static final Map<NodeType, Integer> nodeTypes = intCodes(NodeType.class);
+    private static final Map<LinkType, Integer> linkTypes = intCodes(LinkType.class);
+    private static final Map<EdgeType, Integer> edgeTypes = intCodes(EdgeType.class);
+    private static final Map<RequestType, String> requestTypes = stringCodes(RequestType.class);
+    private static final Map<LinkContentType, String> contentTypes = stringCodes(LinkContentType.class);
+    private static final Map<EventType, String> eventTypes = stringCodes(EventType.class);
+
+    private WireCodes() {
+    }
+
+    static int of(NodeType type) {
+        return nodeTypes.get(type);
+    }
+
+    static int of(LinkType type) {
+        return linkTypes.get(type);
+    }
+
+    static int of(EdgeType type) {
+        return edgeTypes.get(type);
+    }
+
+    static String of(RequestType type) {
+        return requestTypes.get(type);
+    }
+
+    static String of(LinkContentType type) {
+        return contentTypes.get(type);
+    }
+
+    static String of(EventType type) {
+        return eventTypes.get(type);
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> intCodes(Class<E> enumClass) {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<E, Integer> codes = new EnumMap<>(enumClass);
+        for (E constant : enumClass.getEnumConstants()) {
+            codes.put(constant, mapper.convertValue(constant, Integer.class));
+        }
+        return codes;
+    }
+
+    private static <E extends Enum<E>> Map<E, String> stringCodes(Class<E> enumClass) {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<E, String> codes = new EnumMap<>(enumClass);
+        for (E constant : enumClass.getEnumConstants()) {
+            codes.put(constant, mapper.convertValue(constant, String.class));
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,131 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.core.WireFrame;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps recent requests and responses in a ring buffer.
+ * <p>
+ * A frame takes the next number of the sequence and is put into the slot of this number,
+ * replacing the frame that was there, so writers never wait for each other.
+ * A dump reads all slots and orders the frames by their numbers.
+ * <p>
+ * Callers check {@link #isTapped(ScRequest)} before they record anything,
+ * so a disabled wire tap does not copy or build anything.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+final class WireTap {
+    private final static Logger logger = LoggerFactory.getLogger(WireTap.class);
+
+    /**
+     * Wire tap that captures nothing.
+     */
+    static final WireTap DISABLED = new WireTap(false, 1, 0, EnumSet.noneOf(RequestType.class));
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final Set<RequestType> requestTypes;
+    private final AtomicReferenceArray<WireFrame> frames;
+    private final AtomicLong sequence = new AtomicLong();
+
+    WireTap(boolean enabled, int capacity, double sampleRate, Set<RequestType> requestTypes) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.requestTypes = EnumSet.copyOf(requestTypes);
+        frames = new AtomicReferenceArray<>(capacity);
+    }
+
+    static WireTap of(OstisClientConfiguration configuration) {
+        if (!configuration.isWireTapEnabled()) {
+            return DISABLED;
+        }
+        return new WireTap(true,
+                configuration.getWireTapCapacity(),
+                configuration.getWireTapSampleRate(),
+                configuration.getWireTapRequestTypes());
+    }
+
+    /**
+     * @return whether the request and its response must be recorded
+     */
+    boolean isTapped(ScRequest request) {
+        if (!enabled || !requestTypes.contains(request.getRequestType())) {
+            return false;
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * The request is written once more into memory,
+     * because the client writes it straight into the buffers of the connection.
+     */
+    void recordSent(ScRequest request, RequestWriter writer, boolean binary) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("wire tap cannot write request {}", request.getRequestId(), e);
+            return;
+        }
+        record(WireFrame.Direction.SENT, request, binary, out.toByteArray());
+    }
+
+    void recordReceived(ScRequest request, OstisMessage message) {
+        record(WireFrame.Direction.RECEIVED, request, message.isBinary(), message.getBytes());
+    }
+
+    private void record(WireFrame.Direction direction, ScRequest request, boolean binary, byte[] payload) {
+        long number = sequence.getAndIncrement();
+        WireFrame frame = new WireFrame(number, Instant.now(), direction, request.getRequestId(), request.getRequestType(), binary, payload);
+        frames.set((int) (number % frames.length()), frame);
+        logger.trace("{}", frame);
+    }
+
+    /**
+     * Frames that are recorded while the dump is read may be missed or included.
+     *
+     * @return kept frames from the oldest to the newest
+     */
+    List<WireFrame> dump() {
+        List<WireFrame> result = new ArrayList<>(frames.length());
+        for (int i = 0; i < frames.length(); i++) {
+            WireFrame frame = frames.get(i);
+            if (frame != null) {
+                result.add(frame);
+            }
+        }
+        result.sort(Comparator.comparingLong(WireFrame::getSequence));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "WireTap{" +
+                "enabled=" + enabled +
+                ", capacity=" + frames.length() +
+                ", sampleRate=" + sampleRate +
+                ", requestTypes=" + requestTypes +
+                ", recorded=" + sequence.get() +
+                '}';
+    }
+}
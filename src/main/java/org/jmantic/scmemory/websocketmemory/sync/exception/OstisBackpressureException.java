@@ -0,0 +1,15 @@
+package org.jmantic.scmemory.websocketmemory.sync.exception;
+
+/**
+ * This exception is indicating that the request was not sent,
+ * because the window of requests in flight of the connection is full.
+ * The request can be retried later.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisBackpressureException extends OstisConnectionException {
+    public OstisBackpressureException(String message) {
+        super(message);
+    }
+}
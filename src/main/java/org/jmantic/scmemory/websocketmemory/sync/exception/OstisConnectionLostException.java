@@ -0,0 +1,21 @@
+package org.jmantic.scmemory.websocketmemory.sync.exception;
+
+/**
+ * This exception is indicating that the connection was lost while the request was in flight,
+ * or before the request was written to the socket.
+ * The request is not idempotent, so it is not sent again automatically.
+ * It is unknown whether the sc-machine applied the request,
+ * so the caller decides whether to retry it.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisConnectionLostException extends OstisConnectionException {
+    public OstisConnectionLostException(String message) {
+        super(message);
+    }
+
+    public OstisConnectionLostException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
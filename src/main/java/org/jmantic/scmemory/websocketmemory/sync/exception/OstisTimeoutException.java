@@ -0,0 +1,15 @@
+package org.jmantic.scmemory.websocketmemory.sync.exception;
+
+/**
+ * This exception is indicating that the response was not received before the deadline of the request.
+ * The request is removed from the pending requests,
+ * so its late response is dropped.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisTimeoutException extends OstisConnectionException {
+    public OstisTimeoutException(String message) {
+        super(message);
+    }
+}
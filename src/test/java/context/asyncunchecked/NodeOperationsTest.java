@@ -1,6 +1,7 @@
 package context.asyncunchecked;
 
 import org.jmantic.api.context.AsyncUncheckedScContext;
+import org.jmantic.api.context.ScContextExecutors;
 import org.jmantic.api.context.UncheckedScContext;
 import org.jmantic.scmemory.model.ScMemory;
 import org.jmantic.scmemory.model.element.node.NodeType;
@@ -16,9 +17,13 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -124,4 +129,20 @@ public class NodeOperationsTest {
         }
     }
 
+    @Test
+    @Timeout(value = 20000, unit = TimeUnit.MILLISECONDS)
+    void createNodesWithThreadPerCall() throws ExecutionException, InterruptedException {
+        ExecutorService executor = ScContextExecutors.newThreadPerCallExecutor();
+        try {
+            AsyncUncheckedScContext context = new AsyncUncheckedScContext(new UncheckedScContext(memory), executor);
+            List<Future<ScNode>> nodes = IntStream.range(0, 1000)
+                    .mapToObj(i -> context.createNode(NodeType.NODE))
+                    .toList();
+            for (Future<ScNode> node : nodes) {
+                assertEquals(NodeType.NODE, node.get().getType());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -14,8 +14,13 @@ import org.junit.jupiter.api.Timeout;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -121,4 +126,31 @@ public class NodeOperationsTest {
         }
     }
 
+    @Test
+    @Timeout(value = 20000, unit = TimeUnit.MILLISECONDS)
+    void createNodesFromMultipleThreads() throws Exception {
+        int threads = 8;
+        int count = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ScNode>> nodes = IntStream.range(0, threads * count)
+                    .mapToObj(i -> executor.submit(() -> scContext.createNode(NodeType.NODE)))
+                    .toList();
+            for (Future<ScNode> node : nodes) {
+                assertEquals(NodeType.NODE, node.get().getType());
+            }
+            assertEquals(nodes.size(), nodes.stream().map(this::getAddress).distinct().count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Long getAddress(Future<ScNode> node) {
+        try {
+            return node.get().getAddress();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
@@ -0,0 +1,167 @@
+package org.jmantic.scmemory.processor;
+
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.keynode.KeynodeSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles sources with keynodes by the system compiler and loads the generated set.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class KeynodeProcessorTest {
+    private Path output;
+
+    @BeforeEach
+    public void createOutput() throws IOException {
+        output = Files.createTempDirectory("keynodes");
+    }
+
+    @AfterEach
+    public void deleteOutput() throws IOException {
+        try (Stream<Path> files = Files.walk(output)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void collectKeynodesIntoOneSet() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(List.of(),
+                source("agents.first.Concepts", """
+                        package agents.first;
+
+                        import org.jmantic.scmemory.model.keynode.Keynode;
+
+                        public interface Concepts {
+                            @Keynode
+                            String CONCEPT = "concept";
+                            @Keynode(value = "nrel_main_idtf")
+                            String MAIN_IDENTIFIER = "main identifier";
+                        }
+                        """),
+                source("agents.second.Questions", """
+                        package agents.second;
+
+                        import org.jmantic.scmemory.model.element.node.NodeType;
+                        import org.jmantic.scmemory.model.keynode.Keynode;
+
+                        public class Questions {
+                            @Keynode(resolve = true)
+                            static final String FINISHED = "question_finished";
+                            @Keynode(value = "question", resolve = true, type = NodeType.CONST)
+                            static String question;
+                            @Keynode
+                            static final String CONCEPT = "concept";
+                        }
+                        """));
+        assertEquals(List.of(), errors);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            List<KeynodeSet> sets = ServiceLoader.load(KeynodeSet.class, loader).stream()
+                    .map(ServiceLoader.Provider::get)
+                    .toList();
+            assertEquals(1, sets.size());
+            KeynodeSet set = sets.get(0);
+            assertEquals("agents.first.GeneratedKeynodes", set.getClass().getName());
+            String[] identifiers = set.getSystemIdentifiers();
+            NodeType[] types = set.getTypes();
+            assertEquals(4, identifiers.length);
+            for (int i = 0; i < identifiers.length; i++) {
+                switch (identifiers[i]) {
+                    case "concept", "nrel_main_idtf" -> assertNull(types[i]);
+                    case "question_finished" -> assertEquals(NodeType.CONST_CLASS, types[i]);
+                    case "question" -> assertEquals(NodeType.CONST, types[i]);
+                    default -> throw new AssertionError("unexpected keynode " + identifiers[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void nameGeneratedClassByOption() throws Exception {
+        assertEquals(List.of(), compile(List.of("-A" + KeynodeProcessor.CLASS_OPTION + "=agents.AgentKeynodes"),
+                source("Concepts", """
+                        public interface Concepts {
+                            @org.jmantic.scmemory.model.keynode.Keynode
+                            String CONCEPT = "concept";
+                        }
+                        """)));
+        assertTrue(Files.exists(output.resolve("agents/AgentKeynodes.class")));
+        assertArrayEquals(new String[]{"agents.AgentKeynodes"},
+                Files.readAllLines(output.resolve("META-INF/services/" + KeynodeSet.class.getName())).toArray());
+    }
+
+    @Test
+    void reportInvalidKeynodes() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(List.of(),
+                source("Agent", """
+                        import org.jmantic.scmemory.model.element.node.NodeType;
+                        import org.jmantic.scmemory.model.keynode.Keynode;
+
+                        public class Agent {
+                            @Keynode
+                            final String instance = "instance";
+                            @Keynode
+                            static String unknown;
+                            @Keynode(resolve = true, type = NodeType.CONST)
+                            static final String FIRST = "question";
+                            @Keynode(resolve = true, type = NodeType.CONST_CLASS)
+                            static final String SECOND = "question";
+                        }
+                        """));
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("static field"));
+        assertTrue(errors.get(1).getMessage(null).contains("string constant"));
+        assertTrue(errors.get(2).getMessage(null).contains("keynode question is resolved as CONST"));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(List<String> options, JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(List.of("-classpath", System.getProperty("java.class.path"), "-d", output.toString()));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, arguments, null, List.of(sources));
+        task.setProcessors(List.of(new KeynodeProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .toList();
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
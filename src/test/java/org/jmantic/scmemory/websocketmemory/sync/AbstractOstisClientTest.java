@@ -0,0 +1,241 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.java_websocket.client.WebSocketClient;
+import org.jmantic.scmemory.config.BackpressurePolicy;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionException;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class AbstractOstisClientTest {
+    private final OstisClientConfiguration configuration = new OstisClientConfiguration();
+    private FakeOstisClient client;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void releaseCreditOfInterruptedCaller() throws Exception {
+        configuration.setMaxInFlightRequests(1);
+        configuration.setBackpressurePolicy(BackpressurePolicy.FAIL_FAST);
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        client = open();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread caller = new Thread(() -> {
+            try {
+                client.sendToOstis(1, RequestWriter.of("{\"id\":1}"), true, Duration.ofMinutes(1));
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        caller.start();
+        while (client.getInFlightRequestsCount() == 0) {
+            Thread.sleep(1);
+        }
+        caller.interrupt();
+        caller.join(5000);
+        assertTrue(failure.get() instanceof OstisConnectionException);
+        assertEquals(0, client.getInFlightRequestsCount());
+        CompletableFuture<OstisMessage> next = client.sendToOstisAsync(2, RequestWriter.of("{\"id\":2}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        assertFalse(next.isDone());
+        client.getConnection().respond(2);
+        assertTrue(next.get().getText().contains("\"id\":2"));
+    }
+
+    @Test
+    void failAsyncRequestWhenWindowIsFull() throws Exception {
+        configuration.setMaxInFlightRequests(1);
+        configuration.setBackpressurePolicy(BackpressurePolicy.BLOCK);
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        client = open();
+        CompletableFuture<OstisMessage> first = client.sendToOstisAsync(1, RequestWriter.of("{\"id\":1}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        CompletableFuture<OstisMessage> second = client.sendToOstisAsync(2, RequestWriter.of("{\"id\":2}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> second.get(0, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof OstisBackpressureException);
+        assertFalse(first.isDone());
+        assertEquals(1, client.getConnection().getMessages().size());
+    }
+
+    @Test
+    void blockSyncCallerUntilWindowHasPlace() throws Exception {
+        configuration.setMaxInFlightRequests(1);
+        configuration.setBackpressurePolicy(BackpressurePolicy.BLOCK);
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        client = open();
+        CompletableFuture<OstisMessage> first = client.sendToOstisAsync(1, RequestWriter.of("{\"id\":1}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        CompletableFuture<OstisMessage> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.sendToOstis(2, RequestWriter.of("{\"id\":2}"), true, OstisClientConfiguration.NO_TIMEOUT);
+            } catch (OstisConnectionException e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertEquals(1, client.getConnection().getMessages().size());
+        client.getConnection().respond(1);
+        first.get();
+        await(() -> client.getConnection().getMessages().size() == 2);
+        client.getConnection().respond(2);
+        assertTrue(second.get(5, TimeUnit.SECONDS).getText().contains("\"id\":2"));
+    }
+
+    @Test
+    void sendIdempotentRequestAfterHandshakeOfNewConnection() throws Exception {
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        configuration.setReconnectInitialDelay(Duration.ofMillis(1));
+        client = open();
+        client.setHoldingHandshakes(true);
+        client.getConnection().drop();
+        await(() -> client.getConnections().size() == 2);
+        FakeOstisClient.FakeConnection connection = client.getConnection();
+        CompletableFuture<OstisMessage> response = client.sendToOstisAsync(1, RequestWriter.of("{\"id\":1}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        assertFalse(response.isDone());
+        assertTrue(connection.getMessages().isEmpty());
+        connection.finishHandshake();
+        assertEquals(1, connection.getMessages().size());
+        connection.respond(1);
+        assertTrue(response.get().getText().contains("\"id\":1"));
+    }
+
+    @Test
+    void measurePongRttOnlyForOwnPings() throws Exception {
+        configuration.setPingInterval(Duration.ofMillis(10));
+        client = open();
+        client.getConnection().pong();
+        assertNull(client.getPongRtt());
+        client.setAnsweringPings(true);
+        await(() -> client.getPongRtt() != null);
+        assertEquals(1, client.getHealthScore());
+    }
+
+    @Test
+    void recycleConnectionBelowMinHealthScore() throws Exception {
+        assertEquals(4, pingsBeforeRecycle(0.5));
+        assertEquals(2, pingsBeforeRecycle(0.7));
+    }
+
+    @Test
+    void keepIdleConnectionThatAnswersPings() throws Exception {
+        configuration.setPingInterval(Duration.ofMillis(5));
+        client = new FakeOstisClient(configuration);
+        client.setAnsweringPings(true);
+        client.open();
+        FakeOstisClient.FakeConnection connection = client.getConnection();
+        await(() -> connection.getPings() >= 10);
+        assertNull(connection.getAbortReason());
+        assertEquals(1, client.getConnections().size());
+        assertEquals(1, client.getHealthScore());
+    }
+
+    @Test
+    void keepHealthOnPassedDeadline() throws Exception {
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        client = open();
+        CompletableFuture<OstisMessage> response = client.sendToOstisAsync(1, RequestWriter.of("{\"id\":1}"), true, Duration.ofMillis(1));
+        ExecutionException exception = assertThrows(ExecutionException.class, response::get);
+        assertTrue(exception.getCause() instanceof OstisTimeoutException);
+        assertEquals(1, client.getHealthScore());
+    }
+
+    @Test
+    void detectLostConnectionsByLibraryWithoutKeepalive() {
+        assertTrue(connectionLostTimeout() == 0);
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        assertTrue(connectionLostTimeout() > 0);
+        configuration.setPingInterval(Duration.ofSeconds(30));
+        configuration.setReconnectEnabled(false);
+        assertTrue(connectionLostTimeout() > 0);
+        configuration.setReconnectEnabled(true);
+        configuration.setMinHealthScore(0);
+        assertTrue(connectionLostTimeout() > 0);
+    }
+
+    @Test
+    void averageRttAndErrorRate() {
+        ConnectionHealth health = new ConnectionHealth();
+        health.recordPong(Duration.ofMillis(100).toNanos());
+        assertEquals(Duration.ofMillis(100), health.getPongRtt());
+        health.recordPong(Duration.ofMillis(200).toNanos());
+        assertEquals(Duration.ofMillis(120), health.getPongRtt());
+        health.recordFailure();
+        assertEquals(0.8, health.getScore(), 1e-9);
+        health.recordFailure();
+        assertEquals(0.64, health.getScore(), 1e-9);
+        health.recordSuccess();
+        assertEquals(0.712, health.getScore(), 1e-9);
+        health.reset();
+        assertEquals(1, health.getScore());
+        assertNull(health.getPongRtt());
+    }
+
+    /**
+     * Pongs are never received, so each ping after the first one records a failure.
+     */
+    private int pingsBeforeRecycle(double minHealthScore) throws Exception {
+        configuration.setPingInterval(Duration.ofMillis(5));
+        configuration.setMinHealthScore(minHealthScore);
+        configuration.setReconnectInitialDelay(Duration.ofMillis(1));
+        FakeOstisClient recycled = open();
+        try {
+            FakeOstisClient.FakeConnection connection = recycled.getConnection();
+            await(() -> connection.getAbortReason() != null);
+            assertEquals("connection is unhealthy", connection.getAbortReason());
+            await(() -> recycled.getConnections().size() > 1 && recycled.getConnection().isOpen());
+            return connection.getPings();
+        } finally {
+            recycled.close();
+        }
+    }
+
+    /**
+     * The client is not opened, so it does not need to be closed.
+     *
+     * @return timeout of the lost connection check of the Java-WebSocket library, zero if it is disabled
+     */
+    private int connectionLostTimeout() {
+        URI serverUri = URI.create("ws://localhost:8090/ws_json");
+        OstisClientSync sync = new OstisClientSync(serverUri, configuration);
+        return ((WebSocketClient) sync.createConnection(serverUri)).getConnectionLostTimeout();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition is not met in 5 seconds");
+            Thread.sleep(1);
+        }
+    }
+
+    private FakeOstisClient open() {
+        FakeOstisClient opened = new FakeOstisClient(configuration);
+        opened.open();
+        return opened;
+    }
+}
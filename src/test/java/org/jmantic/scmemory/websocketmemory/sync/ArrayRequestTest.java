@@ -0,0 +1,162 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests built from arrays must be the same as requests built from element objects.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class ArrayRequestTest {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void createNodesLikeObjectRequest() throws Exception {
+        CreateScElRequestImpl expected = new CreateScElRequestImpl();
+        expected.addElementToRequest(new ScNodeImpl(NodeType.NODE));
+        expected.addElementToRequest(new ScNodeImpl(NodeType.CONST_CLASS));
+
+        assertSamePayload(expected, ArrayRequest.createNodes(new NodeType[]{NodeType.NODE, NodeType.CONST_CLASS}));
+    }
+
+    @Test
+    void createEdgesLikeObjectRequest() throws Exception {
+        ScNodeImpl first = new ScNodeImpl(NodeType.NODE, 11L);
+        ScNodeImpl second = new ScNodeImpl(NodeType.NODE, 4294967296L);
+        CreateScElRequestImpl expected = new CreateScElRequestImpl();
+        expected.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, first, second));
+        expected.addElementToRequest(new ScEdgeImpl(EdgeType.D_COMMON, second, first));
+
+        assertSamePayload(expected, ArrayRequest.createEdges(new EdgeType[]{EdgeType.ACCESS, EdgeType.D_COMMON},
+                new long[]{11L, 4294967296L},
+                new long[]{4294967296L, 11L}));
+    }
+
+    @Test
+    void createLinksLikeObjectRequest() throws Exception {
+        CreateScElRequestImpl expectedIntegers = new CreateScElRequestImpl();
+        ScLinkIntegerImpl integerLink = new ScLinkIntegerImpl(LinkType.LINK);
+        integerLink.setContent(-7);
+        expectedIntegers.addElementToRequest(integerLink);
+        assertSamePayload(expectedIntegers, ArrayRequest.createIntegerLinks(new LinkType[]{LinkType.LINK}, new int[]{-7}));
+
+        CreateScElRequestImpl expectedFloats = new CreateScElRequestImpl();
+        ScLinkFloatImpl floatLink = new ScLinkFloatImpl(LinkType.LINK_CONST);
+        floatLink.setContent(2.5f);
+        expectedFloats.addElementToRequest(floatLink);
+        assertSamePayload(expectedFloats, ArrayRequest.createFloatLinks(new LinkType[]{LinkType.LINK_CONST}, new float[]{2.5f}));
+    }
+
+    @Test
+    void setContentLikeObjectRequest() throws Exception {
+        SetLinkContentRequestImpl expectedIntegers = new SetLinkContentRequestImpl();
+        expectedIntegers.addToRequest(new ScLinkIntegerImpl(LinkType.LINK, 13L), 42);
+        expectedIntegers.addToRequest(new ScLinkIntegerImpl(LinkType.LINK, 14L), 43);
+        assertSamePayload(expectedIntegers, ArrayRequest.setIntegerLinkContent(new long[]{13L, 14L}, new int[]{42, 43}));
+
+        SetLinkContentRequestImpl expectedFloats = new SetLinkContentRequestImpl();
+        expectedFloats.addToRequest(new ScLinkFloatImpl(LinkType.LINK, 13L), 0.5f);
+        assertSamePayload(expectedFloats, ArrayRequest.setFloatLinkContent(new long[]{13L}, new float[]{0.5f}));
+    }
+
+    @Test
+    void deleteElementsLikeObjectRequest() throws Exception {
+        DeleteScElRequestImpl expected = new DeleteScElRequestImpl();
+        expected.addToRequest(List.of(1L, 2L, 3L));
+
+        ArrayRequest request = ArrayRequest.deleteElements(new long[]{1L, 2L, 3L});
+        assertSamePayload(expected, request);
+        assertFalse(request.isIdempotent());
+        assertTrue(ArrayRequest.deleteElements(new long[0]).isEmpty());
+    }
+
+    @Test
+    void readLinkContentsWithoutBoxing() throws Exception {
+        GetLinkContentResponseImpl response = mapper.readValue("{\"id\":4,\"event\":false,\"status\":true,\"payload\":[" +
+                "{\"value\":42,\"type\":\"int\"}," +
+                "{\"value\":1.5,\"type\":\"float\"}," +
+                "{\"value\":\"text\",\"type\":\"string\"}," +
+                "{\"value\":null}," +
+                "{\"type\":\"int\",\"value\":4294967296}]}", GetLinkContentResponseImpl.class);
+        LinkContents contents = response.getLinkContents();
+
+        assertEquals(5, contents.size());
+        assertTrue(contents.isInteger(0));
+        assertEquals(42, contents.getInteger(0));
+        assertEquals(42.0, contents.getDouble(0));
+        assertFalse(contents.isInteger(1));
+        assertEquals(1.5, contents.getDouble(1));
+        assertFalse(contents.isNumber(2));
+        assertFalse(contents.isNumber(3));
+        assertFalse(contents.isInteger(4));
+        assertTrue(contents.isNumber(4));
+        assertThrows(IllegalStateException.class, () -> contents.getInteger(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> contents.isNumber(5));
+
+        assertEquals(Arrays.asList(42, 1.5, "text", null, 4294967296L), response.getContent());
+    }
+
+    @Test
+    void readManyLinkContents() throws Exception {
+        StringBuilder json = new StringBuilder("{\"id\":1,\"payload\":[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append(i % 2 == 0 ? "{\"value\":" + i + "}" : "{\"value\":\"s" + i + "\"}");
+        }
+        LinkContents contents = mapper.readValue(json.append("]}").toString(), GetLinkContentResponseImpl.class).getLinkContents();
+        assertEquals(1000, contents.size());
+        assertEquals(998, contents.getInteger(998));
+        assertEquals("s999", contents.getValue(999));
+    }
+
+    @Test
+    void readResponsesWithoutPayload() throws Exception {
+        assertEquals(0, mapper.readValue("{\"id\":1,\"status\":false,\"payload\":null}", GetLinkContentResponseImpl.class)
+                .getLinkContents().size());
+        assertEquals(0, mapper.readValue("{\"id\":1,\"status\":false}", GetLinkContentResponseImpl.class)
+                .getContent().size());
+        assertNull(mapper.readValue("{\"id\":1,\"payload\":[{}]}", GetLinkContentResponseImpl.class).getContent().get(0));
+    }
+
+    @Test
+    void readArraysOfOtherResponses() throws Exception {
+        assertArrayEquals(new long[]{100L, 4294967296L},
+                mapper.readValue("{\"id\":3,\"payload\":[100,4294967296]}", CreateScElResponseImpl.class).getAddressArray());
+        SetLinkContentResponseImpl set = mapper.readValue("{\"id\":3,\"payload\":[true,false]}", SetLinkContentResponseImpl.class);
+        assertArrayEquals(new boolean[]{true, false}, set.getOperationStatusArray());
+        assertEquals(List.of(true, false), set.getOperationStatus());
+    }
+
+    private void assertSamePayload(ScRequest expected, ScRequest actual) throws Exception {
+        JsonNode expectedJson = mapper.readTree(write(expected));
+        JsonNode actualJson = mapper.readTree(write(actual));
+        assertEquals(expectedJson.get("type"), actualJson.get("type"));
+        assertEquals(expectedJson.get("payload"), actualJson.get("payload"));
+    }
+
+    private static byte[] write(ScRequest request) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RequestEncoder.writerOf(request).writeTo(out);
+        return out.toByteArray();
+    }
+}
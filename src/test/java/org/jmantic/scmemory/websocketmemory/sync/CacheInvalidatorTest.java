@@ -0,0 +1,164 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class CacheInvalidatorTest {
+    private final AtomicLong lastEvent = new AtomicLong();
+    private final LinkContentCache cache = new LinkContentCache(1024);
+    private FakeOstisClient client;
+    private CacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        client = new FakeOstisClient(configuration);
+        client.setResponder(request -> LongStream.range(0, request.split("\"addr\"", -1).length - 1)
+                .map(i -> lastEvent.incrementAndGet())
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "[", "]")));
+        client.open();
+        invalidator = CacheInvalidator.forContents(new RequestSenderImpl(client, OstisClientConfiguration.NO_TIMEOUT), cache);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+    }
+
+    @Test
+    void deleteSubscriptionOfContentThatIsNotCached() throws Exception {
+        invalidator.watch(new long[]{5L});
+        long generation = cache.getGeneration();
+        cache.invalidate(9L);
+        cache.putLoaded(generation, 5L, 1);
+        invalidator.release(new long[]{5L});
+
+        invalidator.watch(new long[]{6L});
+        assertTrue(lastRequest().contains("\"delete\":[1,2]"));
+        invalidator.release(new long[]{6L});
+
+        invalidator.watch(new long[]{7L});
+        assertTrue(lastRequest().contains("\"delete\":[3,4]"));
+    }
+
+    @Test
+    void keepSubscriptionWhileContentIsRead() throws Exception {
+        invalidator.watch(new long[]{5L});
+        invalidator.watch(new long[]{5L});
+        assertEquals(1, requests().size());
+        invalidator.release(new long[]{5L});
+
+        invalidator.watch(new long[]{6L});
+        assertFalse(lastRequest().contains("\"delete\":"));
+        cache.putLoaded(cache.getGeneration(), 5L, 1);
+        invalidator.release(new long[]{5L});
+
+        invalidator.watch(new long[]{7L});
+        assertFalse(lastRequest().contains("\"delete\":"));
+
+        cache.invalidate(5L);
+        invalidator.watch(new long[]{8L});
+        assertTrue(lastRequest().contains("\"delete\":[1,2]"));
+    }
+
+    @Test
+    void waitForSubscriptionOfAnotherThread() throws Exception {
+        client.setResponder(null);
+        CompletableFuture<Void> first = watchAsync(5L);
+        await(() -> requests().size() == 1);
+        CompletableFuture<Void> second = watchAsync(5L, 6L);
+        await(() -> requests().size() == 2);
+        respond(1, "[1,2]");
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+        respond(0, "[3,4]");
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failWhenSubscriptionOfAnotherThreadFails() throws Exception {
+        client.setResponder(null);
+        CompletableFuture<Void> first = watchAsync(5L);
+        await(() -> requests().size() == 1);
+        CompletableFuture<Void> second = watchAsync(5L);
+        Thread.sleep(50);
+        assertFalse(second.isDone());
+        respond(0, "[]");
+        for (CompletableFuture<Void> watch : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> watch.get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof ScMemoryException);
+        }
+    }
+
+    @Test
+    void deleteSubscriptionsAgainAfterFailedRequest() throws Exception {
+        invalidator.watch(new long[]{5L});
+        invalidator.release(new long[]{5L});
+        client.setResponder(request -> "[]");
+        assertThrows(ScMemoryException.class, () -> invalidator.watch(new long[]{6L}));
+        assertTrue(lastRequest().contains("\"delete\":[1,2]"));
+        client.setResponder(request -> "[3,4]");
+        invalidator.watch(new long[]{7L});
+        assertTrue(lastRequest().contains("\"delete\":[1,2]"));
+    }
+
+    private CompletableFuture<Void> watchAsync(long... elements) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                invalidator.watch(elements);
+            } catch (ScMemoryException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private void respond(int request, String payload) {
+        Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(requests().get(request));
+        assertTrue(id.find());
+        client.getConnection().respond(Long.parseLong(id.group(1)), payload);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition is not met in 5 seconds");
+            Thread.sleep(1);
+        }
+    }
+
+    private List<String> requests() {
+        return client.getConnection().getMessages();
+    }
+
+    private String lastRequest() {
+        List<String> requests = requests();
+        return requests.get(requests.size() - 1);
+    }
+}
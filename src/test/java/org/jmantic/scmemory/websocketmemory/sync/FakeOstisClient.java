@@ -0,0 +1,188 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client whose connections do not use the network.
+ * Sent messages are recorded, and responses and pongs are passed by the test,
+ * unless the client is set to answer requests and pings itself.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+class FakeOstisClient extends AbstractOstisClient {
+    private static final Pattern REQUEST_ID = Pattern.compile("\"id\":(\\d+)");
+    private final List<FakeConnection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean answeringPings;
+    private volatile boolean holdingHandshakes;
+    private volatile Function<String, String> responder;
+
+    FakeOstisClient(OstisClientConfiguration configuration) {
+        super(configuration);
+        configure(URI.create("ws://localhost:8090/ws_json"));
+    }
+
+    @Override
+    Connection createConnection(URI serverUri) {
+        FakeConnection connection = new FakeConnection(serverUri);
+        connections.add(connection);
+        return connection;
+    }
+
+    /**
+     * @return the last created connection
+     */
+    FakeConnection getConnection() {
+        return connections.get(connections.size() - 1);
+    }
+
+    List<FakeConnection> getConnections() {
+        return connections;
+    }
+
+    /**
+     * @param responder - function from the sent request to the payload of its response,
+     *                  which is received as soon as the request is sent
+     */
+    void setResponder(Function<String, String> responder) {
+        this.responder = responder;
+    }
+
+    /**
+     * @param answeringPings - true to receive the pong as soon as the ping is sent
+     */
+    void setAnsweringPings(boolean answeringPings) {
+        this.answeringPings = answeringPings;
+    }
+
+    /**
+     * @param holdingHandshakes - true to leave new connections in the handshake
+     *                          until {@link FakeConnection#finishHandshake()} is called
+     */
+    void setHoldingHandshakes(boolean holdingHandshakes) {
+        this.holdingHandshakes = holdingHandshakes;
+    }
+
+    class FakeConnection implements Connection {
+        private final URI serverUri;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final StringBuilder message = new StringBuilder();
+        private volatile boolean open;
+        private volatile int pings;
+        private volatile String abortReason;
+
+        private FakeConnection(URI serverUri) {
+            this.serverUri = serverUri;
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+
+        int getPings() {
+            return pings;
+        }
+
+        String getAbortReason() {
+            return abortReason;
+        }
+
+        void respond(long requestId) {
+            respond(requestId, "[]");
+        }
+
+        void respond(long requestId, String payload) {
+            completePendingRequest(OstisMessage.ofText("{\"id\":" + requestId + ",\"event\":false,\"status\":true,\"payload\":" + payload + "}"));
+        }
+
+        void pong() {
+            onPong(this);
+        }
+
+        void finishHandshake() {
+            open = true;
+            onConnectionOpened(this);
+        }
+
+        void drop() {
+            open = false;
+            onConnectionLost(this, "connection is dropped");
+        }
+
+        @Override
+        public URI getURI() {
+            return serverUri;
+        }
+
+        @Override
+        public void connect() {
+            if (!holdingHandshakes) {
+                finishHandshake();
+            }
+        }
+
+        @Override
+        public boolean connectBlocking() {
+            connect();
+            return true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized void sendText(ByteBuffer fragment, boolean last) {
+            if (!open) {
+                throw new IllegalStateException("connection is not open");
+            }
+            message.append(StandardCharsets.UTF_8.decode(fragment));
+            if (last) {
+                String request = message.toString();
+                messages.add(request);
+                message.setLength(0);
+                Function<String, String> answer = responder;
+                Matcher id = REQUEST_ID.matcher(request);
+                if (answer != null && id.find()) {
+                    respond(Long.parseLong(id.group(1)), answer.apply(request));
+                }
+            }
+        }
+
+        @Override
+        public void sendBinary(ByteBuffer fragment, boolean last) {
+            throw new UnsupportedOperationException("fake connection sends only text messages");
+        }
+
+        @Override
+        public void sendPing() {
+            pings++;
+            if (answeringPings) {
+                pong();
+            }
+        }
+
+        @Override
+        public void abort(String reason) {
+            abortReason = reason;
+            drop();
+        }
+
+        @Override
+        public void closeBlocking() {
+            open = false;
+            onConnectionLost(this, "connection is closed");
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class FragmentingOutputStreamTest {
+    private final ReentrantLock messageLock = new ReentrantLock();
+    private final FragmentsConnection connection = new FragmentsConnection();
+
+    @Test
+    void sendSmallMessageAsOneFrame() throws Exception {
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(64), messageLock, false);
+        out.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        out.finish();
+        assertEquals(List.of("{\"id\":1}"), connection.fragments);
+        assertEquals(List.of(true), connection.lastFlags);
+        assertFalse(messageLock.isLocked());
+        assertFalse(out.abandon());
+    }
+
+    @Test
+    void splitMessageOnCharacterBoundaries() throws Exception {
+        String message = "\u0441\u0432\u044f\u0437\u044c \u20ac\ud834\udd1e ".repeat(50);
+        for (int fragmentSize = 4; fragmentSize <= 16; fragmentSize++) {
+            int size = fragmentSize;
+            FragmentsConnection fragments = new FragmentsConnection();
+            FragmentingOutputStream out = new FragmentingOutputStream(fragments, ByteBuffer.allocate(size), messageLock, false);
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, 7);
+            for (int i = 7; i < 20; i++) {
+                out.write(bytes[i]);
+            }
+            out.write(bytes, 20, bytes.length - 20);
+            out.finish();
+            assertEquals(message, String.join("", fragments.fragments));
+            assertTrue(fragments.sizes.stream().allMatch(s -> s <= size));
+            assertTrue(fragments.fragments.size() > 1);
+            assertTrue(fragments.lastFlags.subList(0, fragments.lastFlags.size() - 1).stream().noneMatch(last -> last));
+            assertTrue(fragments.lastFlags.get(fragments.lastFlags.size() - 1));
+            assertFalse(messageLock.isLocked());
+        }
+    }
+
+    @Test
+    void sendBinaryMessageInFullFragments() throws Exception {
+        byte[] bytes = {(byte) 0xF0, 1, 2, (byte) 0xE0, 3, (byte) 0xC0, 4, 5, 6};
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(4), messageLock, true);
+        out.write(bytes);
+        out.finish();
+        assertArrayEquals(bytes, connection.binary.toByteArray());
+        assertEquals(List.of(4, 4, 1), connection.sizes);
+        assertEquals(List.of(false, false, true), connection.lastFlags);
+        assertTrue(connection.fragments.isEmpty());
+    }
+
+    @Test
+    void holdLockUntilLastFragment() throws Exception {
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(4), messageLock, false);
+        out.write("0123456789".getBytes(StandardCharsets.UTF_8));
+        assertTrue(messageLock.isHeldByCurrentThread());
+        out.finish();
+        assertFalse(messageLock.isLocked());
+        assertEquals("0123456789", String.join("", connection.fragments));
+    }
+
+    @Test
+    void abandonPartiallySentMessage() throws Exception {
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(4), messageLock, false);
+        out.write("0123".getBytes(StandardCharsets.UTF_8));
+        assertFalse(out.abandon());
+        out.write("4567".getBytes(StandardCharsets.UTF_8));
+        assertTrue(out.abandon());
+        assertFalse(messageLock.isLocked());
+        assertFalse(out.isConnectionFailed());
+    }
+
+    @Test
+    void reportFailedConnection() {
+        connection.failed = true;
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(4), messageLock, false);
+        assertThrows(IllegalStateException.class, () -> out.write("01234".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(out.isConnectionFailed());
+        assertTrue(out.abandon());
+        assertFalse(messageLock.isLocked());
+    }
+
+    @Test
+    void abandonMessageWhenLastFragmentFails() throws Exception {
+        connection.failOnLast = true;
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(4), messageLock, false);
+        out.write("0123456789".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, out::finish);
+        assertTrue(out.isConnectionFailed());
+        assertTrue(messageLock.isHeldByCurrentThread());
+        assertTrue(out.abandon());
+        assertFalse(messageLock.isLocked());
+    }
+
+    @Test
+    void releaseLockWhenSingleFrameFails() throws Exception {
+        connection.failOnLast = true;
+        FragmentingOutputStream out = new FragmentingOutputStream(connection, ByteBuffer.allocate(64), messageLock, false);
+        out.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, out::finish);
+        assertFalse(messageLock.isLocked());
+        assertFalse(out.abandon());
+    }
+
+    @Test
+    void reuseReleasedBuffers() {
+        BufferPool pool = new BufferPool(8, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        first.put((byte) 1);
+        pool.release(first);
+        pool.release(second);
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(8, reused.remaining());
+        assertNotSame(second, pool.acquire());
+    }
+
+    private static class FragmentsConnection implements AbstractOstisClient.Connection {
+        private final List<String> fragments = new ArrayList<>();
+        private final List<Integer> sizes = new ArrayList<>();
+        private final List<Boolean> lastFlags = new ArrayList<>();
+        private final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        private boolean failed;
+        private boolean failOnLast;
+
+        @Override
+        public void sendText(ByteBuffer fragment, boolean last) {
+            if (failed || (last && failOnLast)) {
+                throw new IllegalStateException("connection is closed");
+            }
+            sizes.add(fragment.remaining());
+            try {
+                fragments.add(StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .decode(fragment)
+                        .toString());
+            } catch (CharacterCodingException e) {
+                throw new AssertionError("fragment is not ended on the boundary of a character", e);
+            }
+            lastFlags.add(last);
+        }
+
+        @Override
+        public void sendBinary(ByteBuffer fragment, boolean last) {
+            sizes.add(fragment.remaining());
+            while (fragment.hasRemaining()) {
+                binary.write(fragment.get());
+            }
+            lastFlags.add(last);
+        }
+
+        @Override
+        public URI getURI() {
+            return URI.create("ws://localhost:8090/ws_json");
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public boolean connectBlocking() {
+            return true;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !failed;
+        }
+
+        @Override
+        public void sendPing() {
+        }
+
+        @Override
+        public void abort(String reason) {
+        }
+
+        @Override
+        public void closeBlocking() {
+        }
+    }
+}
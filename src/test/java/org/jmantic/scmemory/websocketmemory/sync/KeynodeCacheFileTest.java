@@ -0,0 +1,118 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class KeynodeCacheFileTest {
+    private Path path;
+
+    @BeforeEach
+    public void createPath() throws Exception {
+        path = Files.createTempFile("keynodes", ".cache");
+        Files.delete(path);
+    }
+
+    @AfterEach
+    public void deletePath() throws Exception {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void disabledByDefault() {
+        KeynodeCacheFile file = KeynodeCacheFile.of(new OstisClientConfiguration());
+        assertSame(KeynodeCacheFile.DISABLED, file);
+        assertFalse(file.isEnabled());
+        file.append("concept", 1L);
+        assertArrayEquals(new String[0], file.getSystemIdentifiers());
+    }
+
+    @Test
+    void keepKeynodesBetweenRuns() throws Exception {
+        KeynodeCacheFile file = new KeynodeCacheFile(path);
+        file.open();
+        assertTrue(file.isWritable());
+        file.append("concept", 1L);
+        file.append("\u043f\u043e\u043d\u044f\u0442\u0438\u0435", 2L);
+        file.close();
+
+        KeynodeCacheFile reopened = new KeynodeCacheFile(path);
+        reopened.open();
+        assertArrayEquals(new String[]{"concept", "\u043f\u043e\u043d\u044f\u0442\u0438\u0435"}, reopened.getSystemIdentifiers());
+        assertArrayEquals(new long[]{1L, 2L}, reopened.getAddresses());
+
+        reopened.clear();
+        reopened.append("question", 3L);
+        reopened.close();
+        KeynodeCacheFile cleared = new KeynodeCacheFile(path);
+        cleared.open();
+        assertArrayEquals(new String[]{"question"}, cleared.getSystemIdentifiers());
+        cleared.close();
+    }
+
+    @Test
+    void growBeyondInitialMapping() throws Exception {
+        KeynodeCacheFile file = new KeynodeCacheFile(path);
+        file.open();
+        String identifier = "x".repeat(1000);
+        for (int i = 0; i < 200; i++) {
+            file.append(identifier + i, i + 1);
+        }
+        file.close();
+
+        KeynodeCacheFile reopened = new KeynodeCacheFile(path);
+        reopened.open();
+        assertEquals(200, reopened.getSystemIdentifiers().length);
+        assertEquals(identifier + 199, reopened.getSystemIdentifiers()[199]);
+        assertEquals(200L, reopened.getAddresses()[199]);
+        reopened.close();
+    }
+
+    @Test
+    void clearFileOfAnotherFormat() throws Exception {
+        Files.writeString(path, "not a keynode cache");
+        KeynodeCacheFile file = new KeynodeCacheFile(path);
+        file.open();
+        assertArrayEquals(new String[0], file.getSystemIdentifiers());
+        file.append("concept", 1L);
+        file.close();
+
+        KeynodeCacheFile reopened = new KeynodeCacheFile(path);
+        reopened.open();
+        assertArrayEquals(new String[]{"concept"}, reopened.getSystemIdentifiers());
+        reopened.close();
+    }
+
+    @Test
+    void onlyReadFileLockedByAnotherScMemory() throws Exception {
+        KeynodeCacheFile writer = new KeynodeCacheFile(path);
+        writer.open();
+        writer.append("concept", 1L);
+        KeynodeCacheFile reader = new KeynodeCacheFile(path);
+        reader.open();
+        try {
+            assertFalse(reader.isWritable());
+            assertArrayEquals(new String[]{"concept"}, reader.getSystemIdentifiers());
+            reader.append("question", 2L);
+            reader.clear();
+            assertArrayEquals(new String[]{"concept"}, writer.getSystemIdentifiers());
+        } finally {
+            reader.close();
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.ContentCacheStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class LinkContentCacheTest {
+    private static final int NUMBER = LinkContentCache.weigh(1);
+
+    @Test
+    void disabledByDefault() {
+        LinkContentCache cache = LinkContentCache.of(new OstisClientConfiguration());
+        assertSame(LinkContentCache.DISABLED, cache);
+        assertFalse(cache.isEnabled());
+        cache.put(1L, 1);
+        assertArrayEquals(new int[]{0}, cache.lookup(new long[]{1L}, new Object[1]));
+        assertSame(ContentCacheStats.NONE, cache.getStats());
+    }
+
+    @Test
+    void lookupCachedContents() {
+        LinkContentCache cache = new LinkContentCache(1024);
+        cache.put(1L, 10);
+        cache.putLoaded(cache.getGeneration(), 3L, "text");
+
+        Object[] values = new Object[3];
+        assertArrayEquals(new int[]{1}, cache.lookup(new long[]{1L, 2L, 3L}, values));
+        assertArrayEquals(new Object[]{10, null, "text"}, values);
+
+        ContentCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2, stats.getSize());
+        assertEquals(NUMBER + LinkContentCache.weigh("text"), stats.getWeight());
+    }
+
+    @Test
+    void evictLeastRecentlyUsedContents() {
+        LinkContentCache cache = new LinkContentCache(3L * NUMBER);
+        cache.put(1L, 1);
+        cache.put(2L, 2);
+        cache.put(3L, 3);
+        cache.lookup(new long[]{1L}, new Object[1]);
+        cache.put(4L, 4);
+
+        Object[] values = new Object[4];
+        assertArrayEquals(new int[]{1}, cache.lookup(new long[]{1L, 2L, 3L, 4L}, values));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(3L * NUMBER, cache.getStats().getWeight());
+    }
+
+    @Test
+    void evictByWeightOfStrings() {
+        LinkContentCache cache = new LinkContentCache(LinkContentCache.weigh("x".repeat(100)));
+        cache.put(1L, 1);
+        cache.put(2L, "x".repeat(100));
+        assertArrayEquals(new int[]{0}, cache.lookup(new long[]{1L, 2L}, new Object[2]));
+
+        cache.put(3L, "x".repeat(101));
+        assertArrayEquals(new int[]{0}, cache.lookup(new long[]{3L, 2L}, new Object[2]));
+    }
+
+    @Test
+    void skipLoadedContentAfterWrite() {
+        LinkContentCache cache = new LinkContentCache(1024);
+        long generation = cache.getGeneration();
+        cache.put(1L, 2);
+        cache.putLoaded(generation, 1L, 1);
+        cache.putLoaded(generation, 2L, 1);
+
+        Object[] values = new Object[2];
+        assertArrayEquals(new int[]{1}, cache.lookup(new long[]{1L, 2L}, values));
+        assertEquals(2, values[0]);
+    }
+
+    @Test
+    void invalidateContents() {
+        LinkContentCache cache = new LinkContentCache(1024);
+        cache.put(1L, 1);
+        cache.put(2L, 2);
+        cache.putLoaded(cache.getGeneration(), 3L, null);
+        cache.invalidateAll(new long[]{1L, 2L});
+
+        Object[] values = new Object[3];
+        assertArrayEquals(new int[]{0, 1, 2}, cache.lookup(new long[]{1L, 2L, 3L}, values));
+        assertNull(values[0]);
+        assertEquals(0, cache.getStats().getWeight());
+    }
+
+    @Test
+    void readContentsOfCache() {
+        LinkContents contents = LinkContents.of(new Object[]{7, 2.5, "text", null});
+        assertEquals(7, contents.getInteger(0));
+        assertEquals(2.5, contents.getDouble(1));
+        assertEquals("text", contents.getValue(2));
+        assertNull(contents.getValue(3));
+        assertFalse(contents.isNumber(2));
+    }
+}
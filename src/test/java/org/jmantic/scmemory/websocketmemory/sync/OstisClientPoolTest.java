@@ -0,0 +1,75 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisConnectionLostException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisClientPoolTest {
+    private final List<FakeOstisClient> clients = new ArrayList<>();
+    private OstisClientPool pool;
+
+    @BeforeEach
+    void setUp() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setPingInterval(OstisClientConfiguration.NO_KEEPALIVE);
+        configuration.setReconnectEnabled(false);
+        for (int i = 0; i < 3; i++) {
+            clients.add(new FakeOstisClient(configuration));
+        }
+        pool = new OstisClientPool(new ArrayList<>(clients));
+        pool.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.close();
+    }
+
+    @Test
+    void sendRequestsThroughLeastBusyConnections() {
+        for (long id = 1; id <= 6; id++) {
+            pool.sendToOstisAsync(id, RequestWriter.of("{\"id\":" + id + "}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        }
+        for (FakeOstisClient client : clients) {
+            assertEquals(2, client.getInFlightRequestsCount());
+        }
+        assertEquals(0, pool.getIdleConnectionsCount());
+    }
+
+    @Test
+    void skipClosedConnection() throws Exception {
+        FakeOstisClient closed = clients.get(1);
+        closed.close();
+        for (long id = 1; id <= 6; id++) {
+            pool.sendToOstisAsync(id, RequestWriter.of("{\"id\":" + id + "}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        }
+        assertTrue(closed.getConnection().getMessages().isEmpty());
+        assertEquals(3, clients.get(0).getInFlightRequestsCount());
+        assertEquals(3, clients.get(2).getInFlightRequestsCount());
+    }
+
+    @Test
+    void failRequestWhenNoConnectionIsOpen() throws Exception {
+        for (FakeOstisClient client : clients) {
+            client.getConnection().drop();
+        }
+        var response = pool.sendToOstisAsync(1, RequestWriter.of("{\"id\":1}"), true, OstisClientConfiguration.NO_TIMEOUT);
+        ExecutionException exception = assertThrows(ExecutionException.class, response::get);
+        assertTrue(exception.getCause() instanceof OstisConnectionLostException);
+    }
+}
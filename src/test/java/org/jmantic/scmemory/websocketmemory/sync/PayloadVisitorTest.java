@@ -0,0 +1,95 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PayloadVisitorTest {
+    private final List<String> visited = new ArrayList<>();
+
+    @Test
+    void visitFoundTriples() throws Exception {
+        VisitedResponse response = read("{\"id\":5,\"event\":false,\"status\":true,\"payload\":" +
+                        "{\"aliases\":{\"edge\":1},\"addrs\":[[1,2,3],[1,4,5,6,[7]]]}}",
+                new PayloadVisitor.Triples((source, edge, target) -> visited.add(source + "-" + edge + "-" + target)));
+
+        assertTrue(response.getResponseStatus());
+        assertEquals(2, response.getVisited());
+        assertEquals(List.of("1-2-3", "1-4-5"), visited);
+    }
+
+    @Test
+    void visitNothingIfSearchFailed() throws Exception {
+        PayloadVisitor.Triples triples = new PayloadVisitor.Triples((source, edge, target) -> visited.add("triple"));
+        VisitedResponse failed = read("{\"id\":1,\"payload\":[],\"status\":false}", triples);
+        assertFalse(failed.getResponseStatus());
+        assertEquals(0, failed.getVisited());
+        assertEquals(0, read("{\"id\":1,\"status\":true,\"payload\":{\"addrs\":[]}}", triples).getVisited());
+        assertTrue(visited.isEmpty());
+        assertThrows(IOException.class, () -> read("{\"id\":1,\"payload\":{\"addrs\":[[1,2]]}}", triples));
+    }
+
+    @Test
+    void visitIntegerContents() throws Exception {
+        PayloadVisitor.Contents contents = PayloadVisitor.Contents.integers(new long[]{10L, 11L},
+                (link, content) -> visited.add(link + "=" + content));
+        VisitedResponse response = read("{\"id\":4,\"status\":true,\"payload\":" +
+                "[{\"value\":42,\"type\":\"int\"},{\"type\":\"int\",\"value\":-1}]}", contents);
+
+        assertEquals(2, response.getVisited());
+        assertEquals(-1, contents.getFailedIndex());
+        assertEquals(List.of("10=42", "11=-1"), visited);
+    }
+
+    @Test
+    void stopVisitingAtContentOfAnotherType() throws Exception {
+        PayloadVisitor.Contents contents = PayloadVisitor.Contents.integers(new long[]{10L, 11L, 12L},
+                (link, content) -> visited.add(link + "=" + content));
+        VisitedResponse response = read("{\"id\":4,\"payload\":" +
+                "[{\"value\":1},{\"value\":\"text\"},{\"value\":3}]}", contents);
+
+        assertEquals(3, response.getVisited());
+        assertEquals(1, contents.getFailedIndex());
+        assertEquals(List.of("10=1"), visited);
+    }
+
+    @Test
+    void visitIntegersAsFloats() throws Exception {
+        PayloadVisitor.Contents contents = PayloadVisitor.Contents.floats(new long[]{10L, 11L, 12L},
+                (link, content) -> visited.add(link + "=" + content));
+        read("{\"id\":4,\"payload\":[{\"value\":1.5},{\"value\":2},{\"value\":null}]}", contents);
+
+        assertEquals(2, contents.getFailedIndex());
+        assertEquals(List.of("10=1.5", "11=2.0"), visited);
+    }
+
+    @Test
+    void visitPayloadInBinaryFormat() throws Exception {
+        byte[] message = new ObjectMapper(new CBORFactory()).writeValueAsBytes(new ObjectMapper()
+                .readTree("{\"id\":5,\"status\":true,\"payload\":{\"addrs\":[[1,4294967296,3]]}}"));
+        VisitedResponse response = VisitedResponse.read(WireCodec.of(WireFormat.CBOR), OstisMessage.ofBytes(message),
+                new PayloadVisitor.Triples((source, edge, target) -> visited.add(String.valueOf(edge))));
+
+        assertEquals(1, response.getVisited());
+        assertEquals(List.of("4294967296"), visited);
+    }
+
+    private static VisitedResponse read(String json, PayloadVisitor visitor) throws IOException {
+        return VisitedResponse.read(JacksonWireCodec.JSON, OstisMessage.ofText(json), visitor);
+    }
+}
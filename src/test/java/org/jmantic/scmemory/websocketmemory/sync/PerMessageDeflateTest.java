@@ -0,0 +1,182 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.framing.ContinuousFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.PingFrame;
+import org.java_websocket.framing.TextFrame;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PerMessageDeflateTest {
+    private static final byte[] TAIL = {0, 0, (byte) 0xFF, (byte) 0xFF};
+    private static final String LARGE_MESSAGE = "{\"type\":\"link\",\"content\":\"large content of the link\"},".repeat(100);
+
+    private final CompressionCounters counters = new CompressionCounters();
+    private final PerMessageDeflate extension = new PerMessageDeflate(64, counters);
+
+    @Test
+    void compressMessageAboveThreshold() throws Exception {
+        DataFrame frame = frame(new TextFrame(), LARGE_MESSAGE, true);
+        extension.encodeFrame(frame);
+        assertTrue(frame.isRSV1());
+        byte[] compressed = bytes(frame.getPayloadData());
+        assertTrue(compressed.length < LARGE_MESSAGE.length() / 10);
+        assertEquals(LARGE_MESSAGE, inflate(new Inflater(true), compressed, TAIL));
+
+        CompressionStats stats = counters.snapshot();
+        assertEquals(1, stats.getCompressedSentMessages());
+        assertEquals(LARGE_MESSAGE.length(), stats.getSentBytes());
+        assertEquals(compressed.length, stats.getSentWireBytes());
+        assertTrue(stats.getSentRatio() > 10);
+    }
+
+    @Test
+    void sendMessageBelowThresholdAsItIs() {
+        DataFrame frame = frame(new TextFrame(), "{\"id\":1}", true);
+        extension.encodeFrame(frame);
+        assertFalse(frame.isRSV1());
+        assertEquals("{\"id\":1}", StandardCharsets.UTF_8.decode(frame.getPayloadData()).toString());
+
+        CompressionStats stats = counters.snapshot();
+        assertEquals(1, stats.getSentMessages());
+        assertEquals(0, stats.getCompressedSentMessages());
+        assertEquals(1.0, stats.getSentRatio());
+    }
+
+    /**
+     * The first fragment is smaller than the threshold, but the message is not.
+     */
+    @Test
+    void compressAllFragmentsOfMessage() throws Exception {
+        String[] parts = {"{\"payload\":[", LARGE_MESSAGE, LARGE_MESSAGE + "]}"};
+        DataFrame[] frames = {
+                frame(new TextFrame(), parts[0], false),
+                frame(new ContinuousFrame(), parts[1], false),
+                frame(new ContinuousFrame(), parts[2], true)};
+        Inflater inflater = new Inflater(true);
+        StringBuilder message = new StringBuilder();
+        for (DataFrame frame : frames) {
+            extension.encodeFrame(frame);
+            message.append(inflate(inflater, bytes(frame.getPayloadData()), frame.isFin() ? TAIL : new byte[0]));
+        }
+        assertTrue(frames[0].isRSV1());
+        assertFalse(frames[1].isRSV1());
+        assertFalse(frames[2].isRSV1());
+        assertEquals(String.join("", parts), message.toString());
+        assertEquals(1, counters.snapshot().getCompressedSentMessages());
+    }
+
+    @Test
+    void keepContextBetweenMessages() throws Exception {
+        PerMessageDeflate receiver = new PerMessageDeflate(64, new CompressionCounters());
+        for (int i = 0; i < 3; i++) {
+            DataFrame frame = frame(new TextFrame(), LARGE_MESSAGE, true);
+            extension.encodeFrame(frame);
+            receiver.decodeFrame(frame);
+            assertFalse(frame.isRSV1());
+            assertEquals(LARGE_MESSAGE, StandardCharsets.UTF_8.decode(frame.getPayloadData()).toString());
+        }
+        CompressionStats stats = counters.snapshot();
+        assertEquals(3, stats.getCompressedSentMessages());
+        assertTrue(stats.getSentWireBytes() < stats.getSentBytes() / 20);
+    }
+
+    @Test
+    void decompressOnlyMessagesWithRsv1() throws Exception {
+        PerMessageDeflate sender = new PerMessageDeflate(OstisClientConfiguration.COMPRESS_ALL_MESSAGES, new CompressionCounters());
+        DataFrame compressed = frame(new TextFrame(), LARGE_MESSAGE, true);
+        sender.encodeFrame(compressed);
+        int wireSize = compressed.getPayloadData().remaining();
+        DataFrame plain = frame(new TextFrame(), "{\"id\":1}", true);
+
+        extension.decodeFrame(compressed);
+        extension.decodeFrame(plain);
+        assertEquals(LARGE_MESSAGE, StandardCharsets.UTF_8.decode(compressed.getPayloadData()).toString());
+        assertEquals("{\"id\":1}", StandardCharsets.UTF_8.decode(plain.getPayloadData()).toString());
+
+        CompressionStats stats = counters.snapshot();
+        assertEquals(2, stats.getReceivedMessages());
+        assertEquals(1, stats.getCompressedReceivedMessages());
+        assertEquals(LARGE_MESSAGE.length() + 8, stats.getReceivedBytes());
+        assertEquals(wireSize + 8, stats.getReceivedWireBytes());
+    }
+
+    @Test
+    void rejectRsv1InContinuationFrame() throws Exception {
+        DataFrame frame = frame(new ContinuousFrame(), "{}", true);
+        frame.setRSV1(true);
+        assertThrows(InvalidDataException.class, () -> extension.isFrameValid(frame));
+        DataFrame first = frame(new TextFrame(), "{}", false);
+        first.setRSV1(true);
+        extension.isFrameValid(first);
+    }
+
+    @Test
+    void ignoreControlFrames() throws Exception {
+        PingFrame ping = new PingFrame();
+        extension.encodeFrame(ping);
+        extension.decodeFrame(ping);
+        assertFalse(ping.isRSV1());
+        assertEquals(0, counters.snapshot().getSentMessages());
+    }
+
+    @Test
+    void acceptOnlyPermessageDeflate() {
+        assertEquals("permessage-deflate", extension.getProvidedExtensionAsClient());
+        assertTrue(extension.acceptProvidedExtensionAsClient("permessage-deflate; server_no_context_takeover"));
+        assertTrue(extension.acceptProvidedExtensionAsClient("x-webkit-deflate-frame, permessage-deflate"));
+        assertFalse(extension.acceptProvidedExtensionAsClient("x-webkit-deflate-frame"));
+        assertFalse(extension.acceptProvidedExtensionAsClient(""));
+    }
+
+    @Test
+    void resetContextIfServerAsks() throws Exception {
+        assertTrue(extension.acceptProvidedExtensionAsClient("permessage-deflate; client_no_context_takeover"));
+        for (int i = 0; i < 2; i++) {
+            DataFrame frame = frame(new TextFrame(), LARGE_MESSAGE, true);
+            extension.encodeFrame(frame);
+            assertEquals(LARGE_MESSAGE, inflate(new Inflater(true), bytes(frame.getPayloadData()), TAIL));
+        }
+    }
+
+    private static DataFrame frame(DataFrame frame, String payload, boolean fin) {
+        frame.setPayload(ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8)));
+        frame.setFin(fin);
+        return frame;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static String inflate(Inflater inflater, byte[] compressed, byte[] tail) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[1024];
+        for (byte[] input : new byte[][]{compressed, tail}) {
+            inflater.setInput(input);
+            int count;
+            while ((count = inflater.inflate(chunk)) > 0) {
+                out.write(chunk, 0, count);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
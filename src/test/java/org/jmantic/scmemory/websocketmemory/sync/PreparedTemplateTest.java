@@ -0,0 +1,108 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.message.request.SearchByTemplateRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PreparedTemplateTest {
+
+    @Test
+    void spliceAddressesIntoNodeEdgeNode() throws Exception {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS_CONST_POS_PERM, NodeType.NODE).request(11);
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"search_template\",\"payload\":[[" +
+                        "{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":2224},{\"type\":\"type\",\"value\":1}]]}",
+                write(request));
+        assertEquals(writeWithGenerator(request), write(request));
+    }
+
+    @Test
+    void spliceAddressesIntoNodeEdgeLink() throws Exception {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLink(EdgeType.D_COMMON, LinkType.LINK).request(11);
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"search_template\",\"payload\":[[" +
+                        "{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":8},{\"type\":\"type\",\"value\":2}]]}",
+                write(request));
+        assertEquals(writeWithGenerator(request), write(request));
+    }
+
+    @Test
+    void spliceAddressesIntoNodeEdgeLinkWithRelation() throws Exception {
+        SearchByTemplateRequest request = PreparedTemplate.nodeEdgeLinkWithRelation(EdgeType.D_COMMON,
+                LinkType.LINK,
+                EdgeType.ACCESS_CONST_POS_PERM).request(11, 12);
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"search_template\",\"payload\":[" +
+                        "[{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":8,\"alias\":\"edge_alias\"},{\"type\":\"type\",\"value\":2}]," +
+                        "[{\"type\":\"addr\",\"value\":12},{\"type\":\"type\",\"value\":2224},{\"type\":\"alias\",\"value\":\"edge_alias\"}]]}",
+                write(request));
+        assertEquals(writeWithGenerator(request), write(request));
+    }
+
+    @Test
+    void writeAnyAddress() throws Exception {
+        PreparedTemplate template = PreparedTemplate.nodeEdgeLinkWithRelation(EdgeType.ACCESS, LinkType.LINK, EdgeType.ACCESS);
+        long[] addresses = {0, 9, 10, -1, 4294967296L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long fixed : addresses) {
+            for (long relation : addresses) {
+                SearchByTemplateRequest request = template.request(fixed, relation);
+                assertEquals(writeWithGenerator(request), write(request));
+            }
+        }
+    }
+
+    @Test
+    void compileShapeOnce() {
+        assertSame(PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.NODE),
+                PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.NODE));
+        assertNotSame(PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.NODE),
+                PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.CONST));
+    }
+
+    @Test
+    void createRequestsWithNewIds() {
+        PreparedTemplate template = PreparedTemplate.nodeEdgeLink(EdgeType.ACCESS, LinkType.LINK);
+        SearchByTemplateRequest first = template.request(1);
+        SearchByTemplateRequest second = template.request(1);
+        assertTrue(first.getRequestId() != second.getRequestId());
+        assertTrue(first.isIdempotent());
+    }
+
+    @Test
+    void failOnWrongNumberOfAddresses() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.NODE).request(1, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> PreparedTemplate.nodeEdgeLinkWithRelation(EdgeType.ACCESS, LinkType.LINK, EdgeType.ACCESS).request(1));
+    }
+
+    /**
+     * Writes the request like any other request, without its serialized segments.
+     */
+    private static String writeWithGenerator(SearchByTemplateRequest request) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JacksonWireCodec.JSON.createGenerator(out)) {
+            ((AbstractScRequest) request).writeTo(generator);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String write(SearchByTemplateRequest request) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RequestEncoder.writerOf(request).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,208 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Measures time and allocation of writing requests with 10k elements into the fragments of a connection,
+ * and allocation of bigger requests written the same way.
+ * <p>
+ * Run with {@code gradle benchmark}, it is excluded from the usual test run.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+@Tag("benchmark")
+public class RequestEncoderBenchmark {
+    private static final int ELEMENTS = 10_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void createElementsRequest() throws Exception {
+        measure("create_elements (nodes)", () -> {
+            CreateScElRequestImpl request = new CreateScElRequestImpl();
+            for (int i = 0; i < ELEMENTS; i++) {
+                request.addElementToRequest(new ScNodeImpl(NodeType.CONST));
+            }
+            return request;
+        });
+        measure("create_elements (string links)", () -> {
+            CreateScElRequestImpl request = new CreateScElRequestImpl();
+            for (int i = 0; i < ELEMENTS; i++) {
+                ScLinkStringImpl link = new ScLinkStringImpl(LinkType.LINK);
+                link.setContent("content of link " + i);
+                request.addElementToRequest(link);
+            }
+            return request;
+        });
+        measure("create_elements (edges)", () -> {
+            CreateScElRequestImpl request = new CreateScElRequestImpl();
+            ScNodeImpl source = new ScNodeImpl(NodeType.CONST, 1L);
+            for (int i = 0; i < ELEMENTS; i++) {
+                request.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, source, new ScNodeImpl(NodeType.NODE, (long) i)));
+            }
+            return request;
+        });
+    }
+
+    @Test
+    void contentRequests() throws Exception {
+        measure("content (get)", () -> {
+            GetLinkContentRequestImpl request = new GetLinkContentRequestImpl();
+            for (int i = 0; i < ELEMENTS; i++) {
+                request.addAddressToRequest(i);
+            }
+            return request;
+        });
+        measure("content (set)", () -> {
+            SetLinkContentRequestImpl request = new SetLinkContentRequestImpl();
+            for (int i = 0; i < ELEMENTS; i++) {
+                request.addToRequest(new ScLinkIntegerImpl(LinkType.LINK, (long) i), i);
+            }
+            return request;
+        });
+    }
+
+    @Test
+    void deleteElementsRequest() throws Exception {
+        measure("delete_elements", () -> {
+            DeleteScElRequestImpl request = new DeleteScElRequestImpl();
+            for (long i = 0; i < ELEMENTS; i++) {
+                request.addAddressToRequest(i);
+            }
+            return request;
+        });
+    }
+
+    /**
+     * Bytes allocated by writing into fragments must not grow with the size of the request.
+     */
+    @Test
+    void fragmentedWrite() throws Exception {
+        for (int elements = ELEMENTS; elements <= ELEMENTS * 100; elements *= 10) {
+            GetLinkContentRequestImpl request = new GetLinkContentRequestImpl();
+            for (int i = 0; i < elements; i++) {
+                request.addAddressToRequest(i);
+            }
+            Callable<Long> write = fragmentedWriter(request);
+            for (int i = 0; i < WARMUP_ITERATIONS / 10; i++) {
+                write.call();
+            }
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().getId();
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                write.call();
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            System.out.printf("%-32s %,10d elements %,10d us/op %,12d bytes/op%n",
+                    "content (get) in fragments", elements, elapsed / (ITERATIONS / 10) / 1000, allocated / (ITERATIONS / 10));
+        }
+    }
+
+    /**
+     * @return task that writes the request into the fragments of a connection that discards them,
+     * like the client sends it, and returns the number of the written bytes
+     */
+    private static Callable<Long> fragmentedWriter(ScRequest request) {
+        BufferPool buffers = new BufferPool(64 * 1024, 1);
+        ReentrantLock messageLock = new ReentrantLock();
+        AtomicLong sent = new AtomicLong();
+        AbstractOstisClient.Connection discarding = discardingConnection(sent);
+        RequestWriter writer = RequestEncoder.writerOf(request);
+        return () -> {
+            sent.set(0);
+            ByteBuffer buffer = buffers.acquire();
+            FragmentingOutputStream out = new FragmentingOutputStream(discarding, buffer, messageLock, false);
+            writer.writeTo(out);
+            out.finish();
+            buffers.release(buffer);
+            return sent.get();
+        };
+    }
+
+    private static AbstractOstisClient.Connection discardingConnection(AtomicLong sent) {
+        return new AbstractOstisClient.Connection() {
+            @Override
+            public URI getURI() {
+                return URI.create("ws://localhost:8090/ws_json");
+            }
+
+            @Override
+            public void connect() {
+            }
+
+            @Override
+            public boolean connectBlocking() {
+                return true;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void sendText(ByteBuffer fragment, boolean last) {
+                sent.addAndGet(fragment.remaining());
+                fragment.position(fragment.limit());
+            }
+
+            @Override
+            public void sendBinary(ByteBuffer fragment, boolean last) {
+                sent.addAndGet(fragment.remaining());
+                fragment.position(fragment.limit());
+            }
+
+            @Override
+            public void sendPing() {
+            }
+
+            @Override
+            public void abort(String reason) {
+            }
+
+            @Override
+            public void closeBlocking() {
+            }
+        };
+    }
+
+    /**
+     * The request is built once, so only the writing is measured.
+     */
+    private static void measure(String name, Supplier<ScRequest> requestFactory) throws Exception {
+        Callable<Long> write = fragmentedWriter(requestFactory.get());
+        long length = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            length = write.call();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            write.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-32s %,10d bytes %,10d us/op %,12d bytes/op%n",
+                name, length, elapsed / ITERATIONS / 1000, allocated / ITERATIONS);
+    }
+}
@@ -0,0 +1,148 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.event.EventType;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the encoders write the same json that the sc-machine accepted from the object mapper.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class RequestEncoderTest {
+    private final ScNodeImpl first = new ScNodeImpl(NodeType.CONST, 11L);
+    private final ScNodeImpl second = new ScNodeImpl(NodeType.NODE, 12L);
+
+    @Test
+    void encodeCreateElementsRequest() throws Exception {
+        CreateScElRequestImpl request = new CreateScElRequestImpl();
+        request.addElementToRequest(new ScNodeImpl(NodeType.NODE));
+        ScLinkIntegerImpl integerLink = new ScLinkIntegerImpl(LinkType.LINK);
+        integerLink.setContent(-5);
+        ScLinkFloatImpl floatLink = new ScLinkFloatImpl(LinkType.LINK_CONST);
+        floatLink.setContent(1.5f);
+        ScLinkStringImpl stringLink = new ScLinkStringImpl(LinkType.LINK);
+        stringLink.setContent("a \"q\"\n");
+        request.addToRequest(List.of(integerLink, floatLink, stringLink));
+        request.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, first, second));
+        request.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, 0, second));
+        request.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, first, 1));
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"create_elements\",\"payload\":[" +
+                        "{\"el\":\"node\",\"type\":1}," +
+                        "{\"el\":\"link\",\"type\":2,\"content\":-5,\"content_type\":\"int\"}," +
+                        "{\"el\":\"link\",\"type\":34,\"content\":1.5,\"content_type\":\"float\"}," +
+                        "{\"el\":\"link\",\"type\":2,\"content\":\"a \\\"q\\\"\\n\",\"content_type\":\"string\"}," +
+                        "{\"el\":\"edge\",\"src\":{\"type\":\"addr\",\"value\":11},\"trg\":{\"type\":\"addr\",\"value\":12},\"type\":16}," +
+                        "{\"el\":\"edge\",\"src\":{\"type\":\"ref\",\"value\":0},\"trg\":{\"type\":\"addr\",\"value\":12},\"type\":16}," +
+                        "{\"el\":\"edge\",\"src\":{\"type\":\"addr\",\"value\":11},\"trg\":{\"type\":\"ref\",\"value\":1},\"type\":16}]}",
+                encode(request));
+    }
+
+    @Test
+    void encodeDeleteElementsRequest() throws Exception {
+        DeleteScElRequestImpl request = new DeleteScElRequestImpl();
+        request.addToRequest(List.of(1L, 2L));
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"delete_elements\",\"payload\":[1,2]}",
+                encode(request));
+    }
+
+    @Test
+    void encodeEventsRequest() throws Exception {
+        EventsRequest request = new EventsRequest(new long[]{5L, 6L},
+                new EventType[]{EventType.ON_CONTENT_CHANGE, EventType.ON_DELETE_ELEMENT},
+                new long[]{20L});
+        assertEquals(4, request.getCreatedCount());
+        assertEquals("{\"id\":" + request.getRequestId() + ",\"type\":\"events\",\"payload\":{\"create\":[" +
+                        "{\"type\":\"content_change\",\"addr\":5},{\"type\":\"delete_element\",\"addr\":5}," +
+                        "{\"type\":\"content_change\",\"addr\":6},{\"type\":\"delete_element\",\"addr\":6}]," +
+                        "\"delete\":[20]}}",
+                encode(request));
+        EventsRequest delete = new EventsRequest(new long[0], new EventType[]{EventType.ON_CONTENT_CHANGE}, new long[]{1L, 2L});
+        assertEquals("{\"id\":" + delete.getRequestId() + ",\"type\":\"events\",\"payload\":{\"delete\":[1,2]}}",
+                encode(delete));
+    }
+
+    @Test
+    void encodeKeynodesRequest() throws Exception {
+        KeynodesRequest find = new KeynodesRequest(new String[]{"nrel_main_idtf", "concept"}, (NodeType) null);
+        assertEquals("{\"id\":" + find.getRequestId() + ",\"type\":\"keynodes\",\"payload\":[" +
+                        "{\"command\":\"find\",\"idtf\":\"nrel_main_idtf\"},{\"command\":\"find\",\"idtf\":\"concept\"}]}",
+                encode(find));
+        KeynodesRequest resolve = new KeynodesRequest(new String[]{"concept"}, NodeType.CONST);
+        assertEquals("{\"id\":" + resolve.getRequestId() + ",\"type\":\"keynodes\",\"payload\":[" +
+                        "{\"command\":\"resolve\",\"idtf\":\"concept\",\"elType\":33}]}",
+                encode(resolve));
+        KeynodesRequest mixed = new KeynodesRequest(new String[]{"nrel_main_idtf", "concept"}, new NodeType[]{null, NodeType.CONST});
+        assertEquals("{\"id\":" + mixed.getRequestId() + ",\"type\":\"keynodes\",\"payload\":[" +
+                        "{\"command\":\"find\",\"idtf\":\"nrel_main_idtf\"},{\"command\":\"resolve\",\"idtf\":\"concept\",\"elType\":33}]}",
+                encode(mixed));
+        assertThrows(IllegalArgumentException.class, () -> new KeynodesRequest(new String[]{"concept"}, new NodeType[0]));
+    }
+
+    @Test
+    void encodeContentRequests() throws Exception {
+        GetLinkContentRequestImpl get = new GetLinkContentRequestImpl();
+        get.addToRequest(List.of(3L));
+        get.addAddressToRequest(4L);
+        assertEquals("{\"id\":" + get.getRequestId() + ",\"type\":\"content\",\"payload\":[" +
+                        "{\"command\":\"get\",\"addr\":3},{\"command\":\"get\",\"addr\":4}]}",
+                encode(get));
+
+        SetLinkContentRequestImpl set = new SetLinkContentRequestImpl();
+        set.addToRequest(new ScLinkIntegerImpl(LinkType.LINK, 21L), 7);
+        set.addToRequest(new ScLinkFloatImpl(LinkType.LINK, 22L), 2.25f);
+        set.addToRequest(new ScLinkStringImpl(LinkType.LINK, 23L), "x\ty");
+        assertEquals("{\"id\":" + set.getRequestId() + ",\"type\":\"content\",\"payload\":[" +
+                        "{\"command\":\"set\",\"type\":\"int\",\"data\":7,\"addr\":21}," +
+                        "{\"command\":\"set\",\"type\":\"float\",\"data\":2.25,\"addr\":22}," +
+                        "{\"command\":\"set\",\"type\":\"string\",\"data\":\"x\\ty\",\"addr\":23}]}",
+                encode(set));
+    }
+
+    @Test
+    void encodeSearchTemplateRequests() throws Exception {
+        var nodeEdgeNode = new SearchByTemplateNodeEdgeNodeRequestImpl(first, EdgeType.ACCESS_CONST_POS_PERM, NodeType.NODE);
+        assertEquals("{\"id\":" + nodeEdgeNode.getRequestId() + ",\"type\":\"search_template\",\"payload\":[[" +
+                        "{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":2224},{\"type\":\"type\",\"value\":1}]]}",
+                encode(nodeEdgeNode));
+
+        var nodeEdgeLink = new SearchByTemplateNodeEdgeLinkRequestImpl(first, EdgeType.D_COMMON, LinkType.LINK);
+        assertEquals("{\"id\":" + nodeEdgeLink.getRequestId() + ",\"type\":\"search_template\",\"payload\":[[" +
+                        "{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":8},{\"type\":\"type\",\"value\":2}]]}",
+                encode(nodeEdgeLink));
+
+        var withRelation = new SearchByTemplateNodeEdgeLinkWithRelationRequestImpl(first,
+                EdgeType.D_COMMON,
+                LinkType.LINK,
+                second,
+                EdgeType.ACCESS_CONST_POS_PERM);
+        assertEquals("{\"id\":" + withRelation.getRequestId() + ",\"type\":\"search_template\",\"payload\":[" +
+                        "[{\"type\":\"addr\",\"value\":11},{\"type\":\"type\",\"value\":8,\"alias\":\"edge_alias\"},{\"type\":\"type\",\"value\":2}]," +
+                        "[{\"type\":\"addr\",\"value\":12},{\"type\":\"type\",\"value\":2224},{\"type\":\"alias\",\"value\":\"edge_alias\"}]]}",
+                encode(withRelation));
+    }
+
+    @Test
+    void failOnUnsupportedLinkContent() {
+        SetLinkContentRequestImpl request = new SetLinkContentRequestImpl();
+        request.addToRequest(new ScLinkStringImpl(LinkType.LINK, 1L), new Object());
+        assertThrows(IllegalArgumentException.class, () -> encode(request));
+    }
+
+    private static String encode(ScRequest request) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RequestEncoder.writerOf(request).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jmantic.scmemory.websocketmemory.message.response.SearchByTemplateResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class SearchByTemplateResponseTest {
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void readFoundAddressesWithoutBoxing() throws Exception {
+        SearchByTemplateResponseImpl response = read("{\"id\":5,\"event\":false,\"status\":true,\"payload\":" +
+                "{\"addrs\":[[1,2,3],[1,4,5]],\"aliases\":{\"edge_alias\":1,\"link\":2}}}");
+        assertEquals(5, response.getResponseId());
+        assertEquals(2, response.getFoundConstructionsCount());
+        assertEquals(3, response.getFoundConstructionSize());
+        assertEquals(2L, response.getFoundAddress(0, 1));
+        assertEquals(5L, response.getFoundAddress(1, 2));
+        assertEquals(Map.of("edge_alias", 1, "link", 2), response.getAliases());
+        assertThrows(IndexOutOfBoundsException.class, () -> response.getFoundAddress(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> response.getFoundAddress(0, 3));
+    }
+
+    @Test
+    void streamFoundAddresses() throws Exception {
+        SearchByTemplateResponseImpl response = read("{\"id\":1,\"payload\":{\"aliases\":{},\"addrs\":[[1,2,3],[1,4,5]]}}");
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(1L, 4L, 5L)),
+                response.getFoundAddresses().map(Stream::toList).toList());
+    }
+
+    @Test
+    void readNothingFound() throws Exception {
+        assertEquals(0, read("{\"id\":1,\"payload\":{\"addrs\":[],\"aliases\":{}}}").getFoundConstructionsCount());
+        assertEquals(0, read("{\"id\":1,\"status\":false,\"payload\":[]}").getFoundConstructionsCount());
+        assertEquals(0, read("{\"id\":1,\"status\":false,\"payload\":null}").getFoundConstructionsCount());
+        assertEquals(0, read("{\"id\":1,\"status\":false}").getFoundConstructionsCount());
+    }
+
+    @Test
+    void readManyFoundAddresses() throws Exception {
+        StringBuilder json = new StringBuilder("{\"id\":1,\"payload\":{\"addrs\":[");
+        for (int i = 0; i < 10_000; i++) {
+            json.append(i == 0 ? "" : ",").append("[1,").append(i).append(',').append(i + 100_000).append(']');
+        }
+        SearchByTemplateResponseImpl response = read(json.append("]}}").toString());
+        assertEquals(10_000, response.getFoundConstructionsCount());
+        assertEquals(9_999L, response.getFoundAddress(9_999, 1));
+        assertEquals(109_999L, response.getFoundAddress(9_999, 2));
+    }
+
+    @Test
+    void failOnConstructionsOfDifferentSize() {
+        assertThrows(JsonMappingException.class,
+                () -> read("{\"id\":1,\"payload\":{\"addrs\":[[1,2,3],[1,2]]}}"));
+    }
+
+    @Test
+    void readFoundAddressesOfOtherImplementations() {
+        SearchByTemplateResponse response = new SearchByTemplateResponse() {
+            @Override
+            public Stream<Stream<Long>> getFoundAddresses() {
+                return Stream.of(Stream.of(1L, 2L, 3L), Stream.of(1L, 4L, 5L));
+            }
+
+            @Override
+            public long getResponseId() {
+                return 1;
+            }
+
+            @Override
+            public boolean getResponseStatus() {
+                return true;
+            }
+
+            @Override
+            public boolean getEvent() {
+                return false;
+            }
+        };
+        assertEquals(2, response.getFoundConstructionsCount());
+        assertEquals(3, response.getFoundConstructionSize());
+        assertEquals(5L, response.getFoundAddress(1, 2));
+        assertEquals(Map.of(), response.getAliases());
+        assertThrows(IndexOutOfBoundsException.class, () -> response.getFoundAddress(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> response.getFoundAddress(0, 3));
+    }
+
+    private SearchByTemplateResponseImpl read(String json) throws Exception {
+        return mapper.readValue(json, SearchByTemplateResponseImpl.class);
+    }
+}
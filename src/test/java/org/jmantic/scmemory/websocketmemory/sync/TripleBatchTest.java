@@ -0,0 +1,133 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkFloat;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class TripleBatchTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ScNodeImpl fixedNode = new ScNodeImpl(NodeType.CONST, 1L);
+
+    @Test
+    void keepAddressesInColumns() throws Exception {
+        TripleBatchImpl<NodeType> batch = TripleBatchImpl.nodes(found("[[1,2,3],[1,4,5],[1,6,7]]"),
+                fixedNode,
+                EdgeType.ACCESS,
+                NodeType.NODE);
+
+        assertEquals(3, batch.size());
+        assertEquals(1L, batch.getSource(2));
+        assertEquals(4L, batch.getEdge(1));
+        assertEquals(7L, batch.getTarget(2));
+        assertArrayEquals(new long[]{2L, 4L, 6L}, batch.getEdges());
+        assertArrayEquals(new long[]{3L, 5L, 7L}, batch.getTargets());
+        assertEquals(EdgeType.ACCESS, batch.getEdgeType());
+        assertEquals(NodeType.NODE, batch.getTargetType());
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getTarget(3));
+
+        batch.getSources()[0] = 100L;
+        assertEquals(1L, batch.getSource(0));
+    }
+
+    @Test
+    void convertNodeTriplesToEdges() throws Exception {
+        List<? extends ScEdge> edges = TripleBatchImpl.nodes(found("[[1,2,3],[1,4,5]]"), fixedNode, EdgeType.ACCESS, NodeType.NODE)
+                .toScEdges()
+                .toList();
+
+        assertEquals(2, edges.size());
+        assertEquals(4L, edges.get(1).getAddress());
+        assertEquals(EdgeType.ACCESS, edges.get(1).getType());
+        assertSame(fixedNode, edges.get(1).getSource());
+        assertEquals(5L, edges.get(1).getTarget().getAddress());
+        assertEquals(NodeType.NODE, ((ScNode) edges.get(1).getTarget()).getType());
+    }
+
+    @Test
+    void readContentOfAllLinksByOneRequest() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        TripleBatchImpl<LinkType> batch = TripleBatchImpl.links(found("[[1,2,3],[1,4,5]]"),
+                fixedNode,
+                EdgeType.ACCESS,
+                LinkType.LINK,
+                LinkContentType.STRING,
+                links -> {
+                    requests.incrementAndGet();
+                    assertArrayEquals(new long[]{3L, 5L}, links);
+                    return contents("[{\"value\":\"first\"},{\"value\":\"second\"}]");
+                });
+        assertEquals(0, requests.get());
+
+        List<? extends ScEdge> edges = batch.toScEdges().toList();
+        assertEquals(1, requests.get());
+        assertEquals("second", ((ScLinkString) edges.get(1).getTarget()).getContent());
+        assertEquals(5L, edges.get(1).getTarget().getAddress());
+    }
+
+    @Test
+    void convertIntegerContentOfFloatLinks() throws Exception {
+        ScEdge edge = TripleBatchImpl.links(found("[[1,2,3]]"), fixedNode, EdgeType.ACCESS, LinkType.LINK, LinkContentType.FLOAT,
+                        links -> contents("[{\"value\":2}]"))
+                .toScEdges()
+                .findFirst()
+                .get();
+        assertEquals(2f, ((ScLinkFloat) edge.getTarget()).getContent());
+    }
+
+    @Test
+    void failOnLinksWithoutContent() throws Exception {
+        TripleBatchImpl<LinkType> batch = TripleBatchImpl.links(found("[[1,2,3]]"), fixedNode, EdgeType.ACCESS, LinkType.LINK,
+                LinkContentType.INTEGER,
+                links -> contents("[{\"value\":null}]"));
+        assertThrows(ScMemoryException.class, batch::toScEdges);
+
+        TripleBatchImpl<LinkType> binary = TripleBatchImpl.links(found("[[1,2,3]]"), fixedNode, EdgeType.ACCESS, LinkType.LINK,
+                LinkContentType.BINARY,
+                links -> contents("[]"));
+        assertThrows(UnsupportedOperationException.class, binary::toScEdges);
+    }
+
+    @Test
+    void createEmptyBatch() throws Exception {
+        TripleBatchImpl<NodeType> batch = TripleBatchImpl.nodes(
+                mapper.readValue("{\"id\":1,\"status\":false,\"payload\":[]}", SearchByTemplateResponseImpl.class),
+                fixedNode,
+                EdgeType.ACCESS,
+                NodeType.NODE);
+        assertEquals(0, batch.size());
+        assertEquals(0, batch.toScEdges().count());
+    }
+
+    private SearchByTemplateResponseImpl found(String addresses) throws Exception {
+        return mapper.readValue("{\"id\":1,\"payload\":{\"addrs\":" + addresses + ",\"aliases\":{}}}",
+                SearchByTemplateResponseImpl.class);
+    }
+
+    private LinkContents contents(String payload) {
+        try {
+            return mapper.readValue("{\"id\":1,\"payload\":" + payload + "}", GetLinkContentResponseImpl.class).getLinkContents();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that requests and responses have the same content in every wire format.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class WireCodecTest {
+    private static final Map<WireFormat, ObjectMapper> mappers = Map.of(
+            WireFormat.JSON, new ObjectMapper(),
+            WireFormat.SMILE, new ObjectMapper(new SmileFactory()),
+            WireFormat.CBOR, new ObjectMapper(new CBORFactory()));
+
+    private final ScNodeImpl first = new ScNodeImpl(NodeType.CONST, 11L);
+    private final ScNodeImpl second = new ScNodeImpl(NodeType.NODE, 12L);
+
+    @Test
+    void chooseCodecByFormat() {
+        assertSame(JacksonWireCodec.JSON, WireCodec.of(WireFormat.JSON));
+        assertFalse(WireCodec.of(WireFormat.JSON).isBinary());
+        for (WireFormat format : List.of(WireFormat.SMILE, WireFormat.CBOR)) {
+            assertEquals(format, WireCodec.of(format).getFormat());
+            assertTrue(WireCodec.of(format).isBinary());
+        }
+    }
+
+    @Test
+    void encodeRequestsInEveryFormat() throws Exception {
+        CreateScElRequestImpl create = new CreateScElRequestImpl();
+        create.addElementToRequest(new ScNodeImpl(NodeType.NODE));
+        ScLinkStringImpl stringLink = new ScLinkStringImpl(LinkType.LINK);
+        stringLink.setContent("a \"q\"\n");
+        create.addElementToRequest(stringLink);
+        ScLinkFloatImpl floatLink = new ScLinkFloatImpl(LinkType.LINK_CONST);
+        floatLink.setContent(1.5f);
+        create.addElementToRequest(floatLink);
+        create.addElementToRequest(new ScEdgeImpl(EdgeType.ACCESS, first, second));
+
+        DeleteScElRequestImpl delete = new DeleteScElRequestImpl();
+        delete.addAddressToRequest(11L);
+
+        GetLinkContentRequestImpl getContent = new GetLinkContentRequestImpl();
+        getContent.addAddressToRequest(-5L);
+
+        SetLinkContentRequestImpl setContent = new SetLinkContentRequestImpl();
+        setContent.addToRequest(new ScLinkIntegerImpl(LinkType.LINK, 13L), 42);
+
+        List<ScRequest> requests = List.of(create,
+                delete,
+                getContent,
+                setContent,
+                new SearchByTemplateNodeEdgeLinkWithRelationRequestImpl(first, EdgeType.D_COMMON, LinkType.LINK, second, EdgeType.ACCESS),
+                PreparedTemplate.nodeEdgeNode(EdgeType.ACCESS, NodeType.NODE).request(11L));
+        for (ScRequest request : requests) {
+            ByteArrayOutputStream jsonOut = new ByteArrayOutputStream();
+            RequestEncoder.writerOf(request).writeTo(jsonOut);
+            JsonNode json = mappers.get(WireFormat.JSON).readTree(jsonOut.toByteArray());
+            for (WireFormat format : WireFormat.values()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                RequestEncoder.writerOf(request, WireCodec.of(format)).writeTo(out);
+                JsonNode decoded = mappers.get(format).readTree(out.toByteArray());
+                assertTrue(json.equals(WireCodecTest::compareValues, decoded), format + " " + decoded);
+            }
+        }
+    }
+
+    @Test
+    void decodeResponsesInEveryFormat() throws Exception {
+        for (WireFormat format : WireFormat.values()) {
+            WireCodec codec = WireCodec.of(format);
+
+            OstisMessage created = message(format, "{\"id\":3,\"event\":false,\"status\":true,\"payload\":[100,4294967296]}");
+            assertEquals(3, ResponseHeader.read(codec, created).getId());
+            CreateScElResponseImpl createResponse = codec.read(created, CreateScElResponseImpl.class);
+            assertTrue(createResponse.getResponseStatus());
+            assertEquals(List.of(100L, 4294967296L), createResponse.getAddresses().toList());
+
+            OstisMessage content = message(format, "{\"id\":4,\"event\":false,\"status\":true,\"payload\":" +
+                    "[{\"value\":42,\"type\":\"int\"},{\"value\":\"text\",\"type\":\"string\"}]}");
+            assertEquals(List.of(42, "text"), codec.read(content, GetLinkContentResponseImpl.class).getContent());
+
+            OstisMessage found = message(format, "{\"id\":5,\"event\":false,\"status\":true,\"payload\":" +
+                    "{\"addrs\":[[1,2,3],[1,4,5]],\"aliases\":{\"edge_alias\":1}}}");
+            SearchByTemplateResponseImpl foundResponse = codec.read(found, SearchByTemplateResponseImpl.class);
+            assertEquals(2, foundResponse.getFoundConstructionsCount());
+            assertEquals(5L, foundResponse.getFoundAddress(1, 2));
+            assertEquals(Map.of("edge_alias", 1), foundResponse.getAliases());
+
+            OstisMessage event = message(format, "{\"event\":true,\"id\":6,\"payload\":[]}");
+            assertTrue(ResponseHeader.read(codec, event).isEvent());
+        }
+    }
+
+    @Test
+    void failOnMessageInAnotherFrame() {
+        assertThrows(IOException.class,
+                () -> WireCodec.of(WireFormat.SMILE).read(OstisMessage.ofText("{\"id\":1}"), CreateScElResponseImpl.class));
+        assertThrows(IOException.class,
+                () -> ResponseHeader.read(WireCodec.of(WireFormat.JSON), OstisMessage.ofBytes(new byte[]{'{', '}'})));
+    }
+
+    /**
+     * Binary formats keep floats as floats, and json reads them as doubles.
+     */
+    private static int compareValues(JsonNode expected, JsonNode actual) {
+        if (expected.isNumber() && actual.isNumber()) {
+            return Double.compare(expected.doubleValue(), actual.doubleValue());
+        }
+        return expected.equals(actual) ? 0 : 1;
+    }
+
+    private static OstisMessage message(WireFormat format, String json) throws IOException {
+        if (format == WireFormat.JSON) {
+            return OstisMessage.ofText(json);
+        }
+        JsonNode tree = mappers.get(WireFormat.JSON).readTree(json);
+        return OstisMessage.ofBytes(mappers.get(format).writeValueAsBytes(tree));
+    }
+}
@@ -0,0 +1,105 @@
+package org.jmantic.scmemory.websocketmemory.sync;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.core.OstisMessage;
+import org.jmantic.scmemory.websocketmemory.core.RequestWriter;
+import org.jmantic.scmemory.websocketmemory.core.WireFrame;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+import org.jmantic.scmemory.websocketmemory.message.request.ScRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class WireTapTest {
+    private final ScRequest create = ArrayRequest.createNodes(new NodeType[]{NodeType.NODE});
+    private final ScRequest delete = ArrayRequest.deleteElements(new long[]{1L});
+
+    @Test
+    void disabledByDefault() {
+        WireTap wireTap = WireTap.of(new OstisClientConfiguration());
+        assertSame(WireTap.DISABLED, wireTap);
+        assertFalse(wireTap.isTapped(create));
+        assertTrue(wireTap.dump().isEmpty());
+    }
+
+    @Test
+    void recordRequestAndResponse() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setWireTapEnabled(true);
+        WireTap wireTap = WireTap.of(configuration);
+
+        assertTrue(wireTap.isTapped(create));
+        wireTap.recordSent(create, RequestWriter.of("{\"type\":\"create_elements\"}"), false);
+        wireTap.recordReceived(create, OstisMessage.ofText("{\"status\":true}"));
+
+        List<WireFrame> frames = wireTap.dump();
+        assertEquals(2, frames.size());
+        assertEquals(WireFrame.Direction.SENT, frames.get(0).getDirection());
+        assertEquals("{\"type\":\"create_elements\"}", frames.get(0).getText());
+        assertEquals(create.getRequestId(), frames.get(0).getRequestId());
+        assertEquals(WireFrame.Direction.RECEIVED, frames.get(1).getDirection());
+        assertEquals(RequestType.CREATE_ELEMENTS, frames.get(1).getRequestType());
+        assertEquals("{\"status\":true}", frames.get(1).getText());
+    }
+
+    @Test
+    void keepOnlyNewestFrames() {
+        WireTap wireTap = new WireTap(true, 3, 1, EnumSet.allOf(RequestType.class));
+        for (int i = 0; i < 5; i++) {
+            wireTap.recordReceived(create, OstisMessage.ofText(String.valueOf(i)));
+        }
+
+        List<String> texts = new ArrayList<>();
+        wireTap.dump().forEach(frame -> texts.add(frame.getText()));
+        assertEquals(List.of("2", "3", "4"), texts);
+        assertEquals(2, wireTap.dump().get(0).getSequence());
+    }
+
+    @Test
+    void filterByRequestType() {
+        WireTap wireTap = new WireTap(true, 8, 1, Set.of(RequestType.DELETE_ELEMENTS));
+        assertFalse(wireTap.isTapped(create));
+        assertTrue(wireTap.isTapped(delete));
+    }
+
+    @Test
+    void sampleRequests() {
+        WireTap never = new WireTap(true, 8, 0, EnumSet.allOf(RequestType.class));
+        WireTap half = new WireTap(true, 8, 0.5, EnumSet.allOf(RequestType.class));
+        int tapped = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(never.isTapped(create));
+            if (half.isTapped(create)) {
+                tapped++;
+            }
+        }
+        assertTrue(tapped > 300 && tapped < 700, "tapped " + tapped + " of 1000");
+    }
+
+    @Test
+    void keepBinaryFrames() {
+        WireTap wireTap = new WireTap(true, 8, 1, EnumSet.allOf(RequestType.class));
+        wireTap.recordReceived(create, OstisMessage.ofBytes(new byte[]{1, 2, 3}));
+
+        WireFrame frame = wireTap.dump().get(0);
+        assertTrue(frame.isBinary());
+        assertEquals(3, frame.getSize());
+        assertArrayEquals(new byte[]{1, 2, 3}, frame.getPayload());
+        assertThrows(IllegalStateException.class, frame::getText);
+    }
+}
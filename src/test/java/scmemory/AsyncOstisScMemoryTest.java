@@ -0,0 +1,202 @@
+package scmemory;
+
+import org.jmantic.scmemory.config.BackpressurePolicy;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.AsyncScMemory;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.model.exception.ScMemoryTimeoutException;
+import org.jmantic.scmemory.websocketmemory.sync.AsyncOstisScMemory;
+import org.jmantic.scmemory.websocketmemory.sync.exception.OstisBackpressureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class AsyncOstisScMemoryTest {
+    private AsyncScMemory memory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        memory = new AsyncOstisScMemory(new URI("ws://localhost:8090/ws_json"));
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void createNodes() {
+        List<? extends ScNode> nodes = memory.createNodes(Stream.of(NodeType.NODE, NodeType.CONST))
+                .join()
+                .toList();
+        assertEquals(2, nodes.size());
+        assertEquals(NodeType.NODE, nodes.get(0).getType());
+        assertEquals(NodeType.CONST, nodes.get(1).getType());
+        nodes.forEach(node -> assertTrue(node.getAddress() > 0));
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void createEdgeAndDelete() {
+        ScNode source = memory.createNodes(Stream.of(NodeType.NODE)).join().findFirst().get();
+        ScNode target = memory.createNodes(Stream.of(NodeType.NODE)).join().findFirst().get();
+        ScEdge edge = memory.createEdges(Stream.of(EdgeType.ACCESS), Stream.of(source), Stream.of(target))
+                .join()
+                .findFirst()
+                .get();
+        assertEquals(source, edge.getSource());
+        assertEquals(target, edge.getTarget());
+        assertTrue(memory.deleteElements(Stream.of(edge, source, target)).join());
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void failOnStreamsOfDifferentLengths() {
+        List<CompletableFuture<?>> links = List.of(
+                memory.createIntegerLinks(Stream.of(LinkType.LINK, LinkType.LINK), Stream.of(1)),
+                memory.createFloatLinks(Stream.of(LinkType.LINK), Stream.of(1f, 2f)),
+                memory.createStringLinks(Stream.of(), Stream.of("text")),
+                memory.createEdges(Stream.of(EdgeType.ACCESS), Stream.of(), Stream.of()),
+                memory.setIntegerLinkContent(Stream.of(), Stream.of(1)),
+                memory.setFloatLinkContent(Stream.of(), Stream.of(1f)),
+                memory.setStringLinkContent(Stream.of(), Stream.of("text")));
+        for (CompletableFuture<?> link : links) {
+            CompletionException exception = assertThrows(CompletionException.class, link::join);
+            assertTrue(exception.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void setAndGetLinkContent() {
+        ScLinkInteger link = memory.createIntegerLinks(Stream.of(LinkType.LINK), Stream.of(5))
+                .join()
+                .findFirst()
+                .get();
+        assertTrue(memory.setIntegerLinkContent(Stream.of(link), Stream.of(42)).join().findFirst().get());
+        assertEquals(42, memory.getIntegerLinkContent(Stream.of(link)).join().findFirst().get());
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void findNodeEdgeLink() {
+        ScNode source = memory.createNodes(Stream.of(NodeType.NODE)).join().findFirst().get();
+        ScLinkString link = memory.createStringLinks(Stream.of(LinkType.LINK), Stream.of("async"))
+                .join()
+                .findFirst()
+                .get();
+        memory.createEdges(Stream.of(EdgeType.ACCESS), Stream.of(source), Stream.of(link)).join();
+        List<? extends ScEdge> found = memory.findByTemplateNodeEdgeLink(source, EdgeType.ACCESS, LinkType.LINK_VAR, LinkContentType.STRING)
+                .join()
+                .toList();
+        assertEquals(1, found.size());
+        assertEquals("async", ((ScLinkString) found.get(0).getTarget()).getContent());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void manyConcurrentRequests() {
+        List<CompletableFuture<Stream<? extends ScNode>>> futures = IntStream.range(0, 1000)
+                .mapToObj(i -> memory.createNodes(Stream.of(NodeType.NODE)))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        long distinct = futures.stream()
+                .map(f -> f.join().findFirst().get().getAddress())
+                .distinct()
+                .count();
+        assertEquals(futures.size(), distinct);
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void manyConcurrentRequestsWithDecoderThreads() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setDecoderThreads(4);
+        AsyncScMemory decodingMemory = new AsyncOstisScMemory(new URI("ws://localhost:8090/ws_json"), configuration);
+        decodingMemory.open();
+        try {
+            List<CompletableFuture<Stream<? extends ScNode>>> futures = IntStream.range(0, 1000)
+                    .mapToObj(i -> decodingMemory.createNodes(Stream.of(NodeType.NODE)))
+                    .toList();
+            long distinct = futures.stream()
+                    .map(f -> f.join().findFirst().get().getAddress())
+                    .distinct()
+                    .count();
+            assertEquals(futures.size(), distinct);
+        } finally {
+            decodingMemory.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void failFastWhenWindowIsFull() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setMaxInFlightRequests(1);
+        configuration.setBackpressurePolicy(BackpressurePolicy.FAIL_FAST);
+        AsyncScMemory limitedMemory = new AsyncOstisScMemory(new URI("ws://localhost:8090/ws_json"), configuration);
+        limitedMemory.open();
+        try {
+            List<CompletableFuture<Stream<? extends ScNode>>> futures = IntStream.range(0, 100)
+                    .mapToObj(i -> limitedMemory.createNodes(Stream.of(NodeType.NODE)))
+                    .toList();
+            long rejected = futures.stream()
+                    .map(f -> f.handle((result, cause) -> cause))
+                    .map(CompletableFuture::join)
+                    .filter(cause -> cause instanceof CompletionException
+                            && cause.getCause() instanceof ScMemoryException
+                            && cause.getCause().getCause() instanceof OstisBackpressureException)
+                    .count();
+            assertTrue(rejected > 0);
+        } finally {
+            limitedMemory.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void failWithTimeoutWhenDeadlineIsExceeded() {
+        Throwable cause = memory.withTimeout(Duration.ofNanos(1))
+                .createNodes(Stream.of(NodeType.NODE))
+                .handle((result, e) -> e)
+                .join();
+        assertTrue(cause instanceof CompletionException);
+        assertTrue(cause.getCause() instanceof ScMemoryTimeoutException);
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void memoryWithTimeoutSharesConnection() {
+        AsyncScMemory memoryWithTimeout = memory.withTimeout(Duration.ofSeconds(2));
+        ScNode node = memoryWithTimeout.createNodes(Stream.of(NodeType.NODE)).join().findFirst().get();
+        assertTrue(memory.deleteElements(Stream.of(node)).join());
+    }
+}
@@ -0,0 +1,234 @@
+package scmemory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.websocketmemory.core.CompressionStats;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a local server with the permessage-deflate extension of the Java-WebSocket library,
+ * which compresses every response.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class CompressionTest {
+    private static final String LARGE_CONTENT = "content of the link, which is repeated many times. ".repeat(200);
+
+    private ContentServer server;
+    private SyncOstisScMemory memory;
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        if (memory != null) {
+            memory.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void compressMessagesAboveThreshold() throws Exception {
+        open(true, new OstisClientConfiguration());
+
+        memory.createNodes(Stream.of(NodeType.NODE));
+        ScLinkString link = memory.createStringLinks(Stream.of(LinkType.LINK), Stream.of(LARGE_CONTENT)).findFirst().get();
+        assertEquals(LARGE_CONTENT, memory.getStringLinkContent(Stream.of(link)).findFirst().get());
+
+        assertEquals(1, server.compressedRequests.get());
+        assertEquals(2, server.plainRequests.get());
+        CompressionStats stats = memory.getCompressionStats();
+        assertEquals(3, stats.getSentMessages());
+        assertEquals(1, stats.getCompressedSentMessages());
+        assertEquals(3, stats.getCompressedReceivedMessages());
+        assertTrue(stats.getSentRatio() > 5, stats.toString());
+        assertTrue(stats.getReceivedRatio() > 5, stats.toString());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void compressFragmentedMessages() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setFragmentSize(256);
+        configuration.setCompressionThreshold(100_000);
+        open(true, configuration);
+
+        ScLinkString link = memory.createStringLinks(Stream.of(LinkType.LINK), Stream.of(LARGE_CONTENT)).findFirst().get();
+        assertEquals(LARGE_CONTENT, memory.getStringLinkContent(Stream.of(link)).findFirst().get());
+
+        assertEquals(1, server.compressedRequests.get());
+        assertEquals(1, memory.getCompressionStats().getCompressedSentMessages());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void workWithoutCompressionIfServerDeclines() throws Exception {
+        open(false, new OstisClientConfiguration());
+
+        ScLinkString link = memory.createStringLinks(Stream.of(LinkType.LINK), Stream.of(LARGE_CONTENT)).findFirst().get();
+        assertEquals(LARGE_CONTENT, memory.getStringLinkContent(Stream.of(link)).findFirst().get());
+
+        assertEquals(0, server.compressedRequests.get());
+        assertEquals(0, memory.getCompressionStats().getCompressedSentMessages());
+        assertEquals(1.0, memory.getCompressionStats().getSentRatio());
+    }
+
+    private void open(boolean serverCompression, OstisClientConfiguration configuration) throws Exception {
+        server = ContentServer.create(serverCompression);
+        server.start();
+        server.started.await();
+        configuration.setCompressionEnabled(true);
+        memory = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        memory.open();
+    }
+
+    private static class ContentServer extends WebSocketServer {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger compressedRequests;
+        private final AtomicInteger plainRequests;
+        private final AtomicLong lastAddress = new AtomicLong();
+        private final Map<Long, JsonNode> contents = new ConcurrentHashMap<>();
+
+        private ContentServer(Draft draft, AtomicInteger compressedRequests, AtomicInteger plainRequests) {
+            super(new InetSocketAddress("localhost", 0), List.of(draft));
+            this.compressedRequests = compressedRequests;
+            this.plainRequests = plainRequests;
+        }
+
+        static ContentServer create(boolean compression) {
+            AtomicInteger compressedRequests = new AtomicInteger();
+            AtomicInteger plainRequests = new AtomicInteger();
+            Draft draft = compression
+                    ? new Draft_6455(new ThresholdAwareDeflate(compressedRequests, plainRequests))
+                    : new Draft_6455();
+            return new ContentServer(draft, compressedRequests, plainRequests);
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            try {
+                conn.send(mapper.writeValueAsString(answer(mapper.readTree(message))));
+            } catch (IOException e) {
+                conn.close();
+            }
+        }
+
+        private JsonNode answer(JsonNode request) {
+            ObjectNode response = JsonNodeFactory.instance.objectNode()
+                    .put("id", request.get("id").asLong())
+                    .put("event", false)
+                    .put("status", true);
+            ArrayNode payload = response.putArray("payload");
+            switch (request.get("type").asText()) {
+                case "create_elements" -> request.get("payload").forEach(element -> {
+                    long address = lastAddress.incrementAndGet();
+                    if (element.has("content")) {
+                        contents.put(address, element.get("content"));
+                    }
+                    payload.add(address);
+                });
+                case "content" -> request.get("payload").forEach(command -> payload.addObject()
+                        .put("type", "string")
+                        .set("value", contents.get(command.get("addr").asLong())));
+                default -> response.put("status", false);
+            }
+            return response;
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+    }
+
+    /**
+     * The extension of the library compresses every message it sends,
+     * and expects every received message to be compressed.
+     * This one also receives messages that the client sent without compression,
+     * and counts compressed and plain requests.
+     */
+    private static class ThresholdAwareDeflate extends PerMessageDeflateExtension {
+        private final AtomicInteger compressedRequests;
+        private final AtomicInteger plainRequests;
+        private boolean plainMessage;
+
+        private ThresholdAwareDeflate(AtomicInteger compressedRequests, AtomicInteger plainRequests) {
+            this.compressedRequests = compressedRequests;
+            this.plainRequests = plainRequests;
+        }
+
+        @Override
+        public void isFrameValid(Framedata frame) throws InvalidDataException {
+            if (frame.getOpcode() == Opcode.TEXT || frame.getOpcode() == Opcode.BINARY) {
+                plainMessage = !frame.isRSV1();
+                (plainMessage ? plainRequests : compressedRequests).incrementAndGet();
+            }
+            if (!(plainMessage && frame instanceof DataFrame)) {
+                super.isFrameValid(frame);
+            }
+        }
+
+        @Override
+        public void decodeFrame(Framedata frame) throws InvalidDataException {
+            if (!(plainMessage && frame instanceof DataFrame)) {
+                super.decodeFrame(frame);
+            }
+        }
+
+        @Override
+        public IExtension copyInstance() {
+            return new ThresholdAwareDeflate(compressedRequests, plainRequests);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package scmemory;
+
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.config.WebsocketTransport;
+import org.jmantic.scmemory.model.AsyncScMemory;
+import org.jmantic.scmemory.model.ScMemory;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.websocketmemory.sync.AsyncOstisScMemory;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class JdkTransportTest {
+    private ScMemory memory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        memory = new SyncOstisScMemory(new URI("ws://localhost:8090/ws_json"), jdkConfiguration());
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void createAndDeleteNodes() throws Exception {
+        List<? extends ScNode> nodes = memory.createNodes(Stream.of(NodeType.NODE, NodeType.CONST)).toList();
+        assertEquals(2, nodes.size());
+        assertTrue(memory.deleteElements(nodes.stream()));
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void setAndGetLinkContent() throws Exception {
+        ScLinkString link = memory.createStringLinks(Stream.of(LinkType.LINK), Stream.of("jdk")).findFirst().get();
+        assertTrue(memory.setStringLinkContent(Stream.of(link), Stream.of("transport")).findFirst().get());
+        assertEquals("transport", memory.getStringLinkContent(Stream.of(link)).findFirst().get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void manyConcurrentRequests() throws Exception {
+        AsyncScMemory asyncMemory = new AsyncOstisScMemory(new URI("ws://localhost:8090/ws_json"), jdkConfiguration());
+        asyncMemory.open();
+        try {
+            List<CompletableFuture<Stream<? extends ScNode>>> futures = IntStream.range(0, 1000)
+                    .mapToObj(i -> asyncMemory.createNodes(Stream.of(NodeType.NODE)))
+                    .toList();
+            long distinct = futures.stream()
+                    .map(f -> f.join().findFirst().get().getAddress())
+                    .distinct()
+                    .count();
+            assertEquals(futures.size(), distinct);
+        } finally {
+            asyncMemory.close();
+        }
+    }
+
+    private static OstisClientConfiguration jdkConfiguration() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setTransport(WebsocketTransport.JDK);
+        return configuration;
+    }
+}
@@ -0,0 +1,310 @@
+package scmemory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.KeynodeResolver;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.keynode.KeynodeSet;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Runs against a local server that knows a few system identifiers.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class KeynodeResolverTest {
+    private KeynodeServer server;
+    private SyncOstisScMemory memory;
+
+    @BeforeEach
+    public void openScMemory() throws Exception {
+        server = new KeynodeServer();
+        server.start();
+        server.started.await();
+        memory = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()));
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+        server.stop();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void findKeynodesByOneRequest() throws Exception {
+        KeynodeResolver resolver = memory.getKeynodeResolver();
+        assertArrayEquals(new long[]{1L, KeynodeResolver.NOT_FOUND, 2L},
+                resolver.find(new String[]{"nrel_main_idtf", "unknown", "concept"}));
+        assertEquals(1, server.requests.get());
+
+        assertEquals(2L, resolver.find("concept"));
+        assertEquals(1L, memory.withTimeout(Duration.ofSeconds(5)).getKeynodeResolver().find("nrel_main_idtf"));
+        assertEquals(1, server.requests.get());
+
+        assertEquals(KeynodeResolver.NOT_FOUND, resolver.find("unknown"));
+        assertEquals(2, server.requests.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void resolveMissingKeynodes() throws Exception {
+        KeynodeResolver resolver = memory.getKeynodeResolver();
+        long[] addresses = resolver.resolve(new String[]{"concept", "question"}, NodeType.CONST_CLASS);
+        assertEquals(2L, addresses[0]);
+        assertNotEquals(KeynodeResolver.NOT_FOUND, addresses[1]);
+        assertEquals(addresses[1], resolver.find("question"));
+        assertEquals(1, server.requests.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void collapseConcurrentLookups() throws Exception {
+        server.delay = 200;
+        KeynodeResolver resolver = memory.getKeynodeResolver();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return resolver.resolve("question", NodeType.CONST_CLASS);
+                }));
+            }
+            start.countDown();
+            long address = results.get(0).get();
+            for (Future<Long> result : results) {
+                assertEquals(address, result.get());
+            }
+            assertEquals(1, server.requests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void preloadKeynodeSetsOnOpen() throws Exception {
+        Path services = Files.createTempDirectory("keynodes");
+        Path registration = services.resolve("META-INF/services/" + KeynodeSet.class.getName());
+        Files.createDirectories(registration.getParent());
+        Files.writeString(registration, Concepts.class.getName() + "\n");
+        Thread thread = Thread.currentThread();
+        ClassLoader contextLoader = thread.getContextClassLoader();
+        SyncOstisScMemory preloaded = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()));
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{services.toUri().toURL()}, getClass().getClassLoader())) {
+            thread.setContextClassLoader(loader);
+            preloaded.open();
+            assertEquals(1, server.requests.get());
+            KeynodeResolver resolver = preloaded.getKeynodeResolver();
+            assertArrayEquals(new long[]{1L, 2L}, resolver.find(new String[]{"nrel_main_idtf", "concept"}));
+            assertNotEquals(KeynodeResolver.NOT_FOUND, resolver.find("question"));
+            assertEquals(1, server.requests.get());
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+            preloaded.close();
+            Files.delete(registration);
+            Files.delete(registration.getParent());
+            Files.delete(registration.getParent().getParent());
+            Files.delete(services);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void restoreKeynodesFromCacheFile() throws Exception {
+        Path cacheFile = Files.createTempFile("keynodes", ".cache");
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setKeynodeCacheFile(cacheFile);
+        String[] keynodes = {"nrel_main_idtf", "concept", "question"};
+        try {
+            long[] addresses = withCacheFile(configuration, resolver -> {
+                long[] resolved = resolver.resolve(keynodes, NodeType.CONST_CLASS);
+                assertEquals(1, server.requests.get());
+                return resolved;
+            });
+
+            server.requests.set(0);
+            withCacheFile(configuration, resolver -> {
+                assertEquals(1, server.requests.get());
+                assertArrayEquals(addresses, resolver.resolve(keynodes, NodeType.CONST_CLASS));
+                assertEquals(1, server.requests.get());
+                return null;
+            });
+
+            server.swap("concept", "question");
+            server.requests.set(0);
+            long[] swapped = withCacheFile(configuration, resolver -> {
+                long[] resolved = resolver.find(keynodes);
+                assertEquals(1, server.requests.get());
+                return resolved;
+            });
+            assertArrayEquals(new long[]{addresses[0], addresses[2], addresses[1]}, swapped);
+
+            server.rebuild();
+            server.requests.set(0);
+            long[] rebuilt = withCacheFile(configuration, resolver -> {
+                long[] resolved = resolver.find(keynodes);
+                assertEquals(1, server.requests.get());
+                return resolved;
+            });
+            assertNotEquals(addresses[0], rebuilt[0]);
+
+            server.requests.set(0);
+            withCacheFile(configuration, resolver -> {
+                assertArrayEquals(rebuilt, resolver.find(keynodes));
+                assertEquals(1, server.requests.get());
+                return null;
+            });
+        } finally {
+            Files.delete(cacheFile);
+        }
+    }
+
+    private <T> T withCacheFile(OstisClientConfiguration configuration, KeynodeCheck<T> check) throws Exception {
+        SyncOstisScMemory cached = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        cached.open();
+        try {
+            return check.apply(cached.getKeynodeResolver());
+        } finally {
+            cached.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeynodeCheck<T> {
+        T apply(KeynodeResolver resolver) throws Exception;
+    }
+
+    /**
+     * Set that the annotation processor would generate from three keynodes.
+     */
+    public static class Concepts implements KeynodeSet {
+        @Override
+        public String[] getSystemIdentifiers() {
+            return new String[]{"nrel_main_idtf", "concept", "question"};
+        }
+
+        @Override
+        public NodeType[] getTypes() {
+            return new NodeType[]{null, null, NodeType.CONST_CLASS};
+        }
+    }
+
+    private static class KeynodeServer extends WebSocketServer {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicLong lastAddress = new AtomicLong(100);
+        private final Map<String, Long> identifiers = new ConcurrentHashMap<>(Map.of(
+                "nrel_main_idtf", 1L,
+                "concept", 2L));
+        private volatile long delay;
+
+        public KeynodeServer() {
+            super(new InetSocketAddress("localhost", 0));
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delay);
+                conn.send(mapper.writeValueAsString(answer(mapper.readTree(message))));
+            } catch (IOException | InterruptedException e) {
+                conn.close();
+            }
+        }
+
+        private JsonNode answer(JsonNode request) {
+            ObjectNode response = JsonNodeFactory.instance.objectNode()
+                    .put("id", request.get("id").asLong())
+                    .put("event", false)
+                    .put("status", true);
+            ArrayNode payload = response.putArray("payload");
+            switch (request.get("type").asText()) {
+                case "keynodes" -> request.get("payload").forEach(command -> {
+                    String identifier = command.get("idtf").asText();
+                    if (command.get("command").asText().equals("resolve")) {
+                        payload.add(identifiers.computeIfAbsent(identifier, key -> lastAddress.incrementAndGet()));
+                    } else {
+                        payload.add(identifiers.getOrDefault(identifier, 0L));
+                    }
+                });
+                default -> response.put("status", false);
+            }
+            return response;
+        }
+
+        /**
+         * Both keynodes are deleted and created again, and each one gets the address of the other one.
+         */
+        private void swap(String first, String second) {
+            long address = identifiers.get(first);
+            identifiers.put(first, identifiers.get(second));
+            identifiers.put(second, address);
+        }
+
+        /**
+         * Memory of the sc-machine is built again, so the keynodes get other addresses.
+         */
+        private void rebuild() {
+            identifiers.replaceAll((identifier, address) -> lastAddress.incrementAndGet());
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package scmemory;
+
+import org.jmantic.scmemory.config.BackpressurePolicy;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.model.exception.ScMemoryConfigurationException;
+import org.jmantic.scmemory.websocketmemory.message.request.RequestType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class OstisClientConfigurationTest {
+
+    @Test
+    void defaultConfiguration() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertEquals(OstisClientConfiguration.UNLIMITED_IN_FLIGHT_REQUESTS, configuration.getMaxInFlightRequests());
+        assertEquals(BackpressurePolicy.BLOCK, configuration.getBackpressurePolicy());
+        assertEquals(Duration.ofSeconds(30), configuration.getRequestTimeout());
+        assertEquals(WireFormat.JSON, configuration.getWireFormat());
+        assertFalse(configuration.isCompressionEnabled());
+        assertFalse(configuration.isWireTapEnabled());
+        assertEquals(EnumSet.allOf(RequestType.class), configuration.getWireTapRequestTypes());
+        assertEquals(OstisClientConfiguration.NO_CONTENT_CACHE, configuration.getContentCacheMaxBytes());
+        assertFalse(configuration.isContentCacheInvalidationEnabled());
+        assertEquals(OstisClientConfiguration.NO_KEYNODE_CACHE_FILE, configuration.getKeynodeCacheFile());
+    }
+
+    @Test
+    void negativeMaxInFlightRequests() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setMaxInFlightRequests(-1));
+    }
+
+    @Test
+    void nullBackpressurePolicy() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setBackpressurePolicy(null));
+    }
+
+    @Test
+    void negativeRequestTimeout() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setRequestTimeout(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void nullRequestTimeout() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setRequestTimeout(null));
+    }
+
+    @Test
+    void zeroReconnectInitialDelay() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setReconnectInitialDelay(Duration.ZERO));
+    }
+
+    @Test
+    void nullReconnectMaxDelay() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setReconnectMaxDelay(null));
+    }
+
+    @Test
+    void negativePingInterval() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setPingInterval(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void minHealthScoreOutOfRange() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setMinHealthScore(1.5));
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setMinHealthScore(Double.NaN));
+    }
+
+    @Test
+    void negativeDecoderThreads() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setDecoderThreads(-1));
+    }
+
+    @Test
+    void nullWireFormat() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setWireFormat(null));
+    }
+
+    @Test
+    void negativeCompressionThreshold() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setCompressionThreshold(-1));
+    }
+
+    @Test
+    void wireTapSettingsOutOfRange() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setWireTapCapacity(0));
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setWireTapSampleRate(-0.1));
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setWireTapRequestTypes(Set.of()));
+    }
+
+    @Test
+    void negativeContentCacheSize() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class, () -> configuration.setContentCacheMaxBytes(-1));
+    }
+
+    @Test
+    void directoryAsKeynodeCacheFile() {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        assertThrows(ScMemoryConfigurationException.class,
+                () -> configuration.setKeynodeCacheFile(Path.of(System.getProperty("java.io.tmpdir"))));
+    }
+}
@@ -0,0 +1,74 @@
+package scmemory;
+
+import org.jmantic.api.context.UncheckedScContext;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.model.exception.ScMemoryConfigurationException;
+import org.jmantic.scmemory.websocketmemory.sync.PooledOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PooledOstisScMemoryTest {
+    private PooledOstisScMemory memory;
+    private UncheckedScContext scContext;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        memory = new PooledOstisScMemory(new URI("ws://localhost:8090/ws_json"), 4);
+        scContext = new UncheckedScContext(memory);
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void idleConnectionsAfterOpen() {
+        assertEquals(4, memory.getPoolSize());
+        assertEquals(4, memory.getIdleConnectionsCount());
+        assertEquals(0, memory.getBusyConnectionsCount());
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void wrongPoolSize() {
+        assertThrows(ScMemoryConfigurationException.class, () -> new PooledOstisScMemory(new URI("ws://localhost:8090/ws_json"), 0));
+    }
+
+    @Test
+    @Timeout(value = 20000, unit = TimeUnit.MILLISECONDS)
+    void createNodesFromMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ScNode>> nodes = IntStream.range(0, 800)
+                    .mapToObj(i -> executor.submit(() -> scContext.createNode(NodeType.NODE)))
+                    .toList();
+            for (Future<ScNode> node : nodes) {
+                assertEquals(NodeType.NODE, node.get().getType());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(memory.getPoolSize(), memory.getIdleConnectionsCount());
+    }
+}
@@ -0,0 +1,448 @@
+package scmemory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.TripleBatch;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkContentType;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.link.ScLinkString;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.model.exception.ScMemoryException;
+import org.jmantic.scmemory.websocketmemory.core.ContentCacheStats;
+import org.jmantic.scmemory.websocketmemory.sync.PooledOstisScMemory;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a local server that keeps the contents of the created links.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class PrimitiveScMemoryTest {
+    private ContentServer server;
+    private SyncOstisScMemory memory;
+
+    @BeforeEach
+    public void openScMemory() throws Exception {
+        server = new ContentServer();
+        server.start();
+        server.started.await();
+        memory = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()));
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+        server.stop();
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void createElementsByAddresses() throws Exception {
+        NodeType[] nodeTypes = new NodeType[1000];
+        Arrays.fill(nodeTypes, NodeType.NODE);
+        long[] nodes = memory.createNodes(nodeTypes);
+        assertEquals(1000, nodes.length);
+        assertEquals(1000L, nodes[999]);
+
+        long[] sources = Arrays.copyOfRange(nodes, 0, 500);
+        long[] targets = Arrays.copyOfRange(nodes, 500, 1000);
+        EdgeType[] edgeTypes = new EdgeType[500];
+        Arrays.fill(edgeTypes, EdgeType.ACCESS);
+        long[] edges = memory.createEdges(edgeTypes, sources, targets);
+        assertEquals(500, edges.length);
+        assertEquals(1001L, edges[0]);
+
+        assertTrue(memory.deleteElements(edges));
+        assertEquals(500, server.deleted.get());
+        assertEquals(3, server.requests.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void readAndWriteLinkContent() throws Exception {
+        long[] integers = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK}, new int[]{1, -2});
+        long[] floats = memory.createFloatLinks(new LinkType[]{LinkType.LINK}, new float[]{0.25f});
+        assertArrayEquals(new int[]{1, -2}, memory.getIntegerLinkContent(integers));
+        assertArrayEquals(new float[]{0.25f}, memory.getFloatLinkContent(floats));
+
+        assertArrayEquals(new boolean[]{true, true}, memory.setIntegerLinkContent(integers, new int[]{7, 8}));
+        assertArrayEquals(new boolean[]{true}, memory.setFloatLinkContent(floats, new float[]{1.5f}));
+        assertArrayEquals(new int[]{7, 8}, memory.getIntegerLinkContent(integers));
+        assertArrayEquals(new float[]{1.5f}, memory.getFloatLinkContent(floats));
+        assertArrayEquals(new float[]{7f, 8f}, memory.getFloatLinkContent(integers));
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void shareAddressesWithElementObjects() throws Exception {
+        ScLinkInteger link = memory.createIntegerLinks(Stream.of(LinkType.LINK), Stream.of(5)).findFirst().get();
+        assertArrayEquals(new int[]{5}, memory.getIntegerLinkContent(new long[]{link.getAddress()}));
+
+        long[] created = memory.createIntegerLinks(new LinkType[]{LinkType.LINK}, new int[]{6});
+        assertEquals(link.getAddress() + 1, created[0]);
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void findTriplesWithoutElementObjects() throws Exception {
+        long[] links = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK, LinkType.LINK}, new int[]{1, 2, 3});
+
+        TripleBatch<LinkType> batch = memory.findByTemplateNodeEdgeLink(500L, EdgeType.ACCESS, LinkType.LINK, LinkContentType.INTEGER);
+        assertEquals(3, batch.size());
+        assertArrayEquals(links, batch.getTargets());
+        assertEquals(500L, batch.getSource(2));
+        assertEquals(10_000L + links[0], batch.getEdge(0));
+        assertEquals(2, server.requests.get());
+
+        List<? extends ScEdge> edges = batch.toScEdges().toList();
+        assertEquals(3, server.requests.get());
+        assertEquals(3, ((ScLinkInteger) edges.get(2).getTarget()).getContent());
+        assertEquals(500L, edges.get(2).getSource().getAddress());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void readContentOfFoundLinksByOneRequest() throws Exception {
+        memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK, LinkType.LINK}, new int[]{1, 2, 3});
+        ScNode fixedNode = memory.createNodes(Stream.of(NodeType.CONST)).findFirst().get();
+
+        List<? extends ScEdge> edges = memory.findByTemplateNodeEdgeLink(fixedNode, EdgeType.ACCESS, LinkType.LINK, LinkContentType.INTEGER)
+                .toList();
+        assertEquals(4, server.requests.get());
+        assertEquals(List.of(1, 2, 3), edges.stream().map(edge -> ((ScLinkInteger) edge.getTarget()).getContent()).toList());
+        assertEquals(fixedNode, edges.get(0).getSource());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void foldResultsWithVisitors() throws Exception {
+        long[] links = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK, LinkType.LINK}, new int[]{1, 2, 3});
+
+        long[] targetsSum = new long[1];
+        int found = memory.findByTemplateNodeEdgeLink(500L, EdgeType.ACCESS, LinkType.LINK,
+                (source, edge, target) -> targetsSum[0] += target);
+        assertEquals(3, found);
+        assertEquals(Arrays.stream(links).sum(), targetsSum[0]);
+
+        long[] contentSum = new long[1];
+        memory.getIntegerLinkContent(links, (link, content) -> contentSum[0] += content);
+        assertEquals(6, contentSum[0]);
+
+        long[] floats = memory.createFloatLinks(new LinkType[]{LinkType.LINK}, new float[]{0.5f});
+        assertThrows(ScMemoryException.class, () -> memory.getIntegerLinkContent(floats, (link, content) -> {
+        }));
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void failOnContentOfAnotherType() throws Exception {
+        long[] floats = memory.createFloatLinks(new LinkType[]{LinkType.LINK}, new float[]{0.5f});
+        ScMemoryException exception = assertThrows(ScMemoryException.class, () -> memory.getIntegerLinkContent(floats));
+        assertTrue(exception.getMessage().contains(String.valueOf(floats[0])), exception.getMessage());
+        assertThrows(ScMemoryException.class, () -> memory.getFloatLinkContent(new long[]{12345L}));
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void checkArraysBeforeSending() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> memory.createEdges(new EdgeType[]{EdgeType.ACCESS}, new long[]{1L}, new long[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> memory.setIntegerLinkContent(new long[]{1L}, new int[]{1, 2}));
+        assertEquals(0, memory.createNodes(new NodeType[0]).length);
+        assertEquals(0, memory.getIntegerLinkContent(new long[0]).length);
+        assertTrue(memory.deleteElements(new long[0]));
+        assertEquals(0, server.requests.get());
+    }
+
+    /**
+     * Finds every link with content, its edge has the address of the link plus the offset.
+     */
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void cacheContentsOfLinks() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setContentCacheMaxBytes(1024 * 1024);
+        SyncOstisScMemory cached = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        cached.open();
+        try {
+            long[] links = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK}, new int[]{1, 2});
+            int requests = server.requests.get();
+            assertArrayEquals(new int[]{1, 2}, cached.getIntegerLinkContent(links));
+            assertArrayEquals(new int[]{1, 2}, cached.getIntegerLinkContent(links));
+            assertEquals(requests + 1, server.requests.get());
+
+            assertArrayEquals(new boolean[]{true}, cached.setIntegerLinkContent(new long[]{links[0]}, new int[]{5}));
+            assertArrayEquals(new int[]{5, 2}, cached.withTimeout(Duration.ofSeconds(5)).getIntegerLinkContent(links));
+            ScLinkString label = cached.createStringLinks(Stream.of(LinkType.LINK), Stream.of("label")).findFirst().get();
+            assertEquals(List.of("label"), cached.getStringLinkContent(Stream.of(label)).toList());
+            assertEquals(requests + 3, server.requests.get());
+
+            ContentCacheStats stats = cached.getContentCacheStats();
+            assertEquals(5, stats.getHits());
+            assertEquals(2, stats.getMisses());
+            assertEquals(3, stats.getSize());
+
+            assertTrue(cached.deleteElements(links));
+            cached.getIntegerLinkContent(links);
+            assertEquals(requests + 5, server.requests.get());
+        } finally {
+            cached.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void invalidateCacheByEventsOfOtherClients() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setContentCacheMaxBytes(1024 * 1024);
+        configuration.setContentCacheInvalidationEnabled(true);
+        SyncOstisScMemory cached = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        cached.open();
+        try {
+            long[] links = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK}, new int[]{1, 2});
+            int requests = server.requests.get();
+            assertArrayEquals(new int[]{1, 2}, cached.getIntegerLinkContent(links));
+            assertArrayEquals(new int[]{1, 2}, cached.getIntegerLinkContent(links));
+            assertEquals(requests + 2, server.requests.get());
+            assertEquals(4, server.subscriptions.size());
+
+            memory.setIntegerLinkContent(new long[]{links[0]}, new int[]{5});
+            while (cached.getContentCacheStats().getSize() != 1) {
+                Thread.sleep(10);
+            }
+            assertArrayEquals(new int[]{5, 2}, cached.getIntegerLinkContent(links));
+            assertEquals(requests + 4, server.requests.get());
+
+            memory.deleteElements(links);
+            while (cached.getContentCacheStats().getSize() != 0) {
+                Thread.sleep(10);
+            }
+            long[] other = memory.createIntegerLinks(new LinkType[]{LinkType.LINK}, new int[]{3});
+            assertArrayEquals(new int[]{3}, cached.getIntegerLinkContent(other));
+            assertEquals(4, server.deletedSubscriptions.get());
+            assertEquals(2, server.subscriptions.size());
+        } finally {
+            cached.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void deleteSubscriptionsOfContentsThatAreNotCached() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setContentCacheMaxBytes(1024 * 1024);
+        configuration.setContentCacheInvalidationEnabled(true);
+        SyncOstisScMemory cached = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        cached.open();
+        try {
+            long[] node = memory.createNodes(new NodeType[]{NodeType.NODE});
+            assertThrows(ScMemoryException.class, () -> cached.getIntegerLinkContent(node));
+            assertEquals(2, server.subscriptions.size());
+
+            long[] link = memory.createIntegerLinks(new LinkType[]{LinkType.LINK}, new int[]{1});
+            assertArrayEquals(new int[]{1}, cached.getIntegerLinkContent(link));
+            assertEquals(2, server.deletedSubscriptions.get());
+            assertEquals(2, server.subscriptions.size());
+        } finally {
+            cached.close();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void invalidateCacheOfPooledConnections() throws Exception {
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setContentCacheMaxBytes(1024 * 1024);
+        configuration.setContentCacheInvalidationEnabled(true);
+        PooledOstisScMemory cached = new PooledOstisScMemory(new URI("ws://localhost:" + server.getPort()), 3, configuration);
+        cached.open();
+        try {
+            long[] links = memory.createIntegerLinks(new LinkType[]{LinkType.LINK, LinkType.LINK, LinkType.LINK}, new int[]{1, 2, 3});
+            for (int i = 0; i < links.length; i++) {
+                assertArrayEquals(new int[]{i + 1}, cached.getIntegerLinkContent(new long[]{links[i]}));
+            }
+            assertEquals(6, server.subscriptions.size());
+            assertEquals(1, server.subscriptions.values().stream().map(subscription -> subscription.conn).distinct().count());
+
+            memory.deleteElements(links);
+            while (cached.getContentCacheStats().getSize() != 0) {
+                Thread.sleep(10);
+            }
+            long[] other = memory.createIntegerLinks(new LinkType[]{LinkType.LINK}, new int[]{4});
+            assertArrayEquals(new int[]{4}, cached.getIntegerLinkContent(other));
+            assertEquals(6, server.deletedSubscriptions.get());
+            assertEquals(2, server.subscriptions.size());
+        } finally {
+            cached.close();
+        }
+    }
+
+    private static class ContentServer extends WebSocketServer {
+        private static final long EDGE_OFFSET = 10_000;
+
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger deleted = new AtomicInteger();
+        private final AtomicLong lastAddress = new AtomicLong();
+        private final Map<Long, ObjectNode> contents = new ConcurrentHashMap<>();
+        private final AtomicLong lastEvent = new AtomicLong();
+        private final AtomicInteger deletedSubscriptions = new AtomicInteger();
+        private final Map<Long, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+        public ContentServer() {
+            super(new InetSocketAddress("localhost", 0));
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            requests.incrementAndGet();
+            try {
+                conn.send(mapper.writeValueAsString(answer(conn, mapper.readTree(message))));
+            } catch (IOException e) {
+                conn.close();
+            }
+        }
+
+        private JsonNode answer(WebSocket conn, JsonNode request) {
+            JsonNodeFactory nodes = JsonNodeFactory.instance;
+            ObjectNode response = nodes.objectNode()
+                    .put("id", request.get("id").asLong())
+                    .put("event", false)
+                    .put("status", true);
+            ArrayNode payload = response.putArray("payload");
+            switch (request.get("type").asText()) {
+                case "create_elements" -> request.get("payload").forEach(element -> {
+                    long address = lastAddress.incrementAndGet();
+                    if (element.has("content")) {
+                        contents.put(address, content(element.get("content"), element.get("content_type").asText()));
+                    }
+                    payload.add(address);
+                });
+                case "content" -> request.get("payload").forEach(command -> {
+                    long address = command.get("addr").asLong();
+                    if (command.get("command").asText().equals("set")) {
+                        contents.put(address, content(command.get("data"), command.get("type").asText()));
+                        notify(address, "content_change");
+                        payload.add(true);
+                    } else {
+                        payload.add(contents.getOrDefault(address, nodes.objectNode().putNull("value")));
+                    }
+                });
+                case "delete_elements" -> request.get("payload").forEach(address -> {
+                    deleted.incrementAndGet();
+                    notify(address.asLong(), "delete_element");
+                });
+                case "events" -> {
+                    request.get("payload").path("create").forEach(event -> {
+                        long id = lastEvent.incrementAndGet();
+                        subscriptions.put(id, new Subscription(conn, event.get("addr").asLong(), event.get("type").asText()));
+                        payload.add(id);
+                    });
+                    request.get("payload").path("delete").forEach(id -> {
+                        Subscription subscription = subscriptions.get(id.asLong());
+                        if (subscription != null && subscription.conn == conn && subscriptions.remove(id.asLong(), subscription)) {
+                            deletedSubscriptions.incrementAndGet();
+                        }
+                    });
+                }
+                case "search_template" -> {
+                    long fixed = request.get("payload").get(0).get(0).get("value").asLong();
+                    ObjectNode found = response.putObject("payload");
+                    ArrayNode addresses = found.putArray("addrs");
+                    contents.keySet().stream()
+                            .sorted()
+                            .forEach(link -> addresses.addArray().add(fixed).add(EDGE_OFFSET + link).add(link));
+                    found.putObject("aliases");
+                }
+                default -> response.put("status", false);
+            }
+            return response;
+        }
+
+        private void notify(long address, String type) {
+            subscriptions.forEach((id, subscription) -> {
+                if (subscription.address == address && subscription.type.equals(type)) {
+                    ObjectNode event = JsonNodeFactory.instance.objectNode()
+                            .put("id", id)
+                            .put("event", true)
+                            .put("status", true);
+                    event.putArray("payload").add(address).add(0).add(0);
+                    subscription.conn.send(event.toString());
+                }
+            });
+        }
+
+        private static ObjectNode content(JsonNode value, String type) {
+            return JsonNodeFactory.instance.objectNode()
+                    .put("type", type)
+                    .set("value", value);
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        private static class Subscription {
+            private final WebSocket conn;
+            private final long address;
+            private final String type;
+
+            private Subscription(WebSocket conn, long address, String type) {
+                this.conn = conn;
+                this.address = address;
+                this.type = type;
+            }
+        }
+    }
+}
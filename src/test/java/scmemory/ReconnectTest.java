@@ -0,0 +1,124 @@
+package scmemory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.model.ScMemory;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.exception.ScMemoryRetryableException;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs against a local server that drops the connection instead of answering the first request of the chosen type.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class ReconnectTest {
+    private DroppingServer server;
+    private ScMemory memory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new DroppingServer();
+        server.start();
+        server.started.await();
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setReconnectInitialDelay(Duration.ofMillis(10));
+        configuration.setReconnectMaxDelay(Duration.ofMillis(100));
+        memory = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        memory.open();
+    }
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        memory.close();
+        server.stop();
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void idempotentRequestIsSentAgainAfterReconnection() throws Exception {
+        server.droppedType = "content";
+        ScLinkInteger link = memory.createIntegerLinks(Stream.of(LinkType.LINK), Stream.of(5)).findFirst().get();
+        int content = memory.getIntegerLinkContent(Stream.of(link)).findFirst().get();
+        assertEquals(42, content);
+        assertEquals(3, server.receivedRequests.get());
+    }
+
+    @Test
+    @Timeout(value = 5000, unit = TimeUnit.MILLISECONDS)
+    void notIdempotentRequestFailsWithRetryableException() {
+        server.droppedType = "create_elements";
+        assertThrows(ScMemoryRetryableException.class, () -> memory.createNodes(Stream.of(NodeType.NODE)));
+        assertEquals(1, server.receivedRequests.get());
+    }
+
+    private static class DroppingServer extends WebSocketServer {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger receivedRequests = new AtomicInteger();
+        private final AtomicInteger droppedRequests = new AtomicInteger();
+        private volatile String droppedType;
+
+        public DroppingServer() {
+            super(new InetSocketAddress("localhost", 0));
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            receivedRequests.incrementAndGet();
+            try {
+                JsonNode request = mapper.readTree(message);
+                String type = request.get("type").asText();
+                if (type.equals(droppedType) && droppedRequests.getAndIncrement() == 0) {
+                    conn.close();
+                    return;
+                }
+                String payload = type.equals("create_elements")
+                        ? "[" + "1,".repeat(request.get("payload").size() - 1) + "1]"
+                        : "[{\"value\":42,\"type\":\"int\"}]";
+                conn.send("{\"id\":" + request.get("id").asLong() + ",\"event\":false,\"status\":true,\"payload\":" + payload + "}");
+            } catch (Exception e) {
+                conn.close();
+            }
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+}
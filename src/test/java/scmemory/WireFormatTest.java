@@ -0,0 +1,196 @@
+package scmemory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.jmantic.scmemory.config.OstisClientConfiguration;
+import org.jmantic.scmemory.config.WebsocketTransport;
+import org.jmantic.scmemory.config.WireFormat;
+import org.jmantic.scmemory.model.ScMemory;
+import org.jmantic.scmemory.model.element.edge.EdgeType;
+import org.jmantic.scmemory.model.element.edge.ScEdge;
+import org.jmantic.scmemory.model.element.link.LinkType;
+import org.jmantic.scmemory.model.element.link.ScLinkInteger;
+import org.jmantic.scmemory.model.element.node.NodeType;
+import org.jmantic.scmemory.model.element.node.ScNode;
+import org.jmantic.scmemory.websocketmemory.sync.SyncOstisScMemory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against a local server that plays the proxy of the sc-machine,
+ * which reads and writes messages in the configured wire format.
+ *
+ * @author artrayme
+ * @since 0.4.0
+ */
+public class WireFormatTest {
+    private TranslatingServer server;
+    private ScMemory memory;
+
+    @AfterEach
+    public void closeScMemory() throws Exception {
+        if (memory != null) {
+            memory.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void jsonIsSentInTextMessages() throws Exception {
+        checkOperations(WireFormat.JSON, WebsocketTransport.JAVA_WEBSOCKET);
+        assertEquals(0, server.binaryMessages.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void smileIsSentInBinaryMessages() throws Exception {
+        checkOperations(WireFormat.SMILE, WebsocketTransport.JAVA_WEBSOCKET);
+        assertEquals(0, server.textMessages.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void cborIsSentInBinaryMessages() throws Exception {
+        checkOperations(WireFormat.CBOR, WebsocketTransport.JAVA_WEBSOCKET);
+        assertEquals(0, server.textMessages.get());
+    }
+
+    @Test
+    @Timeout(value = 10000, unit = TimeUnit.MILLISECONDS)
+    void binaryMessagesOverJdkTransport() throws Exception {
+        checkOperations(WireFormat.SMILE, WebsocketTransport.JDK);
+        assertEquals(0, server.textMessages.get());
+    }
+
+    private void checkOperations(WireFormat format, WebsocketTransport transport) throws Exception {
+        server = new TranslatingServer(format);
+        server.start();
+        server.started.await();
+        OstisClientConfiguration configuration = new OstisClientConfiguration();
+        configuration.setWireFormat(format);
+        configuration.setTransport(transport);
+        configuration.setFragmentSize(16);
+        memory = new SyncOstisScMemory(new URI("ws://localhost:" + server.getPort()), configuration);
+        memory.open();
+
+        List<? extends ScNode> nodes = memory.createNodes(Stream.generate(() -> NodeType.NODE).limit(100)).toList();
+        assertEquals(100, nodes.size());
+        assertEquals(100L, nodes.get(99).getAddress());
+
+        ScLinkInteger link = memory.createIntegerLinks(Stream.of(LinkType.LINK), Stream.of(5)).findFirst().get();
+        assertEquals(42, memory.getIntegerLinkContent(Stream.of(link)).findFirst().get());
+
+        List<? extends ScEdge> edges = memory.findByTemplateNodeEdgeNode(nodes.get(0), EdgeType.ACCESS, NodeType.NODE).toList();
+        assertEquals(1, edges.size());
+        assertEquals(1000L, edges.get(0).getTarget().getAddress());
+    }
+
+    private static class TranslatingServer extends WebSocketServer {
+        private final WireFormat format;
+        private final ObjectMapper mapper;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final AtomicInteger textMessages = new AtomicInteger();
+        private final AtomicInteger binaryMessages = new AtomicInteger();
+        private final AtomicLong lastAddress = new AtomicLong();
+
+        public TranslatingServer(WireFormat format) {
+            super(new InetSocketAddress("localhost", 0));
+            this.format = format;
+            mapper = switch (format) {
+                case JSON -> new ObjectMapper();
+                case SMILE -> new ObjectMapper(new SmileFactory());
+                case CBOR -> new ObjectMapper(new CBORFactory());
+            };
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            textMessages.incrementAndGet();
+            try {
+                conn.send(mapper.writeValueAsString(answer(mapper.readTree(message))));
+            } catch (IOException e) {
+                conn.close();
+            }
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, ByteBuffer message) {
+            binaryMessages.incrementAndGet();
+            try {
+                byte[] bytes = new byte[message.remaining()];
+                message.get(bytes);
+                conn.send(mapper.writeValueAsBytes(answer(mapper.readTree(bytes))));
+            } catch (IOException e) {
+                conn.close();
+            }
+        }
+
+        private JsonNode answer(JsonNode request) {
+            JsonNodeFactory nodes = JsonNodeFactory.instance;
+            ObjectNode response = nodes.objectNode()
+                    .put("id", request.get("id").asLong())
+                    .put("event", false)
+                    .put("status", true);
+            switch (request.get("type").asText()) {
+                case "create_elements" -> {
+                    ArrayNode addresses = response.putArray("payload");
+                    request.get("payload").forEach(element -> addresses.add(lastAddress.incrementAndGet()));
+                }
+                case "content" -> {
+                    ArrayNode contents = response.putArray("payload");
+                    request.get("payload").forEach(command -> contents.addObject().put("value", 42).put("type", "int"));
+                }
+                case "search_template" -> {
+                    long fixed = request.get("payload").get(0).get(0).get("value").asLong();
+                    ObjectNode found = response.putObject("payload");
+                    found.putArray("addrs").addArray().add(fixed).add(999L).add(1000L);
+                    found.putObject("aliases");
+                }
+                default -> response.put("status", false);
+            }
+            return response;
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+            started.countDown();
+        }
+    }
+}